@@ -0,0 +1,4 @@
+module yunnori.bench {
+    requires yunnori.core; // Benchmarks and load tests, kept out of the engine's artifact
+
+}
@@ -0,0 +1,228 @@
+package yunnori.bench;
+
+import yunnori.core.BoardType;
+import yunnori.core.GameLogicController.GameState;
+import yunnori.record.GameRecord;
+import yunnori.record.Varint;
+import yunnori.server.GameServer;
+import yunnori.server.Protocol;
+import yunnori.sim.QuantileSketch;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Localhost load test of GameServer. Every room is played by a scripted client that sends
+ * one action every 'interval' ms (rolling, keeping the order, a random playable piece,
+ * grouping), at its own random phase, and opens a new game when one ends.
+ * Rooms are spread over 'connections' sockets driven by one client thread. Reports the
+ * round trip of each request, from sending it to reading its STATE, after a warm-up.
+ *
+ * Usage: LoadTest [rooms [connections [intervalMillis [seconds [host port]]]]]
+ * Without a host it starts a GameServer in the same JVM.
+ */
+public class LoadTest {
+    private static final GameState[] STATES = GameState.values();
+    private static final int ROOM_BITS = 20; // Rooms per test: up to 2^20
+
+    private final int rooms;
+    private final long intervalMicros;
+    private final Selector selector;
+    private final SocketChannel[] channels;
+    private final ByteBuffer[] inputs;
+    private final ByteBuffer out = ByteBuffer.allocate(Protocol.LENGTH_SIZE + Protocol.MAX_FRAME);
+    private final GameState[] states;
+    private final int[] masks; // Playable pieces
+    private final long[] sentAt; // 0 while no request of the room is in flight
+    private final long[] nextDue; // Micros; rooms keep their own phase so they never bunch up
+    private final PriorityQueue<Long> due = new PriorityQueue<>(); // dueMicros << ROOM_BITS | room
+    private final long start = System.nanoTime();
+    private final QuantileSketch latencyMicros = new QuantileSketch();
+    private boolean measuring;
+    private long requests;
+    private long games;
+    private long rejected;
+
+    private LoadTest(InetSocketAddress address, int rooms, int connections, long intervalMillis) throws IOException {
+        this.rooms = rooms;
+        this.intervalMicros = intervalMillis * 1000;
+        this.selector = Selector.open();
+        this.channels = new SocketChannel[connections];
+        this.inputs = new ByteBuffer[connections];
+        this.states = new GameState[rooms];
+        this.masks = new int[rooms];
+        this.sentAt = new long[rooms];
+        this.nextDue = new long[rooms];
+        for (int c = 0; c < connections; c++) {
+            SocketChannel channel = SocketChannel.open(address);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ, c);
+            channels[c] = channel;
+            inputs[c] = ByteBuffer.allocate(1 << 12);
+        }
+    }
+
+    private void run(long warmupMillis, long measureMillis) throws IOException {
+        for (int room = 0; room < rooms; room++)
+            open(room);
+        long warmupEnd = start + warmupMillis * 1_000_000;
+        long end = warmupEnd + measureMillis * 1_000_000;
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            if (!measuring && now >= warmupEnd) {
+                measuring = true;
+                requests = games = rejected = 0;
+            }
+            Long next = due.peek();
+            long waitMicros = next == null ? 1000 : (next >>> ROOM_BITS) - micros(now);
+            if (waitMicros > 0)
+                selector.select(Math.max(1, waitMicros / 1000));
+            else
+                selector.selectNow();
+            for (SelectionKey key : selector.selectedKeys())
+                read((Integer) key.attachment());
+            selector.selectedKeys().clear();
+            long nowMicros = micros(System.nanoTime());
+            while ((next = due.peek()) != null && (next >>> ROOM_BITS) <= nowMicros) {
+                due.poll();
+                act((int) (next & ((1 << ROOM_BITS) - 1)));
+            }
+        }
+    }
+
+    private long micros(long nanos) {
+        return (nanos - start) / 1000;
+    }
+
+    private void read(int connection) throws IOException {
+        ByteBuffer in = inputs[connection];
+        if (channels[connection].read(in) < 0)
+            throw new IOException("Server closed connection " + connection);
+        in.flip();
+        int length;
+        while ((length = Protocol.frameLength(in)) > 0) {
+            int frameStart = in.position();
+            in.position(frameStart + Protocol.LENGTH_SIZE);
+            int type = in.get();
+            int room = Varint.read(in);
+            if (type == Protocol.STATE)
+                onState(room, in);
+            in.position(frameStart + length);
+        }
+        in.compact();
+    }
+
+    private void onState(int room, ByteBuffer in) {
+        long now = System.nanoTime();
+        int status = Varint.read(in);
+        GameState state = STATES[Varint.read(in)];
+        Varint.read(in); // Current player
+        states[room] = state;
+        masks[room] = Varint.read(in);
+        if (sentAt[room] != 0 && measuring) {
+            latencyMicros.record((int) ((now - sentAt[room]) / 1000));
+            requests++;
+        }
+        sentAt[room] = 0;
+        if (status != Protocol.OK)
+            rejected++;
+        long nowMicros = micros(now);
+        if (nextDue[room] == 0)
+            nextDue[room] = nowMicros + ThreadLocalRandom.current().nextLong(intervalMicros + 1);
+        else
+            nextDue[room] = Math.max(nowMicros, nextDue[room] + intervalMicros);
+        due.add(nextDue[room] << ROOM_BITS | room);
+        if (state == GameState.GAME_OVER)
+            games++;
+    }
+
+    private void act(int room) throws IOException {
+        int playable = masks[room];
+        switch (states[room]) {
+            case WAITING_FOR_ROLL -> sendAction(room, GameRecord.action(GameRecord.ROLL, 0));
+            case WAITING_FOR_REORDER -> sendAction(room, GameRecord.action(GameRecord.KEEP_ORDER, 0));
+            case WAITING_FOR_PIECE_SELECTION, WAITING_FOR_STACK_SELECTION -> {
+                int pick = ThreadLocalRandom.current().nextInt(Integer.bitCount(playable));
+                int piece = Integer.numberOfTrailingZeros(playable);
+                for (int i = 0; i < pick; i++) {
+                    playable &= playable - 1;
+                    piece = Integer.numberOfTrailingZeros(playable);
+                }
+                sendAction(room, GameRecord.action(GameRecord.PIECE, piece));
+            }
+            case AWAITING_GROUPING_CHOICE -> sendAction(room, GameRecord.action(GameRecord.GROUP, 1));
+            default -> open(room); // Over or never started: a new game
+        }
+    }
+
+    private void open(int room) throws IOException {
+        out.clear();
+        int frame = Protocol.beginFrame(out, Protocol.OPEN, room);
+        Varint.write(out, 2);
+        Varint.write(out, 4);
+        Varint.write(out, BoardType.RECTANGLE.ordinal());
+        send(room, frame);
+    }
+
+    private void sendAction(int room, int action) throws IOException {
+        out.clear();
+        int frame = Protocol.beginFrame(out, Protocol.ACTION, room);
+        Varint.write(out, action);
+        send(room, frame);
+    }
+
+    private void send(int room, int frame) throws IOException {
+        Protocol.endFrame(out, frame);
+        out.flip();
+        sentAt[room] = System.nanoTime();
+        SocketChannel channel = channels[room % channels.length];
+        while (out.hasRemaining())
+            channel.write(out);
+    }
+
+    private void close() throws IOException {
+        for (SocketChannel channel : channels)
+            channel.close();
+        selector.close();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rooms = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        long intervalMillis = args.length > 2 ? Long.parseLong(args[2]) : 1000;
+        long seconds = args.length > 3 ? Long.parseLong(args[3]) : 30;
+        if (rooms > 1 << ROOM_BITS) {
+            throw new IllegalArgumentException("At most " + (1 << ROOM_BITS) + " rooms");
+        }
+        GameServer server = args.length > 5 ? null : GameServer.start(0, Integer.getInteger("threads", Runtime.getRuntime().availableProcessors()));
+        InetSocketAddress address = server == null
+                ? new InetSocketAddress(args[4], Integer.parseInt(args[5]))
+                : new InetSocketAddress("localhost", server.getPort());
+
+        LoadTest test = new LoadTest(address, rooms, Math.min(connections, rooms), intervalMillis);
+        long warmupMillis = Math.min(15_000, seconds * 250); // Past JIT compilation and the heap growing
+        test.run(warmupMillis, seconds * 1000 - warmupMillis);
+        double measured = (seconds * 1000 - warmupMillis) / 1000.0;
+        System.out.printf("%d rooms over %d connections, one action per room every %d ms%n", rooms,
+                test.channels.length, intervalMillis);
+        System.out.printf("%d requests in %.1f s (%.0f/s), %d games finished, %d rejected%n", test.requests,
+                measured, test.requests / measured, test.games, test.rejected);
+        QuantileSketch latency = test.latencyMicros;
+        System.out.printf("round trip: p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms%n",
+                latency.quantile(0.5) / 1000.0, latency.quantile(0.9) / 1000.0, latency.quantile(0.99) / 1000.0,
+                latency.quantile(0.999) / 1000.0, latency.getMax() / 1000.0);
+        test.close();
+        if (server != null) {
+            System.out.println("Server rooms open: " + server.getRoomCount());
+            server.close();
+        }
+    }
+}
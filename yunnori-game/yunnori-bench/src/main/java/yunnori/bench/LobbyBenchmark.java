@@ -0,0 +1,87 @@
+package yunnori.bench;
+
+import yunnori.core.BoardType;
+import yunnori.core.GameLogicController;
+import yunnori.server.ControllerPool;
+import yunnori.server.Lobby;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local benchmark of Lobby. 'producers' threads join players as fast as they can, half of
+ * them for the same game (2 teams of 4 on the rectangle) and the rest spread over other
+ * kinds; every match sets up and starts a game on a pooled controller, as a room would.
+ * Reports matches formed per second, after a warm-up.
+ *
+ * Usage: LobbyBenchmark [producers [seconds [shards]]]
+ */
+public class LobbyBenchmark {
+    // Kinds of game players ask for: { board, teams, pieces }, the first one half the time
+    private static final int[][] KINDS = {
+            { 0, 2, 4 }, { 0, 2, 4 }, { 0, 2, 4 }, { 0, 2, 4 },
+            { 1, 2, 4 }, { 2, 2, 4 }, { 0, 4, 4 }, { 2, 3, 5 } };
+    private static final BoardType[] BOARDS = BoardType.values();
+
+    private final ControllerPool controllers = new ControllerPool(1 << 10);
+    private final LongAdder matches = new LongAdder();
+    private final LongAdder joins = new LongAdder();
+    private final Lobby<Integer> lobby;
+    private volatile boolean running = true;
+
+    private LobbyBenchmark(int shards) {
+        this.lobby = new Lobby<>(shards, this::startGame);
+    }
+
+    private void startGame(Lobby.Match<Integer> match) {
+        GameLogicController game = controllers.acquire();
+        game.setupGame(match.numTeams(), match.numPieces(), match.boardType(), false);
+        game.startGame();
+        controllers.release(game);
+        matches.increment();
+    }
+
+    private void produce(CountDownLatch ready) {
+        ready.countDown();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Integer player = 0;
+        while (running) {
+            int[] kind = KINDS[random.nextInt(KINDS.length)];
+            lobby.join(player, BOARDS[kind[0]], kind[1], kind[2]);
+            joins.increment();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int producers = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        long seconds = args.length > 1 ? Long.parseLong(args[1]) : 10;
+        int shards = args.length > 2 ? Integer.parseInt(args[2]) : 2 * Runtime.getRuntime().availableProcessors();
+
+        LobbyBenchmark benchmark = new LobbyBenchmark(shards);
+        CountDownLatch ready = new CountDownLatch(producers);
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            threads[p] = new Thread(() -> benchmark.produce(ready), "lobby-producer-" + p);
+            threads[p].start();
+        }
+        ready.await();
+        long warmupMillis = Math.min(5_000, seconds * 250);
+        Thread.sleep(warmupMillis);
+        long matchesBefore = benchmark.matches.sum();
+        long joinsBefore = benchmark.joins.sum();
+        long start = System.nanoTime();
+        Thread.sleep(seconds * 1000 - warmupMillis);
+        double measured = (System.nanoTime() - start) / 1e9;
+        long matched = benchmark.matches.sum() - matchesBefore;
+        long joined = benchmark.joins.sum() - joinsBefore;
+        benchmark.running = false;
+        for (Thread thread : threads)
+            thread.join();
+
+        System.out.printf("%d producers, %d shards, %d cores%n", producers, benchmark.lobby.getShardCount(),
+                Runtime.getRuntime().availableProcessors());
+        System.out.printf("%.0f matches/s, %.0f joins/s over %.1f s; %d players left waiting%n", matched / measured,
+                joined / measured, measured, benchmark.lobby.getWaitingCount());
+    }
+}
@@ -0,0 +1,413 @@
+package yunnori.bench;
+
+import yunnori.core.Board;
+import yunnori.core.BoardType;
+import yunnori.core.Piece;
+import yunnori.core.YunnoriRoll;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks the compiled move table of every BoardType against the hand-coded movement rules
+ * the boards had before BoardGraph: every start position, every roll. Prints what each board
+ * disagrees on and exits 1 if any does.
+ *
+ * Usage: MoveTableCheck
+ */
+public class MoveTableCheck {
+    private final Board board;
+    private final BoardType boardType;
+    private final int finishPointIndex;
+
+    private MoveTableCheck(BoardType boardType) {
+        this.board = new Board(boardType);
+        this.boardType = boardType;
+        this.finishPointIndex = board.getFinishPointIndex();
+    }
+
+    public static void main(String[] args) {
+        boolean agree = true;
+        for (BoardType type : BoardType.values()) {
+            List<String> mismatches = new MoveTableCheck(type).findMismatches();
+            System.out.println(type + ": " + (mismatches.isEmpty() ? "move table matches the legacy rules"
+                    : mismatches.size() + " mismatches " + mismatches));
+            agree &= mismatches.isEmpty();
+        }
+        if (!agree)
+            System.exit(1);
+    }
+
+    // As "position+steps: table T, legacy L"
+    private List<String> findMismatches() {
+        List<String> mismatches = new ArrayList<>();
+        for (int pos = 0; pos < board.getPointCount(); pos++) {
+            for (YunnoriRoll roll : YunnoriRoll.values()) {
+                Piece piece = new Piece(0, 0);
+                piece.moveTo(pos, board);
+                int table = board.calculateTargetPosition(piece, roll.getSteps());
+                int legacy = calculateTargetPosition(piece, roll.getSteps());
+                if (table != legacy) {
+                    mismatches.add(pos + (roll.getSteps() < 0 ? "" : "+") + roll.getSteps() + ": table " + table
+                            + ", legacy " + legacy);
+                }
+            }
+        }
+        return mismatches;
+    }
+
+    // --- Legacy hand-coded rules, from before the boards were BoardGraphs ---
+
+    private int getPreviousPosition(int currentPos) {
+        if (boardType == BoardType.RECTANGLE) {
+            if (currentPos == 0)
+                return 20;
+            else if (currentPos == 21)
+                return 5;
+            else if (currentPos == 26)
+                return 10;
+            else if (currentPos == 28)
+                return 23;
+
+            /*
+            * TODO: More detailed rules needed for Center
+            */
+            else if (currentPos == 23)
+                return 27;
+
+            else
+                return currentPos - 1;
+
+        } else if (boardType == BoardType.PENTAGON) {
+            if (currentPos == 0)
+                return 24;
+
+            // Path 1: 5-26-31-35-34-29-20
+            else if (currentPos == 26)
+                return 5;
+            else if (currentPos == 31)
+                return 26;
+            else if (currentPos == 34)
+                return 35;
+            else if (currentPos == 29)
+                return 34;
+
+            // Path 2: 10-27-32-35-34-29-20
+            else if (currentPos == 27)
+                return 10;
+            else if (currentPos == 32)
+                return 27;
+
+            // Path 3: 15-28-33-35-30-25-36
+            else if (currentPos == 28)
+                return 15;
+            else if (currentPos == 33)
+                return 28;
+            else if (currentPos == 30)
+                return 35;
+            else if (currentPos == 25)
+                return 30;
+
+            /*
+            * TODO: More detailed rules needed for Center
+            */
+            else if (currentPos == 35)
+                return 33;
+
+            else
+                return currentPos - 1;
+        } else if (boardType == BoardType.HEXAGON) {
+            if (currentPos == 0)
+                return 29;
+
+            // Path 1: 5-31-37-42-40-34-20
+            else if (currentPos == 31)
+                return 5;
+            else if (currentPos == 37)
+                return 31;
+            else if (currentPos == 40)
+                return 42;
+            else if (currentPos == 34)
+                return 40;
+
+            // Path 2: 10-32-38-42-41-35-25
+            else if (currentPos == 32)
+                return 10;
+            else if (currentPos == 38)
+                return 32;
+            else if (currentPos == 41)
+                return 42;
+            else if (currentPos == 35)
+                return 41;
+
+            // Path 3: 15-33-37-42-36-30-43
+            else if (currentPos == 33)
+                return 15;
+            else if (currentPos == 37)
+                return 33;
+            else if (currentPos == 36)
+                return 42;
+            else if (currentPos == 30)
+                return 36;
+
+            /*
+            * TODO: More detailed rules needed for Center
+            */
+            else if (currentPos == 42)
+                return 39;
+
+            else
+                return currentPos - 1;
+        }
+        return -1;
+    }
+
+    // Walks the legacy rules one step at a time
+    private int calculateTargetPosition(Piece piece, int steps) {
+        int originalPos = piece.getCurrentPositionIndex();
+        int currentSimulationPos = originalPos;
+
+        switch (boardType) {
+            case RECTANGLE:
+                if (piece.isFinished()) {
+                    return this.finishPointIndex;
+                }
+                if (steps == -1) {
+                    if (originalPos == 0) {
+                        return 20;
+                    }
+                    return getPreviousPosition(originalPos);
+                }
+
+                for (int i = 0; i < steps; i++) {
+                    if (currentSimulationPos == this.finishPointIndex) {
+                        break;
+                    }
+                    int nextPosAfterOneStep = -1;
+
+                    if (currentSimulationPos == 23) { // Center
+                        if (originalPos == 5 || originalPos == 21 || originalPos == 22) {
+                            nextPosAfterOneStep = 24; // Path 3 (23->24->25->15)
+                        } else { // Came from 10 originally OR started at 23
+                            nextPosAfterOneStep = 28; // Path 4 (23->28->29->30->31)
+                        }
+                    } else if (currentSimulationPos == 0)
+                        nextPosAfterOneStep = 1;
+                    else if (currentSimulationPos == 20)
+                        nextPosAfterOneStep = this.finishPointIndex; // End of outer -> Finish
+                    else if (currentSimulationPos == 30)
+                        nextPosAfterOneStep = this.finishPointIndex; // Point before Finish -> Finish
+
+                    else if (currentSimulationPos == 22)
+                        nextPosAfterOneStep = 23; // Path 1 (5->21->22->23) end
+                    else if (currentSimulationPos == 27)
+                        nextPosAfterOneStep = 23; // Path 2 (10->26->27->23) end
+
+                    else if (currentSimulationPos == 25)
+                        nextPosAfterOneStep = 15; // Path 3 (23->24->25->15) end
+                    else if (currentSimulationPos == 29)
+                        nextPosAfterOneStep = 30; // Path 4 (23->28->29->30) end
+
+                    else if (i == 0 && originalPos == 5) {
+                        nextPosAfterOneStep = 21;
+                    } // Start of Path 1
+                    else if (i == 0 && originalPos == 10) {
+                        nextPosAfterOneStep = 26;
+                    } // Start of Path 2
+                    else {
+                        nextPosAfterOneStep = currentSimulationPos + 1; // Linear move
+                    }
+                    currentSimulationPos = nextPosAfterOneStep;
+                }
+                if (currentSimulationPos > this.finishPointIndex) {
+                    currentSimulationPos = this.finishPointIndex;
+                }
+                return currentSimulationPos;
+
+            case PENTAGON:
+                if (piece.isFinished()) {
+                    return this.finishPointIndex;
+                }
+                if (steps == -1) {
+                    if (originalPos == 0) {
+                        return 24;
+                    }
+                    return getPreviousPosition(originalPos);
+                }
+
+                for (int i = 0; i < steps; i++) {
+                    if (currentSimulationPos == this.finishPointIndex) {
+                        break;
+                    }
+                    int nextPosAfterOneStep = -1; // initialized to negative value
+
+                    if (currentSimulationPos == 35) { // Center
+                        if (originalPos == 5 || originalPos == 26 || originalPos == 31 || originalPos == 10
+                                || originalPos == 27 || originalPos == 32) {
+                            /*
+                             * Path: 5, 26, 31 to Center
+                             * Path: 10, 27, 32 to Center
+                             */
+                            nextPosAfterOneStep = 34;
+                        } else {
+                            /* 
+                             * Came from 15 originally
+                             * Started at 35
+                            */
+                            nextPosAfterOneStep = 30; // Path: 35->30->25
+                        }
+                    } else if (currentSimulationPos == 24)
+                        nextPosAfterOneStep = this.finishPointIndex; // End of outer -> Finish
+
+                    // Path 1: 5->26->31->35
+                    else if (currentSimulationPos == 26)
+                        nextPosAfterOneStep = 31;
+                    else if (currentSimulationPos == 31)
+                        nextPosAfterOneStep = 35;
+
+                    // Path 2: 10->27->32->35
+                    else if (currentSimulationPos == 27)
+                        nextPosAfterOneStep = 32;
+                    else if (currentSimulationPos == 32)
+                        nextPosAfterOneStep = 35;
+
+                    // Path 3: 15->28->33->35
+                    else if (currentSimulationPos == 28)
+                        nextPosAfterOneStep = 33;
+                    else if (currentSimulationPos == 33)
+                        nextPosAfterOneStep = 35;
+
+                    // Path 4: 35->34->29->20
+                    else if (currentSimulationPos == 34)
+                        nextPosAfterOneStep = 29;
+                    else if (currentSimulationPos == 29)
+                        nextPosAfterOneStep = 20;
+
+                    // Path 5: 35->30->25->36(Finish)
+                    else if (currentSimulationPos == 30)
+                        nextPosAfterOneStep = 25;
+                    else if (currentSimulationPos == 25)
+                        nextPosAfterOneStep = 36;
+
+                    // Start of Path 1
+                    else if (i == 0 && originalPos == 5) {
+                        nextPosAfterOneStep = 26;
+                    }
+                    // Start of Path 2
+                    else if (i == 0 && originalPos == 10) {
+                        nextPosAfterOneStep = 27;
+                    }
+                    // Start of Path 3
+                    else if (i == 0 && originalPos == 15) {
+                        nextPosAfterOneStep = 28;
+                    }
+                    // General cases: Just moves one more index
+                    else {
+                        nextPosAfterOneStep = currentSimulationPos + 1; // Linear move
+                    }
+                    currentSimulationPos = nextPosAfterOneStep;
+                }
+                if (currentSimulationPos > this.finishPointIndex) {
+                    currentSimulationPos = this.finishPointIndex;
+                }
+                return currentSimulationPos;
+            case HEXAGON:
+                if (piece.isFinished()) {
+                    return this.finishPointIndex;
+                }
+                if (steps == -1) {
+                    if (originalPos == 0) {
+                        return 29;
+                    }
+                    return getPreviousPosition(originalPos);
+                }
+
+                for (int i = 0; i < steps; i++) {
+                    if (currentSimulationPos == this.finishPointIndex) {
+                        break;
+                    }
+                    int nextPosAfterOneStep = -1; // initialized to negative value
+
+                    if (currentSimulationPos == 42) { // Center
+                        if (originalPos == 5 || originalPos == 31 || originalPos == 37) {
+                            /*
+                             * Path: 5, 31, 47 to Center
+                             */
+                            nextPosAfterOneStep = 40;
+                        } else if (originalPos == 10 || originalPos == 32 || originalPos == 38) {
+                            /* 
+                             * Path: 10, 32, 38 to Center
+                            */
+                            nextPosAfterOneStep = 41;
+                        } else {
+                            /* 
+                             * Came from 15 originally
+                             * Started at 42
+                            */
+                            nextPosAfterOneStep = 36;
+                        }
+                    } else if (currentSimulationPos == 29)
+                        nextPosAfterOneStep = this.finishPointIndex; // End of outer -> Finish
+
+                    // Path 1-1: 5->31->37->42
+                    else if (currentSimulationPos == 31)
+                        nextPosAfterOneStep = 37;
+                    else if (currentSimulationPos == 37)
+                        nextPosAfterOneStep = 42;
+                    // Path 1-2: 42->40->34->20
+                    else if (currentSimulationPos == 40)
+                        nextPosAfterOneStep = 34;
+                    else if (currentSimulationPos == 34)
+                        nextPosAfterOneStep = 20;
+
+                    // Path 2-1: 10->32->38->42
+                    else if (currentSimulationPos == 32)
+                        nextPosAfterOneStep = 38;
+                    else if (currentSimulationPos == 38)
+                        nextPosAfterOneStep = 42;
+                    // Path 2-2: 42->41->35->25
+                    else if (currentSimulationPos == 41)
+                        nextPosAfterOneStep = 35;
+                    else if (currentSimulationPos == 35)
+                        nextPosAfterOneStep = 25;
+
+                    // Path 3: 15->33->37->42
+                    else if (currentSimulationPos == 33)
+                        nextPosAfterOneStep = 37;
+                    else if (currentSimulationPos == 37)
+                        nextPosAfterOneStep = 42;
+
+                    // Path 4: 42->36->30->43(Finish)
+                    else if (currentSimulationPos == 36)
+                        nextPosAfterOneStep = 30;
+                    else if (currentSimulationPos == 30)
+                        nextPosAfterOneStep = 43;
+
+                    // Start of Path 1
+                    else if (i == 0 && originalPos == 5) {
+                        nextPosAfterOneStep = 31;
+                    }
+                    // Start of Path 2
+                    else if (i == 0 && originalPos == 10) {
+                        nextPosAfterOneStep = 32;
+                    }
+                    // Start of Path 3
+                    else if (i == 0 && originalPos == 15) {
+                        nextPosAfterOneStep = 33;
+                    }
+                    // General cases: Just moves one more index
+                    else {
+                        nextPosAfterOneStep = currentSimulationPos + 1; // Linear move
+                    }
+                    currentSimulationPos = nextPosAfterOneStep;
+                }
+                if (currentSimulationPos > this.finishPointIndex) {
+                    currentSimulationPos = this.finishPointIndex;
+                }
+                return currentSimulationPos;
+            default:
+                return 0;
+        }
+
+    }
+}
@@ -0,0 +1,10 @@
+module yunnori.core {
+    // Nothing beyond java.base, so simulators and servers run on a small jlink image
+
+    exports yunnori.core; // Where GameLogicController and models are
+    exports yunnori.sim; // Headless simulation
+    exports yunnori.ai; // Computer players
+    exports yunnori.record; // Game records and replay
+    exports yunnori.server; // Multi-room game server
+
+}
@@ -0,0 +1,409 @@
+package yunnori.ai;
+
+import yunnori.core.Board;
+import yunnori.core.BoardType;
+import yunnori.core.YunnoriRoll;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Solves the two-team endgames of one BoardType for EndgameTablebase by value iteration.
+ *
+ * A turn is a throw outcome followed by the mover's choices. Every throw but the last of a
+ * turn is a YUT or MO, and any outcome with more than one throw can be reordered freely, so
+ * an outcome is a multiset of rolls: some YUTs and MOs plus one final DO, GAE, GEOL or
+ * BACK_DO. For each multiset the mover picks the best roll, piece and grouping choice, one
+ * roll at a time (W below); a catch makes the turn end in another turn for the mover.
+ * Outcomes with more than maxBonusThrows YUTs and MOs (probability 8^-(maxBonusThrows + 1))
+ * are left out and the rest renormalized.
+ *
+ * Values are from the mover's side, which folds the two teams onto one table (the team
+ * swap symmetry). The track has a start and a finish, so the boards have no rotational
+ * symmetry to exploit. Every sweep runs over the states in parallel.
+ */
+public class EndgameGenerator {
+    public static final int DEFAULT_MAX_BONUS_THROWS = 4;
+    public static final double DEFAULT_TOLERANCE = 1e-7;
+    private static final int MAX_ITERATIONS = 100_000;
+
+    private static final YunnoriRoll[] ROLLS = YunnoriRoll.values();
+    private static final YunnoriRoll[] FINAL_ROLLS = { YunnoriRoll.DO, YunnoriRoll.GAE, YunnoriRoll.GEOL,
+            YunnoriRoll.BACK_DO };
+    private static final int MAX_MOVES = 4; // Successors per state and roll: two units, group or not
+    private static final int WIN = -2;
+    private static final int NONE = -1;
+
+    private final Board board;
+    private final BoardType boardType;
+    private final int maxRemaining;
+    private final int maxBonusThrows;
+    private final int points;
+    private final int start;
+    private final int finish;
+    private final int[][] groupOffsets;
+    private final int states;
+
+    // Transitions: successors[(state * ROLLS.length + roll) * MAX_MOVES + k] is WIN, NONE or (state << 1 | catch)
+    private final int[] successors;
+    private final int[] swapped; // The same position with the other team to move
+
+    // Throw multisets (y YUTs, m MOs, final roll f, f = 0 for none) in order of size
+    private final int[] multisetYut, multisetMo, multisetFinal;
+    private final int[][] children; // [multiset][roll ordinal] = multiset without that roll, or NONE
+    private final double[] outcomeProbability; // Per multiset, 0 for those that are no whole throw outcome
+
+    private int iterations;
+
+    public EndgameGenerator(BoardType boardType, int maxRemaining, int maxBonusThrows) {
+        if (maxRemaining < 1 || maxRemaining > EndgameTablebase.MAX_REMAINING) {
+            throw new IllegalArgumentException(
+                    "Remaining pieces must be 1.." + EndgameTablebase.MAX_REMAINING + ", got " + maxRemaining);
+        }
+        this.board = new Board(boardType);
+        this.boardType = boardType;
+        this.maxRemaining = maxRemaining;
+        this.maxBonusThrows = maxBonusThrows;
+        this.start = board.getStartPointIndex();
+        this.finish = board.getFinishPointIndex();
+        this.points = finish;
+        this.groupOffsets = EndgameTablebase.groupOffsets(maxRemaining, points);
+        this.states = EndgameTablebase.stateCount(maxRemaining, points);
+
+        int multisets = (maxBonusThrows + 1) * (maxBonusThrows + 2) / 2 * (FINAL_ROLLS.length + 1) - 1;
+        this.multisetYut = new int[multisets];
+        this.multisetMo = new int[multisets];
+        this.multisetFinal = new int[multisets];
+        this.children = new int[multisets][];
+        this.outcomeProbability = new double[multisets];
+        buildMultisets();
+
+        this.successors = new int[states * ROLLS.length * MAX_MOVES];
+        this.swapped = new int[states];
+        buildTransitions();
+    }
+
+    public int getStateCount() {
+        return states;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    // --- Throw outcomes ---
+
+    private void buildMultisets() {
+        int count = 0;
+        int[] index = new int[(maxBonusThrows + 1) * (maxBonusThrows + 1) * (FINAL_ROLLS.length + 1)];
+        Arrays.fill(index, NONE);
+        for (int size = 1; size <= maxBonusThrows + 1; size++) {
+            for (int f = 0; f <= FINAL_ROLLS.length; f++) {
+                int bonus = f == 0 ? size : size - 1;
+                if (bonus > maxBonusThrows)
+                    continue;
+                for (int yut = bonus; yut >= 0; yut--) {
+                    multisetYut[count] = yut;
+                    multisetMo[count] = bonus - yut;
+                    multisetFinal[count] = f;
+                    index[multisetKey(yut, bonus - yut, f)] = count++;
+                }
+            }
+        }
+
+        double pYut = YunnoriRoll.YUT.getProbability(), pMo = YunnoriRoll.MO.getProbability();
+        double total = 0;
+        for (int i = 0; i < count; i++) {
+            int yut = multisetYut[i], mo = multisetMo[i], f = multisetFinal[i];
+            int[] child = new int[ROLLS.length];
+            Arrays.fill(child, NONE);
+            if (yut > 0)
+                child[YunnoriRoll.YUT.ordinal()] = childIndex(index, yut - 1, mo, f);
+            if (mo > 0)
+                child[YunnoriRoll.MO.ordinal()] = childIndex(index, yut, mo - 1, f);
+            if (f > 0)
+                child[FINAL_ROLLS[f - 1].ordinal()] = childIndex(index, yut, mo, 0);
+            children[i] = child;
+            if (f > 0) {
+                // Sequences of the bonus throws times their probability, then the final throw
+                outcomeProbability[i] = binomial(yut + mo, yut) * Math.pow(pYut, yut) * Math.pow(pMo, mo)
+                        * FINAL_ROLLS[f - 1].getProbability();
+                total += outcomeProbability[i];
+            }
+        }
+        for (int i = 0; i < count; i++)
+            outcomeProbability[i] /= total;
+    }
+
+    private int multisetKey(int yut, int mo, int f) {
+        return (yut * (maxBonusThrows + 1) + mo) * (FINAL_ROLLS.length + 1) + f;
+    }
+
+    // Index of a smaller multiset, or the size of the table for the empty one (the leaf)
+    private int childIndex(int[] index, int yut, int mo, int f) {
+        if (yut + mo == 0 && f == 0)
+            return multisetYut.length;
+        return index[multisetKey(yut, mo, f)];
+    }
+
+    private static double binomial(int n, int k) {
+        double result = 1;
+        for (int i = 1; i <= k; i++)
+            result = result * (n - k + i) / i;
+        return result;
+    }
+
+    // --- Positions and moves ---
+
+    // Units (a single piece or a stack) of a configuration: positions and sizes
+    private int units(int remaining, int configuration, int[] positions, int[] sizes) {
+        if (remaining == 1) {
+            positions[0] = configuration;
+            sizes[0] = 1;
+            return 1;
+        }
+        int triangle = EndgameTablebase.triangle(points);
+        if (configuration >= triangle) {
+            positions[0] = configuration - triangle;
+            sizes[0] = 2;
+            return 1;
+        }
+        int high = (int) ((Math.sqrt(8.0 * configuration + 1) - 1) / 2);
+        while (high * (high + 1) / 2 > configuration)
+            high--;
+        while ((high + 1) * (high + 2) / 2 <= configuration)
+            high++;
+        positions[0] = configuration - high * (high + 1) / 2;
+        positions[1] = high;
+        sizes[0] = sizes[1] = 1;
+        return 2;
+    }
+
+    private int configuration(int count, int[] positions, int[] sizes) {
+        if (count == 1)
+            return sizes[0] == 1 ? positions[0] : EndgameTablebase.stackConfiguration(positions[0], points);
+        return EndgameTablebase.pairConfiguration(positions[0], positions[1]);
+    }
+
+    private int state(int moverRemaining, int moverConfiguration, int opponentRemaining, int opponentConfiguration) {
+        return groupOffsets[moverRemaining][opponentRemaining]
+                + moverConfiguration * EndgameTablebase.configurationCount(opponentRemaining, points)
+                + opponentConfiguration;
+    }
+
+    private void buildTransitions() {
+        Arrays.fill(successors, NONE);
+        int[] moverPositions = new int[2], moverSizes = new int[2];
+        int[] opponentPositions = new int[2], opponentSizes = new int[2];
+        int[] newPositions = new int[2], newSizes = new int[2];
+        int[] caughtPositions = new int[2], caughtSizes = new int[2];
+
+        for (int m = 1; m <= maxRemaining; m++) {
+            for (int o = 1; o <= maxRemaining; o++) {
+                int moverConfigurations = EndgameTablebase.configurationCount(m, points);
+                int opponentConfigurations = EndgameTablebase.configurationCount(o, points);
+                for (int a = 0; a < moverConfigurations; a++) {
+                    int moverUnits = units(m, a, moverPositions, moverSizes);
+                    for (int b = 0; b < opponentConfigurations; b++) {
+                        int state = state(m, a, o, b);
+                        swapped[state] = state(o, b, m, a);
+                        int opponentUnits = units(o, b, opponentPositions, opponentSizes);
+
+                        for (YunnoriRoll roll : ROLLS) {
+                            int slot = (state * ROLLS.length + roll.ordinal()) * MAX_MOVES;
+                            int moves = 0;
+                            for (int u = 0; u < moverUnits; u++) {
+                                if (u == 1 && moverSizes[0] == 1 && moverPositions[0] == moverPositions[1])
+                                    continue; // Two single pieces on one point move alike
+                                int target = board.getTargetPosition(moverPositions[u], roll.getSteps());
+                                int other = moverUnits == 2 ? 1 - u : -1;
+                                if (target == finish) {
+                                    if (other < 0) {
+                                        successors[slot + moves++] = WIN;
+                                    } else {
+                                        successors[slot + moves++] = state(1, moverPositions[other], o, b) << 1;
+                                    }
+                                    continue;
+                                }
+                                boolean interior = target > start && target < finish;
+
+                                // Catch every opponent unit on the target
+                                int catchFlag = 0;
+                                int caughtUnits = 0;
+                                int caughtPieces = 0;
+                                for (int v = 0; v < opponentUnits; v++) {
+                                    if (interior && opponentPositions[v] == target) {
+                                        catchFlag = 1;
+                                        caughtPieces += opponentSizes[v];
+                                    } else {
+                                        caughtPositions[caughtUnits] = opponentPositions[v];
+                                        caughtSizes[caughtUnits++] = opponentSizes[v];
+                                    }
+                                }
+                                for (int k = 0; k < caughtPieces; k++) {
+                                    caughtPositions[caughtUnits] = start;
+                                    caughtSizes[caughtUnits++] = 1;
+                                }
+                                int nextOpponent = configuration(caughtUnits, caughtPositions, caughtSizes);
+
+                                // Without grouping
+                                int count = 0;
+                                newPositions[count] = target;
+                                newSizes[count++] = moverSizes[u];
+                                if (other >= 0) {
+                                    newPositions[count] = moverPositions[other];
+                                    newSizes[count++] = moverSizes[other];
+                                }
+                                int next = state(m, configuration(count, newPositions, newSizes), o, nextOpponent);
+                                successors[slot + moves++] = next << 1 | catchFlag;
+
+                                // Grouping with the friendly piece on the target
+                                if (interior && other >= 0 && moverPositions[other] == target) {
+                                    newPositions[0] = target;
+                                    newSizes[0] = 2;
+                                    next = state(m, configuration(1, newPositions, newSizes), o, nextOpponent);
+                                    successors[slot + moves++] = next << 1 | catchFlag;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // --- Value iteration ---
+
+    /*
+     * Runs value iteration until no value moves by more than 'tolerance' and returns the
+     * win probability of the mover for every state, in EndgameTablebase order.
+     */
+    public float[] solve(double tolerance) {
+        int multisets = multisetYut.length;
+        float[] values = new float[states];
+        float[] next = new float[states];
+        Arrays.fill(values, 0.5f);
+        // w[c][multiset][state]: best value with those rolls left; c = 1 once the turn has caught
+        float[][][] w = new float[2][multisets][];
+        for (int i = 0; i < multisets; i++) {
+            w[0][i] = new float[states];
+            // Only whole outcomes with every bonus throw are never left over after a catch
+            if (multisetFinal[i] == 0 || multisetYut[i] + multisetMo[i] < maxBonusThrows)
+                w[1][i] = new float[states];
+        }
+
+        iterations = 0;
+        double delta;
+        do {
+            float[] current = values;
+            for (int i = 0; i < multisets; i++) {
+                final int multiset = i;
+                IntStream.range(0, states).parallel().forEach(state -> {
+                    w[0][multiset][state] = best(state, multiset, 0, current, w);
+                    if (w[1][multiset] != null)
+                        w[1][multiset][state] = best(state, multiset, 1, current, w);
+                });
+            }
+            float[] target = next;
+            IntStream.range(0, states).parallel().forEach(state -> {
+                double value = 0;
+                for (int m = 0; m < multisets; m++) {
+                    if (outcomeProbability[m] != 0)
+                        value += outcomeProbability[m] * w[0][m][state];
+                }
+                target[state] = (float) value;
+            });
+            delta = 0;
+            for (int s = 0; s < states; s++)
+                delta = Math.max(delta, Math.abs(next[s] - values[s]));
+            next = values;
+            values = target;
+            iterations++;
+        } while (delta > tolerance && iterations < MAX_ITERATIONS);
+        return values;
+    }
+
+    private float best(int state, int multiset, int caught, float[] values, float[][][] w) {
+        float best = 0;
+        int[] child = children[multiset];
+        for (int r = 0; r < ROLLS.length; r++) {
+            int rest = child[r];
+            if (rest == NONE)
+                continue;
+            int slot = (state * ROLLS.length + r) * MAX_MOVES;
+            for (int k = 0; k < MAX_MOVES; k++) {
+                int successor = successors[slot + k];
+                if (successor == NONE)
+                    break;
+                float value;
+                if (successor == WIN) {
+                    value = 1;
+                } else {
+                    int nextState = successor >>> 1;
+                    int nextCaught = caught | (successor & 1);
+                    if (rest == multisetYut.length) // Rolls used up: the turn ends
+                        value = nextCaught != 0 ? values[nextState] : 1 - values[swapped[nextState]];
+                    else
+                        value = w[nextCaught][rest][nextState];
+                }
+                if (value > best)
+                    best = value;
+            }
+        }
+        return best;
+    }
+
+    // --- Output ---
+
+    public void write(Path path, float[] values) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null)
+            Files.createDirectories(parent);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    EndgameTablebase.HEADER_SIZE + 4L * values.length);
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            map.putInt(0, EndgameTablebase.MAGIC);
+            map.putInt(4, EndgameTablebase.VERSION);
+            map.putInt(8, boardType.ordinal());
+            map.putInt(12, maxRemaining);
+            map.putInt(16, points);
+            map.position(EndgameTablebase.HEADER_SIZE);
+            map.asFloatBuffer().put(values);
+            map.force();
+        }
+    }
+
+    // Usage: EndgameGenerator <output directory> [board type ...]; writes endgame-<board>.tb per board
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: EndgameGenerator <output directory> [RECTANGLE|PENTAGON|HEXAGON ...]");
+            System.exit(1);
+        }
+        BoardType[] boardTypes = args.length > 1 ? new BoardType[args.length - 1] : BoardType.values();
+        for (int i = 1; i < args.length; i++)
+            boardTypes[i - 1] = BoardType.valueOf(args[i].toUpperCase());
+        for (BoardType boardType : boardTypes) {
+            long start = System.nanoTime();
+            EndgameGenerator generator = new EndgameGenerator(boardType, EndgameTablebase.MAX_REMAINING,
+                    DEFAULT_MAX_BONUS_THROWS);
+            float[] values = generator.solve(DEFAULT_TOLERANCE);
+            Path path = Path.of(args[0], fileName(boardType));
+            generator.write(path, values);
+            System.out.printf("%s: %d states, %d iterations, %.1f s -> %s%n", boardType, generator.getStateCount(),
+                    generator.getIterations(), (System.nanoTime() - start) / 1e9, path);
+        }
+    }
+
+    public static String fileName(BoardType boardType) {
+        return "endgame-" + boardType.name().toLowerCase() + ".tb";
+    }
+}
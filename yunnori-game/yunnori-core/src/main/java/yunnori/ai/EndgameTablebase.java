@@ -0,0 +1,173 @@
+package yunnori.ai;
+
+import yunnori.core.BoardType;
+import yunnori.core.GameLogicController;
+import yunnori.core.Piece;
+import yunnori.core.Team;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Win probabilities of two-team endgames under optimal play, solved by EndgameGenerator
+ * and memory-mapped from its file. An endgame is covered when both teams have at most
+ * getMaxRemaining() unfinished pieces; the value is for the team to move, at the start of
+ * its turn, so it only depends on where the unfinished pieces of the team to move and of
+ * its opponent stand, not on which team is which.
+ *
+ * Layout: a header of HEADER_SIZE bytes (MAGIC, VERSION, BoardType ordinal, max remaining
+ * pieces, points before the finish), then one float per state. States are grouped by the
+ * remaining pieces of the team to move and its opponent, each group indexed
+ * mover configuration * opponent configurations + opponent configuration.
+ * A configuration of one piece is its position; of two pieces, the triangular index of
+ * the unordered positions, or TRIANGLE + position when they are stacked.
+ */
+public class EndgameTablebase {
+    public static final int MAX_REMAINING = 2;
+
+    static final int MAGIC = 0x594E5442; // "YNTB"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+
+    private final BoardType boardType;
+    private final int maxRemaining;
+    private final int points; // Positions an unfinished piece can be on (start included, finish excluded)
+    private final int[][] groupOffsets; // [mover remaining][opponent remaining], 1-based
+    private final FloatBuffer values;
+
+    private EndgameTablebase(BoardType boardType, int maxRemaining, int points, FloatBuffer values) {
+        this.boardType = boardType;
+        this.maxRemaining = maxRemaining;
+        this.points = points;
+        this.groupOffsets = groupOffsets(maxRemaining, points);
+        this.values = values;
+    }
+
+    public static EndgameTablebase open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+                throw new IOException("Not an endgame tablebase: " + path);
+            }
+            BoardType boardType = BoardType.values()[map.getInt(8)];
+            int maxRemaining = map.getInt(12);
+            int points = map.getInt(16);
+            long expected = HEADER_SIZE + 4L * stateCount(maxRemaining, points);
+            if (channel.size() != expected) {
+                throw new IOException("Truncated endgame tablebase: " + path + " has " + channel.size()
+                        + " bytes, expected " + expected);
+            }
+            FloatBuffer values = map.position(HEADER_SIZE).slice().order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+            return new EndgameTablebase(boardType, maxRemaining, points, values);
+        }
+    }
+
+    public BoardType getBoardType() {
+        return boardType;
+    }
+
+    public int getMaxRemaining() {
+        return maxRemaining;
+    }
+
+    /*
+     * Probability that the team to move wins, for a two-team game on this board at the start
+     * of a turn (waiting for the roll, or in test mode for the first throw); NaN if the
+     * position is not covered.
+     */
+    public double probe(GameLogicController game) {
+        if (game.getNumTeams() != 2 || game.getBoardType() != boardType || !isTurnStart(game))
+            return Double.NaN;
+        List<Team> teams = game.getTeams();
+        int mover = game.getCurrentPlayerIndex();
+        Team own = teams.get(mover);
+        Team other = teams.get(1 - mover);
+        int moverRemaining = own.getPieces().size() - own.getFinishedPiecesCount();
+        int opponentRemaining = other.getPieces().size() - other.getFinishedPiecesCount();
+        if (moverRemaining < 1 || moverRemaining > maxRemaining || opponentRemaining < 1
+                || opponentRemaining > maxRemaining)
+            return Double.NaN;
+        return probe(moverRemaining, configuration(own, points), opponentRemaining, configuration(other, points));
+    }
+
+    // Nothing thrown yet this turn: no rolls to play, and no YUT/MO waiting for its bonus throw
+    private static boolean isTurnStart(GameLogicController game) {
+        GameLogicController.GameState state = game.getCurrentGameState();
+        return state == GameLogicController.GameState.WAITING_FOR_ROLL
+                || (state == GameLogicController.GameState.AWAITING_TEST_ROLL_INPUT
+                        && game.getRollsToProcess().isEmpty() && !game.hasEarnedRolls());
+    }
+
+    // Value of the mover and opponent configurations (see the class comment)
+    public double probe(int moverRemaining, int moverConfiguration, int opponentRemaining, int opponentConfiguration) {
+        return values.get(groupOffsets[moverRemaining][opponentRemaining]
+                + moverConfiguration * configurationCount(opponentRemaining, points) + opponentConfiguration);
+    }
+
+    // --- Indexing, shared with EndgameGenerator ---
+
+    static int configurationCount(int remaining, int points) {
+        return remaining == 1 ? points : triangle(points) + points;
+    }
+
+    static int triangle(int points) {
+        return points * (points + 1) / 2;
+    }
+
+    // Two unstacked pieces, in either order
+    static int pairConfiguration(int a, int b) {
+        int low = Math.min(a, b), high = Math.max(a, b);
+        return high * (high + 1) / 2 + low;
+    }
+
+    static int stackConfiguration(int position, int points) {
+        return triangle(points) + position;
+    }
+
+    static int[][] groupOffsets(int maxRemaining, int points) {
+        int[][] offsets = new int[maxRemaining + 1][maxRemaining + 1];
+        int offset = 0;
+        for (int m = 1; m <= maxRemaining; m++) {
+            for (int o = 1; o <= maxRemaining; o++) {
+                offsets[m][o] = offset;
+                offset += configurationCount(m, points) * configurationCount(o, points);
+            }
+        }
+        return offsets;
+    }
+
+    static int stateCount(int maxRemaining, int points) {
+        int count = 0;
+        for (int m = 1; m <= maxRemaining; m++) {
+            for (int o = 1; o <= maxRemaining; o++)
+                count += configurationCount(m, points) * configurationCount(o, points);
+        }
+        return count;
+    }
+
+    // Configuration of the unfinished pieces of a team with one or two of them
+    private static int configuration(Team team, int points) {
+        int first = -1;
+        Piece firstPiece = null;
+        for (Piece piece : team.getPieces()) {
+            if (piece.isFinished())
+                continue;
+            if (firstPiece == null) {
+                firstPiece = piece;
+                first = piece.getCurrentPositionIndex();
+            } else {
+                if (piece.getGroupLeader() == firstPiece || firstPiece.getGroupLeader() == piece)
+                    return stackConfiguration(first, points);
+                return pairConfiguration(first, piece.getCurrentPositionIndex());
+            }
+        }
+        return first;
+    }
+}
@@ -0,0 +1,354 @@
+package yunnori.ai;
+
+import yunnori.core.GameLogicController;
+import yunnori.core.Piece;
+import yunnori.core.YunnoriRoll;
+import yunnori.sim.DecisionPolicy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Expectiminimax player. Throws are chance nodes weighted by the exact throw probabilities
+ * and pruned with Star1 (values are bounded to [0, 1]); decisions are alpha-beta nodes.
+ * With more than two teams the search is paranoid: every other seat minimizes the value
+ * of the seat to move at the root.
+ *
+ * Iterative deepening runs until the time budget or the depth limit is reached. Positions
+ * are keyed by Zobrist hashes and stored in a TranspositionTable shared by all search
+ * threads; helper threads search the same root in a different order and feed the table
+ * (lazy SMP), the main thread's result is played.
+ *
+ * One instance plays one game at a time. Call close() to stop its search threads.
+ */
+public class ExpectiminimaxPlayer implements DecisionPolicy, AutoCloseable {
+    public static final int DEFAULT_TABLE_ENTRIES = 1 << 20;
+    private static final int MAX_PLY = 128;
+    private static final int CHECK_INTERVAL = 0xFF; // Nodes between deadline checks
+
+    // Throws ordered from most to least likely, so chance nodes tighten their bounds early
+    private static final YunnoriRoll[] ROLLS = { YunnoriRoll.GAE, YunnoriRoll.GEOL, YunnoriRoll.DO,
+            YunnoriRoll.YUT, YunnoriRoll.MO, YunnoriRoll.BACK_DO };
+
+    private final int threads;
+    private final ExecutorService executor;
+    private final TranspositionTable table;
+    private long budgetNanos;
+    private int maxDepth = MAX_PLY - 1;
+    private EndgameTablebase tablebase;
+
+    private SearchWorker[] workers;
+    private GameLogicController boundGame;
+    private ZobristKeys zobrist;
+    private volatile boolean stopped;
+    private SearchReport lastReport;
+
+    public ExpectiminimaxPlayer(long budgetMillis) {
+        this(budgetMillis, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ExpectiminimaxPlayer(long budgetMillis, int threads) {
+        this(budgetMillis, threads, DEFAULT_TABLE_ENTRIES);
+    }
+
+    public ExpectiminimaxPlayer(long budgetMillis, int threads, int tableEntries) {
+        this.budgetNanos = budgetMillis * 1_000_000L;
+        this.threads = Math.max(1, threads);
+        this.table = new TranspositionTable(tableEntries);
+        this.executor = Executors.newFixedThreadPool(this.threads, r -> {
+            Thread t = new Thread(r, "expectiminimax-search");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public void setBudgetMillis(long budgetMillis) {
+        this.budgetNanos = budgetMillis * 1_000_000L;
+    }
+
+    // Deepest iteration searched, in plies (decisions and throws both count)
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = Math.max(1, Math.min(MAX_PLY - 1, maxDepth));
+    }
+
+    // Exact values for the endgames it covers; positions reaching one are not searched further
+    public void setTablebase(EndgameTablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    public SearchReport getLastReport() {
+        return lastReport;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    // --- DecisionPolicy ---
+
+    @Override
+    public List<YunnoriRoll> chooseRollOrder(GameLogicController game, List<YunnoriRoll> rolls) {
+        List<List<YunnoriRoll>> orders = SearchGame.distinctOrders(rolls);
+        if (orders.size() == 1)
+            return null;
+        return orders.get(search(game));
+    }
+
+    @Override
+    public Piece choosePiece(GameLogicController game, List<Piece> playablePieces) {
+        if (playablePieces.size() == 1)
+            return playablePieces.get(0);
+        return game.getCurrentPlayer().getPieces().get(search(game));
+    }
+
+    @Override
+    public boolean chooseGrouping(GameLogicController game, Piece pieceThatMoved, List<Piece> friendlyPieces) {
+        return search(game) == 1;
+    }
+
+    // --- Search ---
+
+    // Searches the current decision of 'game' and returns the chosen action (see SearchGame.actions)
+    public synchronized int search(GameLogicController game) {
+        if (workers == null || boundGame != game || workers[0].sim.codec.getNumTeams() != game.getNumTeams()) {
+            workers = new SearchWorker[threads];
+            for (int i = 0; i < threads; i++)
+                workers[i] = new SearchWorker(game, i);
+            zobrist = new ZobristKeys(workers[0].sim.codec);
+            boundGame = game;
+        }
+        long[] rootState = workers[0].sim.codec.encode(game);
+        table.newSearch();
+        stopped = false;
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (SearchWorker worker : workers)
+            futures.add(executor.submit(() -> worker.run(rootState, deadline)));
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Expectiminimax search interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Expectiminimax search failed", e.getCause());
+            }
+        }
+
+        long nodes = 0, probes = 0, hits = 0, cutoffs = 0;
+        for (SearchWorker worker : workers) {
+            nodes += worker.nodes;
+            probes += worker.probes;
+            hits += worker.hits;
+            cutoffs += worker.cutoffs;
+        }
+        SearchWorker main = workers[0];
+        lastReport = new SearchReport(main.completedDepth, main.bestValue, nodes, System.nanoTime() - start,
+                probes, hits, cutoffs);
+        return main.rootActions[main.bestIndex];
+    }
+
+    // Unwinds a search whose time ran out
+    private static final class SearchAborted extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        static final SearchAborted INSTANCE = new SearchAborted();
+
+        private SearchAborted() {
+            super(null, null, false, false);
+        }
+    }
+
+    private class SearchWorker {
+        final SearchGame sim;
+        final int index;
+        final long[][] states = new long[MAX_PLY][];
+        final List<List<List<YunnoriRoll>>> orders = new ArrayList<>();
+        final double[] reward;
+
+        int rootPlayer;
+        long rootKeyMix;
+        long deadline;
+        int[] rootActions;
+        int bestIndex;
+        double bestValue;
+        int completedDepth;
+        long nodes, probes, hits, cutoffs;
+
+        SearchWorker(GameLogicController live, int index) {
+            this.sim = new SearchGame(live);
+            this.index = index;
+            this.reward = new double[live.getNumTeams()];
+            for (int i = 0; i < MAX_PLY; i++) {
+                states[i] = sim.codec.newState();
+                orders.add(new ArrayList<>());
+            }
+        }
+
+        void run(long[] rootState, long deadline) {
+            this.deadline = deadline;
+            nodes = probes = hits = cutoffs = 0;
+            completedDepth = 0;
+            bestIndex = 0;
+            bestValue = 0;
+            sim.load(rootState);
+            rootPlayer = sim.player();
+            rootKeyMix = zobrist.rootPlayer(rootPlayer);
+            List<List<YunnoriRoll>> rootOrders = orders.get(0);
+            rootOrders.clear();
+            rootActions = sim.actions(rootOrders);
+            sim.codec.copy(rootState, states[0]);
+            if (rootActions.length <= 1)
+                return;
+
+            // Helpers start one iteration deeper every other thread so they run ahead of the main thread
+            try {
+                for (int depth = 1 + (index & 1); depth <= maxDepth && !stopped; depth++) {
+                    searchRoot(depth);
+                    completedDepth = depth;
+                }
+            } catch (SearchAborted e) {
+                // Keep the result of the last completed iteration
+            }
+            if (index == 0)
+                stopped = true;
+        }
+
+        private void searchRoot(int depth) {
+            long[] state = states[0];
+            List<List<YunnoriRoll>> rootOrders = orders.get(0);
+            double alpha = 0;
+            double best = -1;
+            int bestSoFar = bestIndex;
+            for (int n = 0; n < rootActions.length; n++) {
+                // Previous best first, then the rest rotated per thread
+                int i = bestIndex;
+                if (n > 0) {
+                    int k = (n - 1 + index) % (rootActions.length - 1);
+                    i = k < bestIndex ? k : k + 1;
+                }
+                sim.load(state);
+                sim.apply(rootActions[i], rootOrders);
+                double v = search(1, depth - 1, alpha, 1);
+                if (v > best) {
+                    best = v;
+                    bestSoFar = i;
+                }
+                alpha = Math.max(alpha, v);
+            }
+            bestIndex = bestSoFar;
+            bestValue = best;
+        }
+
+        private double search(int ply, int depth, double alpha, double beta) {
+            if ((++nodes & CHECK_INTERVAL) == 0 && (stopped || System.nanoTime() > deadline))
+                throw SearchAborted.INSTANCE;
+            if (tablebase != null && sim.isChance()) {
+                double v = tablebase.probe(sim.game);
+                if (!Double.isNaN(v))
+                    return sim.player() == rootPlayer ? v : 1 - v;
+            }
+            if (sim.isOver() || depth <= 0 || ply >= MAX_PLY - 1)
+                return evaluate();
+
+            long[] state = states[ply];
+            sim.codec.encode(sim.game, state);
+            long key = zobrist.hash(state) ^ rootKeyMix;
+            int ttAction = -1;
+            probes++;
+            long entry = table.probe(key);
+            if (entry != 0) {
+                hits++;
+                ttAction = TranspositionTable.action(entry);
+                if (TranspositionTable.depth(entry) >= depth) {
+                    double v = TranspositionTable.value(entry);
+                    int bound = TranspositionTable.bound(entry);
+                    if (bound == TranspositionTable.EXACT
+                            || (bound == TranspositionTable.LOWER && v >= beta)
+                            || (bound == TranspositionTable.UPPER && v <= alpha)) {
+                        cutoffs++;
+                        return v;
+                    }
+                }
+            }
+
+            double value;
+            int bestAction = -1;
+            if (sim.isChance()) {
+                value = chance(ply, depth, alpha, beta, state);
+            } else {
+                List<List<YunnoriRoll>> nodeOrders = orders.get(ply);
+                nodeOrders.clear();
+                int[] actions = sim.actions(nodeOrders);
+                if (actions.length == 0)
+                    return evaluate();
+                boolean maximizing = sim.player() == rootPlayer;
+                int first = ttAction >= 0 && ttAction < actions.length ? ttAction : 0;
+                double a = alpha, b = beta;
+                value = maximizing ? -1 : 2;
+                for (int n = 0; n < actions.length; n++) {
+                    int i = n == 0 ? first : (n - 1 < first ? n - 1 : n);
+                    if (n > 0)
+                        sim.load(state);
+                    sim.apply(actions[i], nodeOrders);
+                    double v = search(ply + 1, depth - 1, a, b);
+                    if (maximizing ? v > value : v < value) {
+                        value = v;
+                        bestAction = i;
+                    }
+                    if (maximizing)
+                        a = Math.max(a, v);
+                    else
+                        b = Math.min(b, v);
+                    if (a >= b)
+                        break;
+                }
+            }
+
+            int bound = value <= alpha ? TranspositionTable.UPPER
+                    : value >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+            table.store(key, value, depth, bound, bestAction);
+            return value;
+        }
+
+        /*
+         * Star1: after each throw the outcomes left are bounded by 0 and 1, which gives a
+         * window for the next child and stops as soon as the average cannot reach (alpha, beta).
+         */
+        private double chance(int ply, int depth, double alpha, double beta, long[] state) {
+            double sum = 0;
+            double remaining = 1;
+            for (int n = 0; n < ROLLS.length; n++) {
+                double p = ROLLS[n].getProbability();
+                remaining -= p;
+                double childAlpha = (alpha - sum - remaining) / p;
+                double childBeta = (beta - sum) / p;
+                if (childAlpha >= 1)
+                    return sum + p + remaining;
+                if (childBeta <= 0)
+                    return sum;
+                if (n > 0)
+                    sim.load(state);
+                sim.applyRoll(ROLLS[n]);
+                double v = search(ply + 1, depth - 1, Math.max(0, childAlpha), Math.min(1, childBeta));
+                if (v <= childAlpha)
+                    return sum + p * v + remaining;
+                if (v >= childBeta)
+                    return sum + p * v;
+                sum += p * v;
+            }
+            return sum;
+        }
+
+        private double evaluate() {
+            sim.reward(reward);
+            return reward[rootPlayer];
+        }
+    }
+}
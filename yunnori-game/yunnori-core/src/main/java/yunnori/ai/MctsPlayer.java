@@ -0,0 +1,306 @@
+package yunnori.ai;
+
+import yunnori.core.GameLogicController;
+import yunnori.core.GameStateCodec;
+import yunnori.core.Piece;
+import yunnori.core.YunnoriRoll;
+import yunnori.sim.DecisionPolicy;
+import yunnori.sim.RandomPolicy;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Monte Carlo Tree Search player. Throws are chance nodes sampled from the real throw
+ * distribution; piece choice, roll reordering and grouping are decision nodes.
+ * Search is root-parallel: every thread grows its own tree for the time budget and the
+ * root visit counts are summed. Each thread keeps its tree between moves and continues
+ * from the subtree that matches the new position.
+ *
+ * One instance plays one game at a time (it is not meant to be shared across the
+ * threads of a parallel Simulator run). Call close() to stop its search threads.
+ */
+public class MctsPlayer implements DecisionPolicy, AutoCloseable {
+    private static final double EXPLORATION = 1.4;
+    private static final int MAX_PLAYOUT_ACTIONS = 2000;
+    private static final int REUSE_SEARCH_LIMIT = 50_000; // Nodes examined when looking for a reusable subtree
+
+    private final int threads;
+    private final ExecutorService executor;
+    private long budgetNanos;
+    private DecisionPolicy playoutPolicy = new RandomPolicy();
+
+    private SearchWorker[] workers;
+    private GameLogicController boundGame;
+    private long lastIterations;
+
+    public MctsPlayer(long budgetMillis) {
+        this(budgetMillis, Runtime.getRuntime().availableProcessors());
+    }
+
+    public MctsPlayer(long budgetMillis, int threads) {
+        this.budgetNanos = budgetMillis * 1_000_000L;
+        this.threads = Math.max(1, threads);
+        this.executor = Executors.newFixedThreadPool(this.threads, r -> {
+            Thread t = new Thread(r, "mcts-search");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public void setBudgetMillis(long budgetMillis) {
+        this.budgetNanos = budgetMillis * 1_000_000L;
+    }
+
+    public void setPlayoutPolicy(DecisionPolicy playoutPolicy) {
+        this.playoutPolicy = playoutPolicy;
+    }
+
+    // Playouts run by the last search, summed over all threads
+    public long getLastIterations() {
+        return lastIterations;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    // --- DecisionPolicy ---
+
+    @Override
+    public List<YunnoriRoll> chooseRollOrder(GameLogicController game, List<YunnoriRoll> rolls) {
+        List<List<YunnoriRoll>> orders = SearchGame.distinctOrders(rolls);
+        if (orders.size() == 1)
+            return null;
+        return orders.get(search(game));
+    }
+
+    @Override
+    public Piece choosePiece(GameLogicController game, List<Piece> playablePieces) {
+        if (playablePieces.size() == 1)
+            return playablePieces.get(0);
+        return game.getCurrentPlayer().getPieces().get(search(game));
+    }
+
+    @Override
+    public boolean chooseGrouping(GameLogicController game, Piece pieceThatMoved, List<Piece> friendlyPieces) {
+        return search(game) == 1;
+    }
+
+    // --- Search ---
+
+    // Searches the current decision of 'game' and returns the chosen action (see SearchGame.actions)
+    public synchronized int search(GameLogicController game) {
+        if (workers == null || boundGame != game || workers[0].codec.getNumTeams() != game.getNumTeams()) {
+            workers = new SearchWorker[threads];
+            for (int i = 0; i < threads; i++)
+                workers[i] = new SearchWorker(game);
+            boundGame = game;
+        }
+        long[] rootState = workers[0].codec.encode(game);
+        long rootKey = workers[0].codec.hash(rootState);
+        long deadline = System.nanoTime() + budgetNanos;
+
+        List<Future<Node>> futures = new ArrayList<>();
+        for (SearchWorker worker : workers)
+            futures.add(executor.submit(() -> worker.run(rootState, rootKey, deadline)));
+
+        long[] visits = null;
+        long iterations = 0;
+        for (Future<Node> future : futures) {
+            Node root;
+            try {
+                root = future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("MCTS search interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("MCTS search failed", e.getCause());
+            }
+            if (visits == null)
+                visits = new long[root.actions.length];
+            for (int i = 0; i < root.actions.length; i++) {
+                if (root.children[i] != null)
+                    visits[i] += root.children[i].visits;
+            }
+        }
+        for (SearchWorker worker : workers)
+            iterations += worker.iterations;
+        lastIterations = iterations;
+
+        Node anyRoot = workers[0].root;
+        int best = 0;
+        for (int i = 1; i < visits.length; i++) {
+            if (visits[i] > visits[best])
+                best = i;
+        }
+        return anyRoot.actions[best];
+    }
+
+    /*
+     * Tree node. Decision nodes hold one child per action; chance nodes hold one child per
+     * YunnoriRoll. rewardSums[t] is the total reward seat t got through this node.
+     */
+    static final class Node {
+        final long key;
+        final int player;
+        final boolean chance;
+        final int[] actions;
+        final List<List<YunnoriRoll>> orders;
+        final Node[] children;
+        final double[] rewardSums;
+        int expanded;
+        int visits;
+
+        Node(SearchGame sim, int numTeams) {
+            this.key = sim.key();
+            this.player = sim.player();
+            this.chance = sim.isChance();
+            this.rewardSums = new double[numTeams];
+            if (sim.isOver()) {
+                this.actions = new int[0];
+                this.orders = null;
+                this.children = new Node[0];
+            } else if (chance) {
+                this.actions = null;
+                this.orders = null;
+                this.children = new Node[YunnoriRoll.values().length];
+            } else {
+                this.orders = new ArrayList<>();
+                this.actions = sim.actions(orders);
+                this.children = new Node[actions.length];
+            }
+        }
+
+        boolean isTerminal() {
+            return !chance && actions.length == 0;
+        }
+
+        Node selectChild() {
+            double logParent = Math.log(visits);
+            Node best = null;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (Node child : children) {
+                double score = child.rewardSums[player] / child.visits
+                        + EXPLORATION * Math.sqrt(logParent / child.visits);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        int indexOf(Node child) {
+            for (int i = 0; i < children.length; i++) {
+                if (children[i] == child)
+                    return i;
+            }
+            return -1;
+        }
+    }
+
+    private class SearchWorker {
+        final SearchGame sim;
+        final GameStateCodec codec;
+        final int numTeams;
+        final double[] reward;
+        final List<Node> path = new ArrayList<>();
+        Node root;
+        long iterations;
+
+        SearchWorker(GameLogicController live) {
+            this.sim = new SearchGame(live);
+            this.codec = sim.codec;
+            this.numTeams = live.getNumTeams();
+            this.reward = new double[numTeams];
+        }
+
+        Node run(long[] rootState, long rootKey, long deadline) {
+            root = findReusable(rootKey);
+            if (root == null) {
+                sim.load(rootState);
+                root = new Node(sim, numTeams);
+            }
+            iterations = 0;
+            do {
+                iterate(rootState);
+                iterations++;
+            } while (System.nanoTime() < deadline);
+            return root;
+        }
+
+        // Looks for the new position among the nodes of the previous tree
+        private Node findReusable(long rootKey) {
+            if (root == null)
+                return null;
+            ArrayDeque<Node> queue = new ArrayDeque<>();
+            queue.add(root);
+            int examined = 0;
+            while (!queue.isEmpty() && examined++ < REUSE_SEARCH_LIMIT) {
+                Node node = queue.poll();
+                if (node.key == rootKey && !node.chance && !node.isTerminal())
+                    return node;
+                for (Node child : node.children) {
+                    if (child != null)
+                        queue.add(child);
+                }
+            }
+            return null;
+        }
+
+        private void iterate(long[] rootState) {
+            sim.load(rootState);
+            path.clear();
+            Node node = root;
+            path.add(node);
+
+            // Selection and expansion
+            while (!node.isTerminal()) {
+                Node child;
+                if (node.chance) {
+                    YunnoriRoll roll = sim.sampleRoll();
+                    sim.applyRoll(roll);
+                    child = node.children[roll.ordinal()];
+                    if (child == null) {
+                        child = new Node(sim, numTeams);
+                        node.children[roll.ordinal()] = child;
+                        path.add(child);
+                        break;
+                    }
+                } else if (node.expanded < node.children.length) {
+                    int index = node.expanded++;
+                    sim.apply(node.actions[index], node.orders);
+                    child = new Node(sim, numTeams);
+                    node.children[index] = child;
+                    path.add(child);
+                    break;
+                } else {
+                    child = node.selectChild();
+                    sim.apply(node.actions[node.indexOf(child)], node.orders);
+                }
+                path.add(child);
+                node = child;
+            }
+
+            // Playout
+            int actions = 0;
+            while (!sim.isOver() && actions++ < MAX_PLAYOUT_ACTIONS)
+                sim.playoutStep(playoutPolicy);
+            sim.reward(reward);
+
+            // Backpropagation
+            for (Node visited : path) {
+                visited.visits++;
+                for (int t = 0; t < numTeams; t++)
+                    visited.rewardSums[t] += reward[t];
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package yunnori.ai;
+
+import yunnori.core.BoardGraph;
+import yunnori.core.GameLogicController;
+import yunnori.core.GameStateCodec;
+import yunnori.core.Piece;
+import yunnori.core.Team;
+import yunnori.core.YunnoriRoll;
+import yunnori.core.YunnoriRoller;
+import yunnori.sim.DecisionPolicy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A scratch copy of a game for search. It runs in test mode, so every throw is an explicit
+ * chance outcome supplied by the search, and is reset from a packed state before each use.
+ * Not thread-safe: each search thread owns one.
+ */
+class SearchGame {
+    static final int MAX_ORDERS = 720;
+
+    final GameLogicController game;
+    final GameStateCodec codec;
+    final long[] scratch;
+    final YunnoriRoller roller; // Samples chance outcomes with the real throw distribution
+
+    SearchGame(GameLogicController live) {
+        this.game = new GameLogicController();
+        BoardGraph graph = live.getBoard().getGraph();
+        this.game.setupGame(live.getNumTeams(), live.getNumPieces(), graph, true);
+        this.codec = GameStateCodec.forGame(live);
+        this.scratch = codec.newState();
+        this.roller = new YunnoriRoller(false);
+    }
+
+    void load(long[] state) {
+        codec.decode(state, game);
+    }
+
+    long key() {
+        codec.encode(game, scratch);
+        return codec.hash(scratch);
+    }
+
+    GameLogicController.GameState state() {
+        return game.getCurrentGameState();
+    }
+
+    int player() {
+        return game.getCurrentPlayerIndex();
+    }
+
+    boolean isChance() {
+        return game.getCurrentGameState() == GameLogicController.GameState.AWAITING_TEST_ROLL_INPUT;
+    }
+
+    boolean isOver() {
+        return game.getCurrentGameState() == GameLogicController.GameState.GAME_OVER;
+    }
+
+    // Plays through states that need no decision (pressing Roll)
+    void advance() {
+        if (game.getCurrentGameState() == GameLogicController.GameState.WAITING_FOR_ROLL) {
+            game.handleRollButtonPressed();
+        }
+    }
+
+    void applyRoll(YunnoriRoll roll) {
+        game.submitTestRoll(roll);
+        advance();
+    }
+
+    YunnoriRoll sampleRoll() {
+        return roller.roll();
+    }
+
+    /*
+     * Decision actions of the current state: piece ids for WAITING_FOR_PIECE_SELECTION,
+     * 0 (no) / 1 (yes) for AWAITING_GROUPING_CHOICE and an index into 'orders' for WAITING_FOR_REORDER.
+     */
+    int[] actions(List<List<YunnoriRoll>> orders) {
+        switch (game.getCurrentGameState()) {
+            case WAITING_FOR_PIECE_SELECTION:
+            case WAITING_FOR_STACK_SELECTION: {
+                List<Piece> playable = game.getPlayablePiecesForCurrentRoll();
+                int[] actions = new int[playable.size()];
+                for (int i = 0; i < actions.length; i++)
+                    actions[i] = playable.get(i).getId();
+                return actions;
+            }
+            case AWAITING_GROUPING_CHOICE:
+                return new int[] { 0, 1 };
+            case WAITING_FOR_REORDER: {
+                orders.addAll(distinctOrders(game.getRollsToProcess()));
+                int[] actions = new int[orders.size()];
+                for (int i = 0; i < actions.length; i++)
+                    actions[i] = i;
+                return actions;
+            }
+            default:
+                return new int[0];
+        }
+    }
+
+    void apply(int action, List<List<YunnoriRoll>> orders) {
+        switch (game.getCurrentGameState()) {
+            case WAITING_FOR_PIECE_SELECTION:
+            case WAITING_FOR_STACK_SELECTION:
+                game.handlePieceClicked(game.getCurrentPlayer().getPieces().get(action));
+                break;
+            case AWAITING_GROUPING_CHOICE:
+                game.submitGroupingChoice(action == 1);
+                break;
+            case WAITING_FOR_REORDER:
+                game.submitReorderedRolls(orders.get(action));
+                break;
+            default:
+                throw new IllegalStateException("No decision in state " + game.getCurrentGameState());
+        }
+        advance();
+    }
+
+    // One step of a playout driven by a policy; throws are sampled
+    void playoutStep(DecisionPolicy policy) {
+        switch (game.getCurrentGameState()) {
+            case AWAITING_TEST_ROLL_INPUT -> game.submitTestRoll(sampleRoll());
+            case WAITING_FOR_ROLL -> game.handleRollButtonPressed();
+            case WAITING_FOR_REORDER -> {
+                List<YunnoriRoll> order = policy.chooseRollOrder(game, game.getRollsToProcess());
+                if (order == null)
+                    game.cancelReorder();
+                else
+                    game.submitReorderedRolls(order);
+            }
+            case WAITING_FOR_PIECE_SELECTION, WAITING_FOR_STACK_SELECTION -> game
+                    .handlePieceClicked(policy.choosePiece(game, game.getPlayablePiecesForCurrentRoll()));
+            case AWAITING_GROUPING_CHOICE -> game.submitGroupingChoice(policy.chooseGrouping(game,
+                    game.getPieceToPotentiallyGroupWith(), game.getFriendlyPiecesAtTargetForGrouping()));
+            default -> throw new IllegalStateException("No playout step in state " + game.getCurrentGameState());
+        }
+    }
+
+    /*
+     * Reward per seat: 1 for the winner, or for unfinished games a share based on
+     * how far each team's pieces still have to travel.
+     */
+    void reward(double[] out) {
+        List<Team> teams = game.getTeams();
+        if (isOver()) {
+            Team winner = game.getWinner();
+            for (int t = 0; t < out.length; t++)
+                out[t] = (winner != null && winner.getId() == t) ? 1 : 0;
+            return;
+        }
+        double total = 0;
+        for (int t = 0; t < out.length; t++) {
+            out[t] = 1.0 / (1 + remainingSteps(teams.get(t)));
+            total += out[t];
+        }
+        for (int t = 0; t < out.length; t++)
+            out[t] /= total;
+    }
+
+    int remainingSteps(Team team) {
+        int remaining = 0;
+        for (Piece piece : team.getPieces()) {
+            if (!piece.isFinished())
+                remaining += game.getBoard().getStepsToFinish(piece.getCurrentPositionIndex());
+        }
+        return remaining;
+    }
+
+    static List<List<YunnoriRoll>> distinctOrders(List<YunnoriRoll> rolls) {
+        List<YunnoriRoll> sorted = new ArrayList<>(rolls);
+        sorted.sort(null);
+        List<List<YunnoriRoll>> result = new ArrayList<>();
+        permute(sorted, new boolean[sorted.size()], new ArrayList<>(), result);
+        return result;
+    }
+
+    private static void permute(List<YunnoriRoll> sorted, boolean[] used, List<YunnoriRoll> current,
+            List<List<YunnoriRoll>> result) {
+        if (result.size() >= MAX_ORDERS)
+            return;
+        if (current.size() == sorted.size()) {
+            result.add(new ArrayList<>(current));
+            return;
+        }
+        for (int i = 0; i < sorted.size(); i++) {
+            if (used[i] || (i > 0 && sorted.get(i) == sorted.get(i - 1) && !used[i - 1]))
+                continue;
+            used[i] = true;
+            current.add(sorted.get(i));
+            permute(sorted, used, current, result);
+            current.remove(current.size() - 1);
+            used[i] = false;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package yunnori.ai;
+
+/**
+ * Statistics of one ExpectiminimaxPlayer search, summed over all search threads.
+ * depth is the deepest iteration the main thread completed and value its root value
+ * for the seat to move (0 = certain loss, 1 = certain win).
+ */
+public record SearchReport(int depth, double value, long nodes, long elapsedNanos,
+        long tableProbes, long tableHits, long tableCutoffs) {
+
+    public double getNodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : nodes * 1e9 / elapsedNanos;
+    }
+
+    public double getHitRate() {
+        return tableProbes == 0 ? 0 : (double) tableHits / tableProbes;
+    }
+
+    public double getCutoffRate() {
+        return tableProbes == 0 ? 0 : (double) tableCutoffs / tableProbes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("depth %d, value %.3f, %d nodes in %.1f ms (%.0f nodes/s), table hits %.1f%%, cutoffs %.1f%%",
+                depth, value, nodes, elapsedNanos / 1e6, getNodesPerSecond(), 100 * getHitRate(),
+                100 * getCutoffRate());
+    }
+}
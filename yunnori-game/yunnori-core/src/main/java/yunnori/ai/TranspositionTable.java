@@ -0,0 +1,104 @@
+package yunnori.ai;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size transposition table in two primitive arrays, shared by search threads without
+ * locks. Each entry is a (key ^ data, data) pair, so an entry torn by a concurrent write
+ * fails the key check on probe and is treated as a miss.
+ *
+ * Buckets hold two entries: the first keeps the deepest result of the current search
+ * (entries left from older searches are always replaced), the second always takes the
+ * newest result.
+ *
+ * data layout: value 0..65535 (bits 0-15), depth (16-23), bound (24-25), action + 1 (26-35),
+ * age (36-43), valid (63).
+ */
+public class TranspositionTable {
+    public static final int EXACT = 0;
+    public static final int LOWER = 1; // Value is a lower bound (fail high)
+    public static final int UPPER = 2; // Value is an upper bound (fail low)
+
+    private static final long VALID = 1L << 63;
+    private static final double SCALE = 65535.0;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int bucketMask;
+    private volatile int age;
+
+    // Table with at least 'entries' entries (rounded up to a power of two)
+    public TranspositionTable(int entries) {
+        int buckets = Integer.highestOneBit(Math.max(2, entries) - 1);
+        this.keys = new long[buckets * 2];
+        this.data = new long[buckets * 2];
+        this.bucketMask = buckets - 1;
+    }
+
+    public int getCapacity() {
+        return keys.length;
+    }
+
+    // Called at the start of each search so that older entries lose their priority
+    public void newSearch() {
+        age = (age + 1) & 0xFF;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(data, 0);
+    }
+
+    // Returns the entry data for 'key', or 0 if there is none
+    public long probe(long key) {
+        int slot = ((int) key & bucketMask) << 1;
+        long d = data[slot];
+        if (d != 0 && (keys[slot] ^ d) == key)
+            return d;
+        d = data[slot + 1];
+        if (d != 0 && (keys[slot + 1] ^ d) == key)
+            return d;
+        return 0;
+    }
+
+    public void store(long key, double value, int depth, int bound, int action) {
+        int slot = ((int) key & bucketMask) << 1;
+        int currentAge = age;
+        long d = VALID
+                | Math.round(Math.max(0, Math.min(1, value)) * SCALE)
+                | ((long) (depth & 0xFF) << 16)
+                | ((long) (bound & 0x3) << 24)
+                | ((long) ((action + 1) & 0x3FF) << 26)
+                | ((long) currentAge << 36);
+        long existing = data[slot];
+        boolean sameKey = existing != 0 && (keys[slot] ^ existing) == key;
+        if (existing == 0 || sameKey || depth(existing) <= depth || age(existing) != currentAge) {
+            data[slot] = d;
+            keys[slot] = key ^ d;
+        } else {
+            data[slot + 1] = d;
+            keys[slot + 1] = key ^ d;
+        }
+    }
+
+    public static double value(long data) {
+        return (data & 0xFFFF) / SCALE;
+    }
+
+    public static int depth(long data) {
+        return (int) ((data >>> 16) & 0xFF);
+    }
+
+    public static int bound(long data) {
+        return (int) ((data >>> 24) & 0x3);
+    }
+
+    // Best action index stored with the entry, or -1
+    public static int action(long data) {
+        return (int) ((data >>> 26) & 0x3FF) - 1;
+    }
+
+    private static int age(long data) {
+        return (int) ((data >>> 36) & 0xFF);
+    }
+}
@@ -0,0 +1,95 @@
+package yunnori.ai;
+
+import yunnori.core.GameStateCodec;
+import yunnori.core.YunnoriRoll;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zobrist keys for positions packed by GameStateCodec: one random 64-bit key per
+ * (piece, position), (piece, finished), (piece, leader), current player, game state and
+ * pending roll slot. A position's key is the XOR of the keys of its features.
+ */
+public class ZobristKeys {
+    private static final int ROLL_KINDS = YunnoriRoll.values().length;
+
+    private final GameStateCodec codec;
+    private final int numPieces;
+    private final long[] position; // [(team * numPieces + piece) * POSITIONS + position]
+    private final long[] finished;
+    private final long[] leader; // [(team * numPieces + piece) * (numPieces + 1) + leader + 1]
+    private final long[] player;
+    private final long[] gameState;
+    private final long[] rolls; // [slot * ROLL_KINDS + roll]
+    private final long[] earnedRolls;
+    private final long[] pausedPiece;
+    private final long[] pausedRoll;
+    private final long[] pausedOldPosition;
+    private final long catchFlag;
+    private final long[] rootPlayer;
+
+    public ZobristKeys(GameStateCodec codec) {
+        this(codec, 0x5EED_2024_0001L);
+    }
+
+    public ZobristKeys(GameStateCodec codec, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int teams = codec.getNumTeams();
+        this.codec = codec;
+        this.numPieces = codec.getNumPieces();
+        int pieces = teams * numPieces;
+        int positions = GameStateCodec.MAX_POSITION + 1;
+        this.position = keys(random, pieces * positions);
+        this.finished = keys(random, pieces);
+        this.leader = keys(random, pieces * (numPieces + 1));
+        this.player = keys(random, teams);
+        this.gameState = keys(random, 16);
+        this.rolls = keys(random, GameStateCodec.MAX_ROLLS * ROLL_KINDS);
+        this.earnedRolls = keys(random, GameStateCodec.MAX_ROLLS * ROLL_KINDS);
+        this.pausedPiece = keys(random, numPieces);
+        this.pausedRoll = keys(random, ROLL_KINDS);
+        this.pausedOldPosition = keys(random, positions);
+        this.catchFlag = random.nextLong();
+        this.rootPlayer = keys(random, teams);
+    }
+
+    private static long[] keys(SplittableRandom random, int count) {
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++)
+            keys[i] = random.nextLong();
+        return keys;
+    }
+
+    public long hash(long[] state) {
+        long h = player[codec.getCurrentPlayer(state)] ^ gameState[codec.getGameState(state).ordinal()];
+        if (codec.isCatchOccurred(state))
+            h ^= catchFlag;
+        int rollCount = codec.getRollCount(state);
+        for (int i = 0; i < rollCount; i++)
+            h ^= rolls[i * ROLL_KINDS + codec.getRoll(state, i).ordinal()];
+        int earnedCount = codec.getEarnedRollCount(state);
+        for (int i = 0; i < earnedCount; i++)
+            h ^= earnedRolls[i * ROLL_KINDS + codec.getEarnedRoll(state, i).ordinal()];
+        int paused = codec.getPausedPiece(state);
+        if (paused >= 0) {
+            h ^= pausedPiece[paused] ^ pausedRoll[codec.getPausedRoll(state).ordinal()]
+                    ^ pausedOldPosition[codec.getPausedOldPosition(state)];
+        }
+        int positions = GameStateCodec.MAX_POSITION + 1;
+        for (int t = 0; t < codec.getNumTeams(); t++) {
+            for (int p = 0; p < numPieces; p++) {
+                int index = t * numPieces + p;
+                h ^= position[index * positions + codec.getPosition(state, t, p)];
+                if (codec.isFinished(state, t, p))
+                    h ^= finished[index];
+                h ^= leader[index * (numPieces + 1) + codec.getLeader(state, t, p) + 1];
+            }
+        }
+        return h;
+    }
+
+    // Mixed into keys of searches whose values are relative to a seat
+    public long rootPlayer(int seat) {
+        return rootPlayer[seat];
+    }
+}
@@ -0,0 +1,143 @@
+package yunnori.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class Board {
+    public final List<int[]> pentagonEdges; // Name kept from when only PENTAGON had edges; read-only
+
+    // Shared by every board of the same graph, so it cannot be moved
+    public static class BoardPoint {
+        public final int x;
+        public final int y;
+
+        public BoardPoint(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    // What follows from the graph is in its BoardTopology; a board only refers to it
+    private final BoardPoint[] boardPoints; // Instance variable to display points
+    private final BoardType boardType; // null for boards generated from a BoardGraph without a type
+    private final BoardGraph graph;
+    private final int startPointIndex;
+    private final int finishPointIndex; // Instance variable to store the finish index for this board
+
+    // Precompiled targets: moveTable[position * MOVE_TABLE_STRIDE + (steps - MIN_TABLE_STEPS)].
+    // The only "entry context" the rules use is the position a move starts from (it decides the
+    // shortcut and the route out of the center), so (position, steps) is enough to index it.
+    static final int MIN_TABLE_STEPS = YunnoriRoll.BACK_DO.getSteps();
+    static final int MAX_TABLE_STEPS = YunnoriRoll.MO.getSteps();
+    static final int MOVE_TABLE_STRIDE = MAX_TABLE_STEPS - MIN_TABLE_STEPS + 1;
+    private final int[] moveTable;
+    private final int[] doMovesToFinish; // Number of DO moves from each point to the finish
+
+    public Board(BoardType boardType) {
+        this(BoardGraph.forType(boardType));
+    }
+
+    public Board(BoardGraph graph) {
+        this.graph = graph;
+        this.boardType = graph.getBoardType();
+        this.startPointIndex = graph.getStartPointIndex();
+        this.finishPointIndex = graph.getFinishPointIndex();
+        BoardTopology topology = graph.getTopology();
+        this.boardPoints = topology.points;
+        this.pentagonEdges = topology.edges;
+        this.moveTable = topology.moveTable;
+        this.doMovesToFinish = topology.doMovesToFinish;
+    }
+
+    public BoardType getBoardType() {
+        return this.boardType;
+    }
+
+    public BoardGraph getGraph() {
+        return this.graph;
+    }
+
+    // Getter for the finish index
+    public int getFinishPointIndex() {
+        return this.finishPointIndex;
+    }
+
+    public int getStartPointIndex() {
+        return this.startPointIndex;
+    }
+
+    public int getCenterPointIndex() {
+        return graph.getCenterPointIndex();
+    }
+
+    // Corners and the center, which the renderers draw larger
+    public boolean isCornerPoint(int i) {
+        return graph.isCornerPoint(i);
+    }
+
+    // Shortest path length (in single steps, taking shortcuts) from a point to the finish
+    public int getStepsToFinish(int position) {
+        return doMovesToFinish[position];
+    }
+
+    public BoardPoint getBoardPoint(int i) {
+        return (i >= 0 && i < boardPoints.length) ? boardPoints[i] : null;
+    }
+
+    public int calculateTargetPosition(Piece piece, int steps) {
+        if (piece.isFinished()) {
+            return this.finishPointIndex;
+        }
+        return getTargetPosition(piece.getCurrentPositionIndex(), steps);
+    }
+
+    // Table lookup for a move of 'steps' starting at 'position' (piece not finished).
+    public int getTargetPosition(int position, int steps) {
+        if (steps >= MIN_TABLE_STEPS && steps <= MAX_TABLE_STEPS) {
+            return moveTable[position * MOVE_TABLE_STRIDE + (steps - MIN_TABLE_STEPS)];
+        }
+        return graph.walk(position, steps); // Outside the table: walk the graph step by step
+    }
+
+    public List<Piece> findOpponentPiecesAt(int targetPosition, Team currentPlayerTeam, List<Team> allTeams) {
+        if (targetPosition == this.startPointIndex || targetPosition == this.finishPointIndex) { // No catches at start/finish
+            return Collections.emptyList();
+        }
+        boolean occupied = false;
+        for (Team team : allTeams) {
+            occupied |= team.getId() != currentPlayerTeam.getId() && team.hasInteractivePiecesAt(targetPosition);
+        }
+        if (!occupied) {
+            return Collections.emptyList();
+        }
+        List<Piece> opponentLeadersOrIndividualsAtPos = new ArrayList<>();
+        for (Team team : allTeams) {
+            if (team.getId() != currentPlayerTeam.getId()) {
+                // Use getInteractivePiecesAt to get only leaders or individual pieces of the opponent team
+                opponentLeadersOrIndividualsAtPos.addAll(team.getInteractivePiecesAt(targetPosition));
+            }
+        }
+        return opponentLeadersOrIndividualsAtPos;
+    }
+
+    public void resetPiecesToStart(List<Piece> piecesToReset) {
+        // The Piece.reset() method now handles detaching from groups and resetting stacked pieces if it's a leader.
+        for (Piece piece : piecesToReset) {
+            piece.reset();
+        }
+    }
+
+    public int getPointCount() {
+        return boardPoints.length;
+    }
+
+    public List<int[]> getEdges() {
+        return this.pentagonEdges; // Every board type has its edge list now
+    }
+
+    public boolean isValidMoveStart(Piece piece, int steps) {
+        // piece.canMove() now correctly checks if the piece is stacked (and thus unmovable independently)
+        return piece.canMove(steps, this);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,361 @@
+package yunnori.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Data model of a yut board: display points, drawn edges and the movement graph.
+ * A move follows next[] one step at a time, except that the first step of a move
+ * that starts on a shortcut point takes shortcut[], and a step out of the center
+ * takes centerExit[origin] (or the default exit) where origin is the start of the move.
+ * BACK_DO follows previous[].
+ */
+public class BoardGraph {
+    public static final int NONE = -1;
+
+    private final BoardType boardType; // null for generated boards that have no BoardType
+    private final int sides;
+    private final int pointCount;
+    private final int startPointIndex;
+    private final int finishPointIndex;
+    private final int centerPointIndex;
+
+    private final int[] next;
+    private final int[] shortcut;
+    private final int[] previous;
+    private final int[] centerExit;
+    private int defaultCenterExit;
+
+    private final Board.BoardPoint[] points;
+    private final boolean[] cornerPoints; // Corners and center, drawn larger
+    private final ArrayList<int[]> edges = new ArrayList<>();
+    private volatile BoardTopology topology; // Built by the first Board of this graph
+
+    private BoardGraph(BoardType boardType, int sides, int pointCount, int centerPointIndex) {
+        this.boardType = boardType;
+        this.sides = sides;
+        this.pointCount = pointCount;
+        this.startPointIndex = 0;
+        this.finishPointIndex = pointCount - 1;
+        this.centerPointIndex = centerPointIndex;
+        this.next = new int[pointCount];
+        this.shortcut = new int[pointCount];
+        this.previous = new int[pointCount];
+        this.centerExit = new int[pointCount];
+        Arrays.fill(shortcut, NONE);
+        Arrays.fill(centerExit, NONE);
+        this.points = new Board.BoardPoint[pointCount];
+        this.cornerPoints = new boolean[pointCount];
+    }
+
+    // The graphs of the BoardTypes, built on first use
+    private static final class Standard {
+        static final BoardGraph[] GRAPHS = new BoardGraph[BoardType.values().length];
+
+        static {
+            for (BoardType type : BoardType.values())
+                GRAPHS[type.ordinal()] = build(type);
+        }
+    }
+
+    // The same graph for every call with the same type; a graph never changes once built
+    public static BoardGraph forType(BoardType boardType) {
+        return Standard.GRAPHS[boardType.ordinal()];
+    }
+
+    private static BoardGraph build(BoardType boardType) {
+        switch (boardType) {
+            case PENTAGON:
+                return polygon(5, BoardType.PENTAGON, -30, 0.40, Math.PI / 2 + 2 * Math.PI / 5);
+            case HEXAGON: {
+                BoardGraph graph = polygon(6, BoardType.HEXAGON, -20, 0.42, Math.PI);
+                // HEXAGON keeps its historical routing around spoke 39 (15->33->37->42, and a piece
+                // backed up onto 39 continues 39->40 or backs up to 38), so existing games play as before.
+                graph.next[33] = 37;
+                graph.next[39] = 40;
+                graph.previous[39] = 38;
+                return graph;
+            }
+            case RECTANGLE:
+            default:
+                return rectangle();
+        }
+    }
+
+    /*
+     * Generates an N-sided board (N >= 4) laid out like PENTAGON and HEXAGON:
+     * outer track 0..5N-1 (corner v at 5v), spokes at 5N+v (1/3) and 6N+v (2/3),
+     * center 7N and finish 7N+1.
+     */
+    public static BoardGraph polygon(int sides) {
+        if (sides < 4) {
+            throw new IllegalArgumentException("A board needs at least 4 sides: " + sides);
+        }
+        return polygon(sides, null, -20, 0.42, Math.PI / 2 + 2 * Math.PI / sides);
+    }
+
+    private static BoardGraph polygon(int n, BoardType boardType, double m, double radiusRatio, double startAngle) {
+        int outer = 5 * n;
+        int center = 7 * n;
+        BoardGraph g = new BoardGraph(boardType, n, 7 * n + 2, center);
+        int finish = g.finishPointIndex;
+
+        // Outer track
+        for (int i = 0; i < outer; i++) {
+            g.next[i] = (i == outer - 1) ? finish : i + 1;
+            g.previous[i] = (i == 0) ? outer - 1 : i - 1;
+        }
+
+        // Corners 1..entries lead into the center, the rest (and corner 0 = finish) lead out of it
+        int entries = (n + 1) / 2;
+        for (int v = 0; v < n; v++) {
+            int spoke1 = outer + v; // 1/3
+            int spoke2 = 6 * n + v; // 2/3
+            if (v >= 1 && v <= entries) {
+                g.shortcut[5 * v] = spoke1;
+                g.next[spoke1] = spoke2;
+                g.next[spoke2] = center;
+                g.previous[spoke1] = 5 * v;
+                g.previous[spoke2] = spoke1;
+                if (v < entries) {
+                    int exitCorner = Math.min(Math.max(v + n - entries, entries + 1), n - 1);
+                    int exitSpoke = 6 * n + exitCorner;
+                    g.centerExit[5 * v] = exitSpoke;
+                    g.centerExit[spoke1] = exitSpoke;
+                    g.centerExit[spoke2] = exitSpoke;
+                }
+            } else {
+                g.next[spoke2] = spoke1;
+                g.next[spoke1] = (v == 0) ? finish : 5 * v;
+                g.previous[spoke2] = center;
+                g.previous[spoke1] = spoke2;
+            }
+        }
+        g.defaultCenterExit = 6 * n; // Straight towards the finish
+        g.next[center] = g.defaultCenterExit;
+        g.previous[center] = 6 * n + entries;
+        g.next[finish] = finish;
+        g.previous[finish] = finish - 1;
+
+        // Display points
+        double os = 1000;
+        int cx = (int) (m + os / 2), cy = (int) (m + os / 2);
+        int r = (int) (os * radiusRatio);
+        for (int v = 0; v < n; v++) {
+            double th1 = startAngle + 2 * Math.PI * v / n;
+            double th2 = startAngle + 2 * Math.PI * (v + 1) / n;
+            int base = v * 5;
+
+            g.points[base] = new Board.BoardPoint(
+                    (int) (cx + r * Math.cos(th1)),
+                    (int) (cy - r * Math.sin(th1)));
+
+            for (int j = 1; j <= 4; j++) {
+                double t = j / 5.0;
+                g.points[base + j] = new Board.BoardPoint(
+                        (int) (cx + r * ((1 - t) * Math.cos(th1) + t * Math.cos(th2))),
+                        (int) (cy - r * ((1 - t) * Math.sin(th1) + t * Math.sin(th2))));
+            }
+        }
+        g.points[center] = new Board.BoardPoint(cx, cy);
+        for (int v = 0; v < n; v++) {
+            Board.BoardPoint pV = g.points[v * 5];
+            g.points[outer + v] = new Board.BoardPoint((pV.x * 2 + cx) / 3, (pV.y * 2 + cy) / 3);
+            g.points[6 * n + v] = new Board.BoardPoint((pV.x + cx * 2) / 3, (pV.y + cy * 2) / 3);
+        }
+        // The finish point has no spot of its own on polygon boards
+
+        // Edges: outer cycle, then corner -> 1/3 -> 2/3 -> center
+        for (int i = 0; i < outer; i++)
+            g.edges.add(new int[] { i, (i + 1) % outer });
+        for (int v = 0; v < n; v++) {
+            g.edges.add(new int[] { v * 5, outer + v });
+            g.edges.add(new int[] { outer + v, 6 * n + v });
+            g.edges.add(new int[] { 6 * n + v, center });
+            g.cornerPoints[v * 5] = true;
+        }
+        g.cornerPoints[center] = true;
+        return g;
+    }
+
+    private static BoardGraph rectangle() {
+        BoardGraph g = new BoardGraph(BoardType.RECTANGLE, 4, 32, 23);
+        int finish = g.finishPointIndex;
+
+        // Outer track 0..20, 20 is the last point before the finish
+        for (int i = 0; i <= 20; i++) {
+            g.next[i] = (i == 20) ? finish : i + 1;
+            g.previous[i] = (i == 0) ? 20 : i - 1;
+        }
+        // Path 1: 5->21->22->23, Path 2: 10->26->27->23
+        g.shortcut[5] = 21;
+        g.shortcut[10] = 26;
+        g.link(21, 22, 5);
+        g.link(22, 23, 21);
+        g.link(26, 27, 10);
+        g.link(27, 23, 26);
+        // Path 3: 23->24->25->15, Path 4: 23->28->29->30->31
+        g.link(24, 25, 23);
+        g.link(25, 15, 24);
+        g.link(28, 29, 23);
+        g.link(29, 30, 28);
+        g.link(30, finish, 29);
+        g.centerExit[5] = 24;
+        g.centerExit[21] = 24;
+        g.centerExit[22] = 24;
+        g.defaultCenterExit = 28;
+        g.next[23] = 28;
+        g.previous[23] = 27;
+        g.next[finish] = finish;
+        g.previous[finish] = 30;
+
+        double m = 25;
+        double os = 800;
+        double ps_outer = os / 5;
+        double ps_c = os / 6;
+
+        g.points[0] = new Board.BoardPoint((int) (m + os), (int) (m + os));
+        for (int j = 1; j <= 4; j++)
+            g.points[j] = new Board.BoardPoint((int) (m + os), (int) (m + os - j * ps_outer));
+        g.points[5] = new Board.BoardPoint((int) (m + os), (int) (m));
+        for (int j = 1; j <= 4; j++)
+            g.points[5 + j] = new Board.BoardPoint((int) (m + os - j * ps_outer), (int) (m));
+        g.points[10] = new Board.BoardPoint((int) (m), (int) (m));
+        for (int j = 1; j <= 4; j++)
+            g.points[10 + j] = new Board.BoardPoint((int) (m), (int) (m + j * ps_outer));
+        g.points[15] = new Board.BoardPoint((int) (m), (int) (m + os));
+        for (int j = 1; j <= 4; j++)
+            g.points[15 + j] = new Board.BoardPoint((int) (m + j * ps_outer), (int) (m + os));
+
+        // Point 20: Last point on outer track before 31
+        g.points[20] = new Board.BoardPoint((int) (m + os - ps_outer / 6), (int) (m + os));
+        g.points[23] = new Board.BoardPoint((int) (m + os / 2), (int) (m + os / 2));
+        g.points[21] = new Board.BoardPoint((int) (m + os - ps_c), (int) (m + ps_c));
+        g.points[22] = new Board.BoardPoint((int) (m + os - 2 * ps_c), (int) (m + 2 * ps_c));
+        g.points[24] = new Board.BoardPoint((int) (m + os / 2 - ps_c), (int) (m + os / 2 + ps_c));
+        g.points[25] = new Board.BoardPoint((int) (m + os / 2 - 2 * ps_c), (int) (m + os / 2 + 2 * ps_c));
+        g.points[26] = new Board.BoardPoint((int) (m + ps_c), (int) (m + ps_c));
+        g.points[27] = new Board.BoardPoint((int) (m + 2 * ps_c), (int) (m + 2 * ps_c));
+        g.points[28] = new Board.BoardPoint((int) (m + os / 2 + ps_c), (int) (m + os / 2 + ps_c));
+        g.points[29] = new Board.BoardPoint((int) (m + os / 2 + 2 * ps_c), (int) (m + os / 2 + 2 * ps_c));
+        // Point 30: Last point on diagonal track before 31
+        g.points[30] = new Board.BoardPoint((int) (m + os - ps_c / 6), (int) (m + os - ps_c / 6));
+        // Point 31: Finish point
+        g.points[31] = new Board.BoardPoint((int) (m + os + ps_outer), (int) (m + os));
+
+        for (int i = 0; i < 20; i++)
+            g.edges.add(new int[] { i, i + 1 });
+        int[][] lines = { { 0, 31 }, { 5, 21 }, { 21, 22 }, { 22, 23 }, { 10, 26 }, { 26, 27 }, { 27, 23 },
+                { 23, 24 }, { 24, 25 }, { 25, 15 }, { 23, 28 }, { 28, 29 }, { 29, 30 }, { 30, 0 } };
+        for (int[] line : lines)
+            g.edges.add(line);
+        for (int i : new int[] { 0, 5, 10, 15, 23 })
+            g.cornerPoints[i] = true;
+        return g;
+    }
+
+    private void link(int from, int to, int back) {
+        next[from] = to;
+        previous[from] = back;
+    }
+
+    /*
+     * Walks a move of 'steps' from 'origin' one step at a time. Used to compile the move table
+     * and for step counts outside of it.
+     */
+    public int walk(int origin, int steps) {
+        if (origin == finishPointIndex) {
+            return finishPointIndex;
+        }
+        if (steps < 0) {
+            return previous[origin];
+        }
+        int pos = origin;
+        for (int i = 0; i < steps && pos != finishPointIndex; i++) {
+            if (pos == centerPointIndex) {
+                pos = centerExit[origin] != NONE ? centerExit[origin] : defaultCenterExit;
+            } else if (i == 0 && shortcut[pos] != NONE) {
+                pos = shortcut[pos];
+            } else {
+                pos = next[pos];
+            }
+        }
+        return pos;
+    }
+
+    // Flat table: table[position * (maxSteps - minSteps + 1) + (steps - minSteps)]
+    public int[] compileMoveTable(int minSteps, int maxSteps) {
+        int stride = maxSteps - minSteps + 1;
+        int[] table = new int[pointCount * stride];
+        for (int pos = 0; pos < pointCount; pos++) {
+            for (int steps = minSteps; steps <= maxSteps; steps++) {
+                table[pos * stride + (steps - minSteps)] = walk(pos, steps);
+            }
+        }
+        return table;
+    }
+
+    public BoardType getBoardType() {
+        return boardType;
+    }
+
+    public int getSides() {
+        return sides;
+    }
+
+    public int getPointCount() {
+        return pointCount;
+    }
+
+    public int getStartPointIndex() {
+        return startPointIndex;
+    }
+
+    public int getFinishPointIndex() {
+        return finishPointIndex;
+    }
+
+    public int getCenterPointIndex() {
+        return centerPointIndex;
+    }
+
+    public int getNext(int position) {
+        return next[position];
+    }
+
+    public int getShortcut(int position) {
+        return shortcut[position];
+    }
+
+    public int getPrevious(int position) {
+        return previous[position];
+    }
+
+    public boolean isCornerPoint(int position) {
+        return position >= 0 && position < pointCount && cornerPoints[position];
+    }
+
+    // Shared by every Board of this graph; two threads racing here may both build it, harmlessly
+    BoardTopology getTopology() {
+        BoardTopology built = topology;
+        if (built == null)
+            topology = built = new BoardTopology(this);
+        return built;
+    }
+
+    public Board.BoardPoint[] createBoardPoints() {
+        Board.BoardPoint[] copy = new Board.BoardPoint[pointCount];
+        for (int i = 0; i < pointCount; i++) {
+            if (points[i] != null)
+                copy[i] = new Board.BoardPoint(points[i].x, points[i].y);
+        }
+        return copy;
+    }
+
+    public ArrayList<int[]> createEdges() {
+        ArrayList<int[]> copy = new ArrayList<>(edges.size());
+        for (int[] edge : edges)
+            copy.add(edge.clone());
+        return copy;
+    }
+}
@@ -0,0 +1,39 @@
+package yunnori.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * The part of a Board that only depends on its BoardGraph: display points, drawn edges,
+ * the compiled move table and the distances to the finish. Built once per graph (see
+ * BoardGraph.getTopology) and shared by every Board of that graph, so a game only pays
+ * for a few references. Nothing here may change after construction.
+ */
+final class BoardTopology {
+    final Board.BoardPoint[] points;
+    final List<int[]> edges; // Unmodifiable
+    final int[] moveTable; // See Board.getTargetPosition
+    final int[] doMovesToFinish; // Number of DO moves from each point to the finish
+
+    BoardTopology(BoardGraph graph) {
+        this.points = graph.createBoardPoints();
+        ArrayList<int[]> edges = graph.createEdges();
+        edges.trimToSize();
+        this.edges = Collections.unmodifiableList(edges);
+        this.moveTable = graph.compileMoveTable(Board.MIN_TABLE_STEPS, Board.MAX_TABLE_STEPS);
+
+        int pointCount = graph.getPointCount();
+        int finish = graph.getFinishPointIndex();
+        this.doMovesToFinish = new int[pointCount];
+        for (int pos = 0; pos < pointCount; pos++) {
+            int current = pos;
+            int moves = 0;
+            while (current != finish && moves <= pointCount) {
+                current = moveTable[current * Board.MOVE_TABLE_STRIDE + (1 - Board.MIN_TABLE_STEPS)];
+                moves++;
+            }
+            doMovesToFinish[pos] = moves;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package yunnori.core;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Confines a GameLogicController, which is not thread-safe, to one logical thread. UI,
+ * computer-player and network threads send commands into a lock-free mailbox; the actor
+ * runs them one at a time, in arrival order, on a SerialExecutor over 'executor' (a pool,
+ * or e.g. Platform::runLater to stay on the JavaFX thread).
+ *
+ * Each command returns a future completed on the actor's thread with the GameState after
+ * it ran, or exceptionally with an IllegalStateException carrying the controller's reason
+ * if the move was not allowed. Listeners added through the actor get their events on the
+ * actor's thread as well. Once a controller is wrapped, reach it only through the actor.
+ */
+public class GameActor {
+    private final GameLogicController game;
+    private final SerialExecutor mailbox;
+    private String rejection; // Reason the running command was rejected; actor thread only
+
+    public GameActor(GameLogicController game, Executor executor) {
+        this.game = game;
+        this.mailbox = new SerialExecutor(executor);
+        game.addListener(event -> {
+            if (event instanceof GameEvent.Rejected rejected)
+                rejection = rejected.reason();
+        });
+    }
+
+    // --- Commands ---
+
+    public CompletableFuture<GameLogicController.GameState> setupGame(int numTeams, int numPieces,
+            BoardGraph boardGraph, boolean isTestMode) {
+        return command(game -> game.setupGame(numTeams, numPieces, boardGraph, isTestMode));
+    }
+
+    public CompletableFuture<GameLogicController.GameState> startGame() {
+        return command(GameLogicController::startGame);
+    }
+
+    // Throws, or in test mode starts asking for throws; while a reorder is offered, discards it
+    public CompletableFuture<GameLogicController.GameState> roll() {
+        return command(GameLogicController::handleRollButtonPressed);
+    }
+
+    public CompletableFuture<GameLogicController.GameState> submitTestRoll(YunnoriRoll roll) {
+        return command(game -> game.submitTestRoll(roll));
+    }
+
+    public CompletableFuture<GameLogicController.GameState> cancelTestRolling() {
+        return command(GameLogicController::cancelTestRolling);
+    }
+
+    public CompletableFuture<GameLogicController.GameState> reorder(List<YunnoriRoll> order) {
+        List<YunnoriRoll> copy = List.copyOf(order);
+        return command(game -> game.submitReorderedRolls(copy));
+    }
+
+    public CompletableFuture<GameLogicController.GameState> keepOrder() {
+        return command(game -> {
+            if (game.getCurrentGameState() != GameLogicController.GameState.WAITING_FOR_REORDER) {
+                rejection = "Not time to reorder.";
+                return;
+            }
+            game.cancelReorder();
+        });
+    }
+
+    // Moves the current team's piece with this id
+    public CompletableFuture<GameLogicController.GameState> selectPiece(int pieceId) {
+        return command(game -> {
+            List<Piece> pieces = game.getCurrentPlayer().getPieces();
+            if (pieceId < 0 || pieceId >= pieces.size()) {
+                throw new IllegalArgumentException("No piece " + pieceId + " in " + game.getCurrentPlayer());
+            }
+            game.handlePieceClicked(pieces.get(pieceId));
+        });
+    }
+
+    public CompletableFuture<GameLogicController.GameState> group(boolean group) {
+        return command(game -> game.submitGroupingChoice(group));
+    }
+
+    public CompletableFuture<GameLogicController.GameState> restartGame() {
+        return command(GameLogicController::restartGame);
+    }
+
+    // Runs 'command' against the controller on the actor's thread
+    public CompletableFuture<GameLogicController.GameState> command(Consumer<GameLogicController> command) {
+        CompletableFuture<GameLogicController.GameState> result = new CompletableFuture<>();
+        mailbox.execute(() -> {
+            rejection = null;
+            try {
+                command.accept(game);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                return;
+            }
+            if (rejection != null) {
+                result.completeExceptionally(new IllegalStateException(rejection));
+            } else {
+                result.complete(game.getCurrentGameState());
+            }
+        });
+        return result;
+    }
+
+    // --- Queries and listeners ---
+
+    // Reads the controller on the actor's thread, e.g. ask(GameLogicController::getWinner)
+    public <T> CompletableFuture<T> ask(Function<GameLogicController, T> query) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        mailbox.execute(() -> {
+            try {
+                result.complete(query.apply(game));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    public void addListener(GameEventListener listener) {
+        mailbox.execute(() -> game.addListener(listener));
+    }
+
+    public void removeListener(GameEventListener listener) {
+        mailbox.execute(() -> game.removeListener(listener));
+    }
+}
@@ -0,0 +1,72 @@
+package yunnori.core;
+
+import java.util.List;
+
+/**
+ * Something that happened in a game, delivered to GameEventListeners as it happens.
+ * Pieces and teams are the live objects, so listeners that keep events around should
+ * read what they need when the event arrives. GameEventFormatter turns events into the
+ * status text shown by the views.
+ */
+public sealed interface GameEvent {
+
+    record TurnStarted(Team team) implements GameEvent {
+    }
+
+    record RollStarted(Team team, boolean testMode) implements GameEvent {
+    }
+
+    // YUT and MO earn another throw
+    record Rolled(Team team, YunnoriRoll roll, boolean testMode) implements GameEvent {
+    }
+
+    record ReorderOffered(List<YunnoriRoll> rolls) implements GameEvent {
+    }
+
+    // keptOriginal is true when the player declined to reorder
+    record Reordered(List<YunnoriRoll> rolls, boolean keptOriginal) implements GameEvent {
+    }
+
+    // A pending reorder was dropped because the player rolled again
+    record ReorderDiscarded() implements GameEvent {
+    }
+
+    record PieceSelectionNeeded(Team team, List<YunnoriRoll> rolls) implements GameEvent {
+    }
+
+    // No piece can move with 'roll'; 'remaining' are the rolls still to play
+    record RollSkipped(Team team, YunnoriRoll roll, List<YunnoriRoll> remaining) implements GameEvent {
+    }
+
+    record Moved(Team team, Piece piece, int from, int to, YunnoriRoll roll) implements GameEvent {
+    }
+
+    record GroupingOffered(Piece piece, List<Piece> friendlies) implements GameEvent {
+    }
+
+    record Grouped(Piece piece, int position, boolean grouped) implements GameEvent {
+    }
+
+    record Caught(Piece piece, List<Piece> caught, int position) implements GameEvent {
+    }
+
+    record Finished(Team team, Piece piece) implements GameEvent {
+    }
+
+    record TurnEnded(Team team, boolean extraTurn) implements GameEvent {
+    }
+
+    // winner is null if it could not be determined
+    record GameOver(Team winner) implements GameEvent {
+    }
+
+    record TestRollCancelled() implements GameEvent {
+    }
+
+    record Restarted() implements GameEvent {
+    }
+
+    // An action that is not allowed in the current state
+    record Rejected(String reason) implements GameEvent {
+    }
+}
@@ -0,0 +1,85 @@
+package yunnori.core;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Turns game events into the status messages shown by the views. Attach it with
+ * GameLogicController.addListener; each event is passed to the sink as one message
+ * (possibly several lines).
+ */
+public class GameEventFormatter implements GameEventListener {
+    private final Consumer<String> sink;
+
+    public GameEventFormatter(Consumer<String> sink) {
+        this.sink = sink;
+    }
+
+    @Override
+    public void onEvent(GameEvent event) {
+        sink.accept(format(event));
+    }
+
+    public static String format(GameEvent event) {
+        if (event instanceof GameEvent.TurnStarted e) {
+            return "--- Starting turn for " + e.team() + " ---\n" + e.team() + "'s turn. Roll!";
+        } else if (event instanceof GameEvent.RollStarted e) {
+            return e.testMode() ? e.team() + " is rolling (test mode). UI should prompt for roll."
+                    : e.team() + " is rolling...";
+        } else if (event instanceof GameEvent.Rolled e) {
+            boolean extra = e.roll() == YunnoriRoll.YUT || e.roll() == YunnoriRoll.MO;
+            if (!e.testMode()) {
+                return e.team() + " rolled: " + e.roll() + (extra ? "\nEarned an extra roll!" : "");
+            }
+            return e.team() + " rolled (test): " + e.roll() + "\n"
+                    + (extra ? "Earned an extra roll opportunity! Enter the next test roll." : "Test rolling sequence complete.");
+        } else if (event instanceof GameEvent.ReorderOffered e) {
+            return "You rolled: " + names(e.rolls()) + ". Reorder rolls?";
+        } else if (event instanceof GameEvent.Reordered e) {
+            return e.keptOriginal() ? "Reordering cancelled. Using original order: " + names(e.rolls())
+                    : "Rolls will be processed in this order: " + names(e.rolls());
+        } else if (event instanceof GameEvent.ReorderDiscarded) {
+            return "Reordering cancelled by rolling again.";
+        } else if (event instanceof GameEvent.PieceSelectionNeeded e) {
+            return "Rolls to process: " + names(e.rolls()) + ". Select a piece/group.";
+        } else if (event instanceof GameEvent.RollSkipped e) {
+            String skipped = e.team() + " has no piece/group that can move with " + e.roll() + ". Skipping roll.";
+            return e.remaining().isEmpty() ? skipped
+                    : skipped + "\nRolls left: " + names(e.remaining()) + ". Checking next...";
+        } else if (event instanceof GameEvent.Moved e) {
+            return e.team() + " " + e.piece() + " moved from " + e.from() + " to " + e.to() + " with "
+                    + e.roll().name() + ".";
+        } else if (event instanceof GameEvent.GroupingOffered e) {
+            return "Grouping choice needed for " + e.piece() + ". Landed on "
+                    + e.friendlies().stream().map(Piece::toString).collect(Collectors.joining(", "));
+        } else if (event instanceof GameEvent.Grouped e) {
+            return e.grouped() ? e.piece() + " now leads the stack at position " + e.position() + "."
+                    : "Pieces not grouped at " + e.position() + ".";
+        } else if (event instanceof GameEvent.Caught e) {
+            StringBuilder sb = new StringBuilder(e.piece() + " caught: ");
+            for (Piece p : e.caught())
+                sb.append(p).append(" (Team ").append(p.getTeamId() + 1).append(") ");
+            return sb.append("at position ").append(e.position()).append("!").toString();
+        } else if (event instanceof GameEvent.Finished e) {
+            return e.team() + " " + e.piece() + " finished!";
+        } else if (event instanceof GameEvent.TurnEnded e) {
+            return e.extraTurn() ? e.team() + " earned an extra turn!" : "End of " + e.team() + "'s turn.";
+        } else if (event instanceof GameEvent.GameOver e) {
+            String banner = "**************************************";
+            return banner + "\n" + (e.winner() != null ? e.winner() + " wins the game!"
+                    : "The Game is Over! (Winner couldn't be determined by getWinner)") + "\n" + banner;
+        } else if (event instanceof GameEvent.TestRollCancelled) {
+            return "Test roll input cancelled. Roll again.";
+        } else if (event instanceof GameEvent.Restarted) {
+            return "--- Restarting Game ---";
+        } else if (event instanceof GameEvent.Rejected e) {
+            return e.reason();
+        }
+        throw new IllegalArgumentException("Unknown event: " + event);
+    }
+
+    private static String names(List<YunnoriRoll> rolls) {
+        return rolls.stream().map(Enum::name).collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,7 @@
+package yunnori.core;
+
+// Receives the events of a GameLogicController on the thread that drives it
+@FunctionalInterface
+public interface GameEventListener {
+    void onEvent(GameEvent event);
+}
@@ -0,0 +1,594 @@
+package yunnori.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class GameLogicController {
+
+    public enum GameState {
+        NOT_STARTED,
+        WAITING_FOR_ROLL,
+        WAITING_FOR_PIECE_SELECTION,
+        WAITING_FOR_REORDER,
+        WAITING_FOR_STACK_SELECTION, // UI prompts based on this state
+        AWAITING_TEST_ROLL_INPUT, // UI prompts for test roll
+        AWAITING_GROUPING_CHOICE, // UI prompts for grouping choice
+        GAME_OVER
+    }
+
+    private Board board;
+    private List<Team> teams;
+    private YunnoriRoller roller;
+    private int numTeams;
+    private int numPieces;
+    private boolean isTestMode;
+    private BoardType boardType;
+    private BoardGraph boardGraph; // Board layout; generated boards have no BoardType
+
+    private int currentPlayerIndex;
+    private List<YunnoriRoll> earnedRollsThisPhase;
+    private List<YunnoriRoll> rollsToProcess;
+
+    private GameState currentGameState;
+    private boolean catchOccurredInThisPhase;
+
+    // Statistics for headless runs
+    private int turnCount; // Turn phases started, extra turns included
+    private int catchCount; // Moves that caught at least one opponent
+
+    // For UI interaction context
+    private Piece pieceToPotentiallyGroupWith;
+    private List<Piece> friendlyPiecesAtTargetForGrouping;
+    private Piece pieceAwaitingGroupingDecision; // Piece that moved and might group
+    private YunnoriRoll rollUsedForPausedMove; // Roll used for the move that paused for grouping
+    private int oldPositionForPausedMove; // Old position for that paused move
+
+    private final List<GameEventListener> listeners = new ArrayList<>(); // Kept across setupGame
+
+    public GameLogicController() {
+        this.earnedRollsThisPhase = new ArrayList<>();
+        this.rollsToProcess = new ArrayList<>();
+        this.currentGameState = GameState.NOT_STARTED;
+    }
+
+    public void setupGame(int numTeams, int numPieces, BoardType boardType, boolean isTestMode) {
+        setupGame(numTeams, numPieces, BoardGraph.forType(boardType), isTestMode);
+    }
+
+    // Sets up a game on any board layout, e.g. BoardGraph.polygon(8)
+    public void setupGame(int numTeams, int numPieces, BoardGraph boardGraph, boolean isTestMode) {
+        this.numTeams = numTeams;
+        this.numPieces = numPieces;
+        this.boardGraph = boardGraph;
+        this.boardType = boardGraph.getBoardType();
+        this.isTestMode = isTestMode;
+
+        if (board == null || board.getGraph() != boardGraph)
+            this.board = new Board(boardGraph); // A board holds no game state, so a rematch keeps it
+        this.teams = new ArrayList<>();
+        for (int i = 0; i < numTeams; i++) {
+            this.teams.add(new Team(i, numPieces));
+        }
+        this.roller = new YunnoriRoller(isTestMode);
+
+        this.currentPlayerIndex = 0;
+        this.rollsToProcess.clear();
+        this.earnedRollsThisPhase.clear();
+        this.catchOccurredInThisPhase = false;
+        this.turnCount = 0;
+        this.catchCount = 0;
+        // currentGameState will be set by startGame/startNewTurnPhase
+    }
+
+    // Makes the throws of the game set up last reproducible; call after setupGame
+    public void setRollSeed(long seed) {
+        this.roller = new YunnoriRoller(isTestMode, seed);
+    }
+
+    public void startGame() {
+        startNewTurnPhase();
+    }
+
+    // --- Getters for UI ---
+    public Board getBoard() {
+        return board;
+    }
+
+    public List<Team> getTeams() {
+        return teams;
+    }
+
+    public Team getCurrentPlayer() {
+        return (teams != null && !teams.isEmpty()) ? teams.get(currentPlayerIndex) : null;
+    }
+
+    public int getCurrentPlayerIndex() {
+        return currentPlayerIndex;
+    }
+
+    public List<YunnoriRoll> getRollsToProcess() {
+        return new ArrayList<>(rollsToProcess);
+    }
+
+    // True while a YUT or MO thrown in test mode waits for the rest of the throws of its turn
+    public boolean hasEarnedRolls() {
+        return !earnedRollsThisPhase.isEmpty();
+    }
+
+    public GameState getCurrentGameState() {
+        return currentGameState;
+    }
+
+    public boolean isTestMode() {
+        return isTestMode;
+    }
+
+    public BoardType getBoardType() {
+        return boardType;
+    }
+
+    public int getNumTeams() {
+        return numTeams;
+    }
+
+    public int getNumPieces() {
+        return numPieces;
+    }
+
+    public int getTurnCount() {
+        return turnCount;
+    }
+
+    public int getCatchCount() {
+        return catchCount;
+    }
+
+    // Puts back the counters of a game restored from a snapshot (see GameSnapshot)
+    public void restoreCounts(int turnCount, int catchCount) {
+        this.turnCount = turnCount;
+        this.catchCount = catchCount;
+    }
+
+    public Piece getPieceToPotentiallyGroupWith() {
+        return pieceToPotentiallyGroupWith;
+    }
+
+    public List<Piece> getFriendlyPiecesAtTargetForGrouping() {
+        return friendlyPiecesAtTargetForGrouping != null ? new ArrayList<>(friendlyPiecesAtTargetForGrouping)
+                : new ArrayList<>();
+    }
+
+    public List<Piece> getPlayablePiecesForCurrentRoll() {
+        List<Piece> playable = new ArrayList<>();
+        if (!rollsToProcess.isEmpty()) { // Relaxed state check here
+            YunnoriRoll currentRoll = rollsToProcess.get(0);
+            List<Piece> candidates = teams.get(currentPlayerIndex).getPlayablePieces();
+            for (Piece p : candidates) {
+                if (board.isValidMoveStart(p, currentRoll.getSteps())) {
+                    playable.add(p);
+                }
+            }
+        }
+        return playable;
+    }
+
+    public Team getWinner() {
+        if (currentGameState == GameState.GAME_OVER) {
+            for (Team team : teams) {
+                if (team.isWinner()) {
+                    return team;
+                }
+            }
+            System.err.println("GLC ERROR: Game is OVER, but no winning team identified!");
+        }
+        return null;
+    }
+
+    // --- Package-private state access for GameStateCodec ---
+    List<YunnoriRoll> getEarnedRollsThisPhase() {
+        return earnedRollsThisPhase;
+    }
+
+    boolean isCatchOccurredInThisPhase() {
+        return catchOccurredInThisPhase;
+    }
+
+    Piece getPieceAwaitingGroupingDecision() {
+        return pieceAwaitingGroupingDecision;
+    }
+
+    YunnoriRoll getRollUsedForPausedMove() {
+        return rollUsedForPausedMove;
+    }
+
+    int getOldPositionForPausedMove() {
+        return oldPositionForPausedMove;
+    }
+
+    void restoreTurnState(int currentPlayerIndex, GameState gameState, boolean catchOccurred,
+            List<YunnoriRoll> rolls, List<YunnoriRoll> earnedRolls) {
+        this.currentPlayerIndex = currentPlayerIndex;
+        this.currentGameState = gameState;
+        this.catchOccurredInThisPhase = catchOccurred;
+        this.rollsToProcess.clear();
+        this.rollsToProcess.addAll(rolls);
+        this.earnedRollsThisPhase.clear();
+        this.earnedRollsThisPhase.addAll(earnedRolls);
+    }
+
+    void restoreGroupingContext(Piece pieceThatMoved, YunnoriRoll rollUsed, int oldPosition) {
+        this.pieceAwaitingGroupingDecision = pieceThatMoved;
+        this.pieceToPotentiallyGroupWith = pieceThatMoved;
+        this.rollUsedForPausedMove = rollUsed;
+        this.oldPositionForPausedMove = oldPosition;
+        if (pieceThatMoved == null) {
+            this.friendlyPiecesAtTargetForGrouping = null;
+            return;
+        }
+        List<Piece> friendlyTarget = new ArrayList<>();
+        for (Piece p : teams.get(pieceThatMoved.getTeamId())
+                .getInteractivePiecesAt(pieceThatMoved.getCurrentPositionIndex())) {
+            if (p != pieceThatMoved)
+                friendlyTarget.add(p);
+        }
+        this.friendlyPiecesAtTargetForGrouping = friendlyTarget;
+    }
+
+    // --- Events ---
+
+    public void addListener(GameEventListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(GameEventListener listener) {
+        listeners.remove(listener);
+    }
+
+    // Callers check this before building an event, so headless games allocate none
+    private boolean hasListeners() {
+        return !listeners.isEmpty();
+    }
+
+    private void emit(GameEvent event) {
+        for (GameEventListener listener : listeners) {
+            listener.onEvent(event);
+        }
+    }
+
+    private void reject(String reason) {
+        if (hasListeners())
+            emit(new GameEvent.Rejected(reason));
+    }
+
+    // --- UI Action Handlers (outcomes are reported as GameEvents) ---
+
+    public void handleRollButtonPressed() {
+        if (currentGameState != GameState.WAITING_FOR_ROLL && currentGameState != GameState.WAITING_FOR_REORDER) {
+            if (hasListeners())
+                reject("It's not time to roll yet. Current state: " + currentGameState);
+            return;
+        }
+
+        if (currentGameState == GameState.WAITING_FOR_REORDER) {
+            if (hasListeners())
+                emit(new GameEvent.ReorderDiscarded());
+            rollsToProcess.clear();
+        }
+        earnedRollsThisPhase.clear();
+
+        Team player = teams.get(currentPlayerIndex);
+        if (hasListeners())
+            emit(new GameEvent.RollStarted(player, isTestMode));
+        if (isTestMode) {
+            currentGameState = GameState.AWAITING_TEST_ROLL_INPUT;
+        } else {
+            boolean continueRolling = true;
+            while (continueRolling) {
+                YunnoriRoll roll = roller.roll();
+                if (hasListeners())
+                    emit(new GameEvent.Rolled(player, roll, false));
+                earnedRollsThisPhase.add(roll);
+                continueRolling = roll == YunnoriRoll.YUT || roll == YunnoriRoll.MO;
+            }
+            processEarnedRolls();
+        }
+    }
+
+    public void submitTestRoll(YunnoriRoll testRoll) {
+        if (!isTestMode || currentGameState != GameState.AWAITING_TEST_ROLL_INPUT) {
+            reject("Cannot submit test roll now.");
+            return;
+        }
+        roller.setTestRoll(testRoll);
+        YunnoriRoll roll = roller.roll();
+
+        if (hasListeners())
+            emit(new GameEvent.Rolled(teams.get(currentPlayerIndex), roll, true));
+        earnedRollsThisPhase.add(roll);
+
+        if (roll != YunnoriRoll.YUT && roll != YunnoriRoll.MO) {
+            processEarnedRolls();
+        }
+        // Otherwise currentGameState remains AWAITING_TEST_ROLL_INPUT for the extra roll
+    }
+
+    public void cancelTestRolling() {
+        if (!isTestMode || currentGameState != GameState.AWAITING_TEST_ROLL_INPUT) {
+            return; // Nothing to report if not in correct state
+        }
+        earnedRollsThisPhase.clear();
+        currentGameState = GameState.WAITING_FOR_ROLL;
+        if (hasListeners())
+            emit(new GameEvent.TestRollCancelled());
+    }
+
+    private void processEarnedRolls() {
+        rollsToProcess.addAll(earnedRollsThisPhase);
+        earnedRollsThisPhase.clear();
+
+        boolean canReorder = false;
+        for (YunnoriRoll r : rollsToProcess) {
+            canReorder |= r == YunnoriRoll.YUT || r == YunnoriRoll.MO;
+        }
+        if (canReorder && rollsToProcess.size() > 1) {
+            currentGameState = GameState.WAITING_FOR_REORDER;
+            if (hasListeners())
+                emit(new GameEvent.ReorderOffered(List.copyOf(rollsToProcess)));
+        } else if (!rollsToProcess.isEmpty()) {
+            determinePlayableMovesAndUpdateState();
+        } else {
+            // This case (no rolls from phase) might lead to concluding turn segment
+            concludeTurnSegment();
+        }
+    }
+
+    public void submitReorderedRolls(List<YunnoriRoll> newOrder) {
+        if (currentGameState != GameState.WAITING_FOR_REORDER) {
+            reject("Not time to reorder.");
+            return;
+        }
+        if (!isRearrangementOf(newOrder, rollsToProcess)) {
+            reject("The new order must use exactly the rolls thrown.");
+            return;
+        }
+        rollsToProcess.clear();
+        rollsToProcess.addAll(newOrder);
+        if (hasListeners())
+            emit(new GameEvent.Reordered(List.copyOf(rollsToProcess), false));
+        determinePlayableMovesAndUpdateState();
+    }
+
+    private static boolean isRearrangementOf(List<YunnoriRoll> order, List<YunnoriRoll> rolls) {
+        if (order.size() != rolls.size())
+            return false;
+        int[] counts = new int[YunnoriRoll.values().length];
+        for (YunnoriRoll roll : rolls)
+            counts[roll.ordinal()]++;
+        for (YunnoriRoll roll : order) {
+            if (roll == null || --counts[roll.ordinal()] < 0)
+                return false;
+        }
+        return true;
+    }
+
+    public void cancelReorder() {
+        if (currentGameState != GameState.WAITING_FOR_REORDER)
+            return;
+        if (hasListeners())
+            emit(new GameEvent.Reordered(List.copyOf(rollsToProcess), true));
+        determinePlayableMovesAndUpdateState();
+    }
+
+    public void handlePieceClicked(Piece piece) {
+        if (currentGameState != GameState.WAITING_FOR_PIECE_SELECTION
+                && currentGameState != GameState.WAITING_FOR_STACK_SELECTION) {
+            if (hasListeners())
+                reject("Not time to select a piece. Current state: " + currentGameState);
+            return;
+        }
+        if (piece.getTeamId() != currentPlayerIndex) {
+            reject("That's not your piece!");
+            return;
+        }
+        if (rollsToProcess.isEmpty()) {
+            reject("No rolls available to make a move.");
+            return;
+        }
+
+        YunnoriRoll currentRoll = rollsToProcess.get(0);
+        if (board.isValidMoveStart(piece, currentRoll.getSteps())) {
+            rollsToProcess.remove(0);
+            executeMove(piece, currentRoll);
+        } else if (hasListeners()) {
+            reject("Piece " + piece + " cannot move with " + currentRoll + ". Choose another piece.");
+        }
+    }
+
+    public void submitGroupingChoice(boolean userChoseToGroup) {
+        if (currentGameState != GameState.AWAITING_GROUPING_CHOICE || pieceAwaitingGroupingDecision == null) {
+            reject("Not awaiting grouping choice or context is missing.");
+            if (currentGameState == GameState.AWAITING_GROUPING_CHOICE) { // Try to recover state
+                if (!rollsToProcess.isEmpty())
+                    determinePlayableMovesAndUpdateState();
+                else
+                    concludeTurnSegment();
+            }
+            return;
+        }
+
+        Piece pieceThatMoved = this.pieceAwaitingGroupingDecision;
+        List<Piece> friendlies = this.friendlyPiecesAtTargetForGrouping;
+        int targetPos = pieceThatMoved.getCurrentPositionIndex();
+
+        boolean grouped = userChoseToGroup && friendlies != null && !friendlies.isEmpty();
+        if (grouped) {
+            for (Piece existingPiece : friendlies) {
+                pieceThatMoved.addToStack(existingPiece);
+            }
+        }
+        if (hasListeners())
+            emit(new GameEvent.Grouped(pieceThatMoved, targetPos, grouped));
+
+        YunnoriRoll originalRoll = this.rollUsedForPausedMove;
+        int originalOldPos = this.oldPositionForPausedMove;
+
+        this.pieceToPotentiallyGroupWith = null;
+        this.friendlyPiecesAtTargetForGrouping = null;
+        this.pieceAwaitingGroupingDecision = null;
+        this.rollUsedForPausedMove = null;
+        this.oldPositionForPausedMove = -1;
+
+        completeMoveExecution(pieceThatMoved, targetPos, originalRoll, originalOldPos);
+    }
+
+    public void restartGame() {
+        if (hasListeners())
+            emit(new GameEvent.Restarted());
+        setupGame(this.numTeams, this.numPieces, this.boardGraph, this.isTestMode);
+        startGame();
+    }
+
+    private void setGameOverState(Team winningTeam) { // Changed from handleGameOver, made private for internal use
+        currentGameState = GameState.GAME_OVER;
+        // The actual winner is now known and can be retrieved by getWinner()
+        if (hasListeners())
+            emit(new GameEvent.GameOver(winningTeam));
+    }
+
+    // Win message for a finished game, formatted on demand
+    public List<String> getGameOverMessages() {
+        List<String> messages = new ArrayList<>();
+        if (currentGameState == GameState.GAME_OVER) {
+            messages.add(GameEventFormatter.format(new GameEvent.GameOver(getWinner())));
+        }
+        return messages;
+    }
+
+    // --- Internal Game Flow and Logic Methods ---
+    private void startNewTurnPhase() {
+        turnCount++;
+        catchOccurredInThisPhase = false;
+        earnedRollsThisPhase.clear();
+        rollsToProcess.clear();
+        currentGameState = GameState.WAITING_FOR_ROLL;
+        if (hasListeners())
+            emit(new GameEvent.TurnStarted(teams.get(currentPlayerIndex)));
+    }
+
+    private void determinePlayableMovesAndUpdateState() {
+        while (!rollsToProcess.isEmpty()) {
+            if (hasPlayablePieceForCurrentRoll()) { // Moves are possible
+                currentGameState = GameState.WAITING_FOR_PIECE_SELECTION;
+                if (hasListeners())
+                    emit(new GameEvent.PieceSelectionNeeded(teams.get(currentPlayerIndex),
+                            List.copyOf(rollsToProcess)));
+                return;
+            }
+            // No pieces can move with current roll
+            YunnoriRoll skippedRoll = rollsToProcess.remove(0);
+            if (hasListeners())
+                emit(new GameEvent.RollSkipped(teams.get(currentPlayerIndex), skippedRoll,
+                        List.copyOf(rollsToProcess)));
+        }
+        concludeTurnSegment();
+    }
+
+    private boolean hasPlayablePieceForCurrentRoll() {
+        int steps = rollsToProcess.get(0).getSteps();
+        for (Piece p : teams.get(currentPlayerIndex).getPieces()) {
+            if (!p.isFinished() && !p.isStacked() && board.isValidMoveStart(p, steps)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void executeMove(Piece pieceToMove, YunnoriRoll rollUsed) {
+        this.pieceAwaitingGroupingDecision = null;
+        this.rollUsedForPausedMove = null;
+        this.oldPositionForPausedMove = -1;
+
+        int targetPosition = board.calculateTargetPosition(pieceToMove, rollUsed.getSteps());
+        int oldPosition = pieceToMove.getCurrentPositionIndex();
+
+        pieceToMove.moveTo(targetPosition, this.board);
+        if (hasListeners())
+            emit(new GameEvent.Moved(teams.get(currentPlayerIndex), pieceToMove, oldPosition,
+                    pieceToMove.getCurrentPositionIndex(), rollUsed));
+
+        if (pieceToMove.getCurrentPositionIndex() > board.getStartPointIndex() &&
+                pieceToMove.getCurrentPositionIndex() < board.getFinishPointIndex() &&
+                !pieceToMove.isFinished()) {
+            Team currentTeam = teams.get(currentPlayerIndex);
+            long friendlyMask = currentTeam.getInteractiveMaskAt(targetPosition) & ~(1L << pieceToMove.getId());
+            if (friendlyMask != 0) {
+                List<Piece> friendlyTarget = new ArrayList<>(Long.bitCount(friendlyMask));
+                for (; friendlyMask != 0; friendlyMask &= friendlyMask - 1) {
+                    friendlyTarget.add(currentTeam.getPieces().get(Long.numberOfTrailingZeros(friendlyMask)));
+                }
+                this.pieceToPotentiallyGroupWith = pieceToMove;
+                this.friendlyPiecesAtTargetForGrouping = friendlyTarget;
+                this.currentGameState = GameState.AWAITING_GROUPING_CHOICE;
+
+                this.pieceAwaitingGroupingDecision = pieceToMove;
+                this.rollUsedForPausedMove = rollUsed;
+                this.oldPositionForPausedMove = oldPosition;
+
+                if (hasListeners())
+                    emit(new GameEvent.GroupingOffered(pieceToMove, List.copyOf(friendlyTarget)));
+                return;
+            }
+        }
+
+        completeMoveExecution(pieceToMove, targetPosition, rollUsed, oldPosition);
+    }
+
+    private void completeMoveExecution(Piece pieceToMove, int targetPosition, YunnoriRoll rollUsed,
+            int oldPosition) {
+        if (targetPosition > board.getStartPointIndex() && targetPosition < board.getFinishPointIndex()) { // Use targetPosition for catch check
+            List<Piece> caughtOpponents = board.findOpponentPiecesAt(targetPosition, teams.get(currentPlayerIndex),
+                    teams);
+            if (!caughtOpponents.isEmpty()) {
+                if (hasListeners())
+                    emit(new GameEvent.Caught(pieceToMove, List.copyOf(caughtOpponents), targetPosition));
+                board.resetPiecesToStart(caughtOpponents);
+                this.catchOccurredInThisPhase = true;
+                this.catchCount++;
+            }
+        }
+
+        if (pieceToMove.isFinished() && hasListeners()) {
+            emit(new GameEvent.Finished(teams.get(currentPlayerIndex), pieceToMove));
+        }
+
+        if (teams.get(currentPlayerIndex).isWinner()) {
+            setGameOverState(teams.get(currentPlayerIndex));
+            return;
+        }
+
+        if (rollsToProcess.isEmpty()) {
+            concludeTurnSegment();
+        } else {
+            determinePlayableMovesAndUpdateState();
+        }
+    }
+
+    private void concludeTurnSegment() {
+        if (currentGameState == GameState.GAME_OVER)
+            return; // Already handled
+
+        // Double check winner, though should be caught by completeMoveExecution
+        if (teams.get(currentPlayerIndex).isWinner()) {
+            if (hasListeners())
+                emit(new GameEvent.GameOver(teams.get(currentPlayerIndex)));
+            return;
+        }
+
+        if (hasListeners())
+            emit(new GameEvent.TurnEnded(teams.get(currentPlayerIndex), catchOccurredInThisPhase));
+        if (!catchOccurredInThisPhase) {
+            currentPlayerIndex = (currentPlayerIndex + 1) % numTeams;
+        }
+        startNewTurnPhase();
+    }
+}
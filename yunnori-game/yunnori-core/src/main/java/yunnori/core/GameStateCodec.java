@@ -0,0 +1,272 @@
+package yunnori.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Packs the whole position of a game into a small long[] so it can be copied,
+ * hashed and compared without walking the Team/Piece object graph.
+ *
+ * Layout:
+ * word 0 - header: current player, GameState, catch flag, paused grouping move, roll counts
+ * word 1 - rollsToProcess, 3 bits per roll
+ * word 2 - earnedRollsThisPhase (test-mode rolls not yet queued), 3 bits per roll
+ * word 3.. - pieces, 16 bits each in team-major order: position (8), finished (1), leader id + 1 (4)
+ */
+public class GameStateCodec {
+    public static final int MAX_ROLLS = 21; // 21 * 3 bits in one word
+    public static final int MAX_POSITION = 0xFF;
+
+    private static final int HEADER = 0;
+    private static final int ROLLS = 1;
+    private static final int EARNED = 2;
+    private static final int PIECES = 3;
+    private static final int PIECES_PER_WORD = 4;
+
+    private static final YunnoriRoll[] ROLL_VALUES = YunnoriRoll.values();
+    private static final GameLogicController.GameState[] STATE_VALUES = GameLogicController.GameState.values();
+
+    private final int numTeams;
+    private final int numPieces;
+    private final int wordCount;
+
+    public GameStateCodec(int numTeams, int numPieces) {
+        if (numTeams < 1 || numTeams > 15 || numPieces < 1 || numPieces > 15) {
+            throw new IllegalArgumentException("Cannot pack " + numTeams + " teams of " + numPieces + " pieces");
+        }
+        this.numTeams = numTeams;
+        this.numPieces = numPieces;
+        this.wordCount = PIECES + (numTeams * numPieces + PIECES_PER_WORD - 1) / PIECES_PER_WORD;
+    }
+
+    public static GameStateCodec forGame(GameLogicController controller) {
+        return new GameStateCodec(controller.getNumTeams(), controller.getNumPieces());
+    }
+
+    public int getNumTeams() {
+        return numTeams;
+    }
+
+    public int getNumPieces() {
+        return numPieces;
+    }
+
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    public long[] newState() {
+        return new long[wordCount];
+    }
+
+    // --- Controller <-> packed state ---
+
+    public long[] encode(GameLogicController controller) {
+        long[] state = newState();
+        encode(controller, state);
+        return state;
+    }
+
+    public void encode(GameLogicController controller, long[] dst) {
+        if (controller.getBoard().getFinishPointIndex() > MAX_POSITION) {
+            throw new IllegalArgumentException("Board too large to pack: " + controller.getBoard().getPointCount());
+        }
+        Arrays.fill(dst, 0, wordCount, 0L);
+
+        Piece paused = controller.getPieceAwaitingGroupingDecision();
+        YunnoriRoll pausedRoll = controller.getRollUsedForPausedMove();
+        List<YunnoriRoll> rolls = controller.getRollsToProcess();
+        List<YunnoriRoll> earned = controller.getEarnedRollsThisPhase();
+        dst[HEADER] = header(controller.getCurrentPlayerIndex(), controller.getCurrentGameState(),
+                controller.isCatchOccurredInThisPhase(), paused == null ? -1 : paused.getId(),
+                pausedRoll, paused == null ? 0 : controller.getOldPositionForPausedMove(),
+                rolls.size(), earned.size());
+        dst[ROLLS] = packRolls(rolls);
+        dst[EARNED] = packRolls(earned);
+
+        List<Team> teams = controller.getTeams();
+        for (int t = 0; t < numTeams; t++) {
+            List<Piece> pieces = teams.get(t).getPieces();
+            for (int p = 0; p < numPieces; p++) {
+                Piece piece = pieces.get(p);
+                Piece leader = piece.getGroupLeader();
+                setPiece(dst, t, p, piece.getCurrentPositionIndex(), piece.isFinished(),
+                        leader == null ? -1 : leader.getId());
+            }
+        }
+    }
+
+    /*
+     * Restores a packed state into a controller that was set up with the same number of
+     * teams and pieces (and the same board). Existing Team and Piece objects are reused.
+     */
+    public void decode(long[] src, GameLogicController controller) {
+        List<Team> teams = controller.getTeams();
+        for (int t = 0; t < numTeams; t++) {
+            List<Piece> pieces = teams.get(t).getPieces();
+            for (int p = 0; p < numPieces; p++) {
+                pieces.get(p).restore(getPosition(src, t, p), isFinished(src, t, p));
+            }
+            for (int p = 0; p < numPieces; p++) {
+                int leader = getLeader(src, t, p);
+                if (leader >= 0) {
+                    pieces.get(p).restoreStackedUnder(pieces.get(leader));
+                }
+            }
+        }
+
+        int currentPlayer = getCurrentPlayer(src);
+        controller.restoreTurnState(currentPlayer, getGameState(src), isCatchOccurred(src),
+                unpackRolls(src[ROLLS], getRollCount(src)), unpackRolls(src[EARNED], getEarnedRollCount(src)));
+        int pausedPiece = getPausedPiece(src);
+        if (pausedPiece >= 0) {
+            controller.restoreGroupingContext(teams.get(currentPlayer).getPieces().get(pausedPiece),
+                    getPausedRoll(src), getPausedOldPosition(src));
+        } else {
+            controller.restoreGroupingContext(null, null, -1);
+        }
+    }
+
+    // --- Copy, hash and compare ---
+
+    public void copy(long[] src, long[] dst) {
+        System.arraycopy(src, 0, dst, 0, wordCount);
+    }
+
+    public long hash(long[] state) {
+        long h = 0x9E3779B97F4A7C15L * wordCount;
+        for (int i = 0; i < wordCount; i++) {
+            h = Long.rotateLeft(h ^ mix64(state[i] + i), 29) * 0xBF58476D1CE4E5B9L;
+        }
+        return mix64(h);
+    }
+
+    public boolean equals(long[] a, long[] b) {
+        return Arrays.equals(a, 0, wordCount, b, 0, wordCount);
+    }
+
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // --- Field access on a packed state ---
+
+    public int getCurrentPlayer(long[] state) {
+        return (int) (state[HEADER] & 0xF);
+    }
+
+    public GameLogicController.GameState getGameState(long[] state) {
+        return STATE_VALUES[(int) ((state[HEADER] >>> 4) & 0xF)];
+    }
+
+    public boolean isCatchOccurred(long[] state) {
+        return ((state[HEADER] >>> 8) & 1) != 0;
+    }
+
+    // Id (within the current team) of the piece waiting on a grouping choice, or -1
+    public int getPausedPiece(long[] state) {
+        return (int) ((state[HEADER] >>> 9) & 0xF) - 1;
+    }
+
+    public YunnoriRoll getPausedRoll(long[] state) {
+        int code = (int) ((state[HEADER] >>> 13) & 0x7);
+        return code == 0 ? null : ROLL_VALUES[code - 1];
+    }
+
+    public int getPausedOldPosition(long[] state) {
+        return (int) ((state[HEADER] >>> 16) & 0xFF);
+    }
+
+    public int getRollCount(long[] state) {
+        return (int) ((state[HEADER] >>> 24) & 0x1F);
+    }
+
+    public int getEarnedRollCount(long[] state) {
+        return (int) ((state[HEADER] >>> 29) & 0x1F);
+    }
+
+    public YunnoriRoll getRoll(long[] state, int i) {
+        return ROLL_VALUES[(int) ((state[ROLLS] >>> (3 * i)) & 0x7)];
+    }
+
+    public YunnoriRoll getEarnedRoll(long[] state, int i) {
+        return ROLL_VALUES[(int) ((state[EARNED] >>> (3 * i)) & 0x7)];
+    }
+
+    public int getPosition(long[] state, int team, int piece) {
+        return pieceBits(state, team, piece) & 0xFF;
+    }
+
+    public boolean isFinished(long[] state, int team, int piece) {
+        return (pieceBits(state, team, piece) & 0x100) != 0;
+    }
+
+    // Id of the piece carrying this one, or -1 if it moves on its own
+    public int getLeader(long[] state, int team, int piece) {
+        return ((pieceBits(state, team, piece) >>> 9) & 0xF) - 1;
+    }
+
+    public void setPiece(long[] state, int team, int piece, int position, boolean finished, int leader) {
+        int index = team * numPieces + piece;
+        int word = PIECES + index / PIECES_PER_WORD;
+        int shift = 16 * (index % PIECES_PER_WORD);
+        long bits = (position & 0xFF) | (finished ? 0x100 : 0) | ((long) (leader + 1) << 9);
+        state[word] = (state[word] & ~(0xFFFFL << shift)) | (bits << shift);
+    }
+
+    private int pieceBits(long[] state, int team, int piece) {
+        return getPieceBits(state, team * numPieces + piece);
+    }
+
+    /*
+     * The header word reordered so the fields that are usually 0 (the paused grouping move)
+     * come last; it then varint-encodes in 2 bytes instead of 5. See setCompactHeader.
+     */
+    public long getCompactHeader(long[] state) {
+        long header = state[HEADER];
+        return (header & 0x1FF) | ((header >>> 24) & 0x3FF) << 9 | ((header >>> 9) & 0x7FFF) << 19;
+    }
+
+    public void setCompactHeader(long[] state, long compact) {
+        state[HEADER] = (compact & 0x1FF) | ((compact >>> 19) & 0x7FFF) << 9 | ((compact >>> 9) & 0x3FF) << 24;
+    }
+
+    // All fields of piece 'index' (team * pieces + piece) as one int, for cheap comparison
+    public int getPieceBits(long[] state, int index) {
+        return (int) ((state[PIECES + index / PIECES_PER_WORD] >>> (16 * (index % PIECES_PER_WORD))) & 0xFFFF);
+    }
+
+    private static long header(int currentPlayer, GameLogicController.GameState gameState, boolean catchOccurred,
+            int pausedPiece, YunnoriRoll pausedRoll, int pausedOldPosition, int rollCount, int earnedCount) {
+        return (currentPlayer & 0xF)
+                | ((long) gameState.ordinal() << 4)
+                | ((catchOccurred ? 1L : 0L) << 8)
+                | ((long) (pausedPiece + 1) << 9)
+                | ((long) (pausedRoll == null ? 0 : pausedRoll.ordinal() + 1) << 13)
+                | ((long) (pausedOldPosition & 0xFF) << 16)
+                | ((long) rollCount << 24)
+                | ((long) earnedCount << 29);
+    }
+
+    private static long packRolls(List<YunnoriRoll> rolls) {
+        if (rolls.size() > MAX_ROLLS) {
+            throw new IllegalStateException("Too many pending rolls to pack: " + rolls.size());
+        }
+        long bits = 0;
+        for (int i = 0; i < rolls.size(); i++) {
+            bits |= (long) rolls.get(i).ordinal() << (3 * i);
+        }
+        return bits;
+    }
+
+    private static List<YunnoriRoll> unpackRolls(long bits, int count) {
+        List<YunnoriRoll> rolls = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rolls.add(ROLL_VALUES[(int) ((bits >>> (3 * i)) & 0x7)]);
+        }
+        return rolls;
+    }
+}
@@ -0,0 +1,186 @@
+package yunnori.core;
+
+import java.util.Arrays;
+
+/**
+ * Legal moves of the current team of a Position, and make/unmake to play and take them back.
+ * A move is an int: piece id (bits 0-5), roll ordinal (bits 6-8) and a grouping flag (bit 9)
+ * for landing on friendly pieces and joining them; landing there without the flag declines
+ * to group. Turn order and the roll queue are left to the caller.
+ *
+ * makeMove records the previous state of every piece it changes (the mover and its stack,
+ * absorbed friendly stacks, caught opponents and the pieces they carried) on an undo stack,
+ * so unmakeMove restores the position exactly, stacks broken up by a catch included.
+ * Neither allocates once the undo stack has grown to the search depth.
+ */
+public class MoveGenerator {
+    public static final int GROUP = 1 << 9;
+
+    // makeMove results
+    public static final int CAUGHT = 1; // Caught at least one opponent (earns an extra turn)
+    public static final int FINISHED = 2; // The moving piece or group reached the finish
+    public static final int WON = 4; // The moving team has finished every piece
+
+    private static final YunnoriRoll[] ROLLS = YunnoriRoll.values();
+
+    private final Position position;
+    private final Board board;
+    private final int numPieces;
+    private final int start;
+    private final int finish;
+    private int[] undo;
+    private int undoSize;
+    private int movesMade; // Moves that unmakeMove can take back
+
+    public MoveGenerator(Position position) {
+        this.position = position;
+        this.board = position.getBoard();
+        this.numPieces = position.getNumPieces();
+        this.start = board.getStartPointIndex();
+        this.finish = board.getFinishPointIndex();
+        this.undo = new int[64 * (position.getNumTeams() * numPieces + 1)];
+    }
+
+    // Buffer size that holds every move of one generate call
+    public static int maxMoves(int numPieces) {
+        return ROLLS.length * numPieces * 2;
+    }
+
+    public static int encode(int piece, YunnoriRoll roll, boolean group) {
+        return piece | (roll.ordinal() << 6) | (group ? GROUP : 0);
+    }
+
+    public static int pieceOf(int move) {
+        return move & 0x3F;
+    }
+
+    public static YunnoriRoll rollOf(int move) {
+        return ROLLS[(move >>> 6) & 0x7];
+    }
+
+    public static boolean isGrouping(int move) {
+        return (move & GROUP) != 0;
+    }
+
+    // Bit per YunnoriRoll ordinal
+    public static int rollMask(YunnoriRoll roll) {
+        return 1 << roll.ordinal();
+    }
+
+    public Position getPosition() {
+        return position;
+    }
+
+    /*
+     * Writes the moves of the current team for every roll in 'rollMask' into 'moves'
+     * (at least maxMoves(numPieces) long) and returns how many there are.
+     */
+    public int generate(int rollMask, int[] moves) {
+        int team = position.getCurrentTeam();
+        int base = team * numPieces;
+        int count = 0;
+        for (int r = 0; r < ROLLS.length; r++) {
+            if ((rollMask & (1 << r)) == 0)
+                continue;
+            int steps = ROLLS[r].getSteps();
+            for (int p = 0; p < numPieces; p++) {
+                int from = position.positionOf(base + p);
+                if (position.finishedOf(base + p) || position.leaderOf(base + p) >= 0 || from == finish)
+                    continue;
+                int move = p | (r << 6);
+                moves[count++] = move;
+                int target = board.getTargetPosition(from, steps);
+                if (target > start && target < finish
+                        && (position.getInteractiveMaskAt(team, target) & ~(1L << p)) != 0) {
+                    moves[count++] = move | GROUP;
+                }
+            }
+        }
+        return count;
+    }
+
+    // Plays 'move' for the current team and returns CAUGHT, FINISHED and WON flags
+    public int makeMove(int move) {
+        int team = position.getCurrentTeam();
+        int base = team * numPieces;
+        int piece = pieceOf(move);
+        int from = position.positionOf(base + piece);
+        int target = board.getTargetPosition(from, rollOf(move).getSteps());
+        boolean finished = target == finish;
+        int needed = position.getNumTeams() * numPieces + 1;
+        if (undo.length - undoSize < needed)
+            undo = Arrays.copyOf(undo, Math.max(undo.length * 2, undoSize + needed));
+        int frame = undoSize;
+        int result = finished ? FINISHED : 0;
+
+        // The mover carries its stack
+        change(base + piece, target, finished, -1);
+        for (int q = 0; q < numPieces; q++) {
+            if (position.leaderOf(base + q) == piece)
+                change(base + q, target, finished, piece);
+        }
+
+        if (isGrouping(move)) {
+            long friendlies = position.getInteractiveMaskAt(team, target) & ~(1L << piece);
+            for (; friendlies != 0; friendlies &= friendlies - 1) {
+                int friend = Long.numberOfTrailingZeros(friendlies);
+                for (int q = 0; q < numPieces; q++) {
+                    if (position.leaderOf(base + q) == friend)
+                        change(base + q, target, false, piece);
+                }
+                change(base + friend, target, false, piece);
+            }
+        }
+
+        if (target > start && target < finish) {
+            for (int t = 0; t < position.getNumTeams(); t++) {
+                if (t == team)
+                    continue;
+                int opponentBase = t * numPieces;
+                long caught = position.getInteractiveMaskAt(t, target);
+                for (; caught != 0; caught &= caught - 1) {
+                    int leader = Long.numberOfTrailingZeros(caught);
+                    for (int q = 0; q < numPieces; q++) {
+                        if (position.leaderOf(opponentBase + q) == leader)
+                            change(opponentBase + q, start, false, -1);
+                    }
+                    change(opponentBase + leader, start, false, -1);
+                    result |= CAUGHT;
+                }
+            }
+        }
+
+        if (position.isWinner(team))
+            result |= WON;
+        undo[undoSize] = undoSize - frame;
+        undoSize++;
+        movesMade++;
+        return result;
+    }
+
+    // Takes back the last move that has not been taken back yet
+    public void unmakeMove() {
+        if (movesMade == 0) {
+            throw new IllegalStateException("No move to unmake");
+        }
+        movesMade--;
+        int count = undo[--undoSize];
+        while (count-- > 0) {
+            int entry = undo[--undoSize];
+            position.set(entry & 0xFFF, (entry >>> 12) & 0x3FF, ((entry >>> 22) & 1) != 0, ((entry >>> 23) & 0x7F) - 1);
+        }
+    }
+
+    public int getMovesMade() {
+        return movesMade;
+    }
+
+    // Entry: piece index (bits 0-11), position (12-21), finished (22), leader + 1 (23-29)
+    private void change(int index, int newPosition, boolean newFinished, int newLeader) {
+        undo[undoSize++] = index
+                | (position.positionOf(index) << 12)
+                | (position.finishedOf(index) ? 1 << 22 : 0)
+                | ((position.leaderOf(index) + 1) << 23);
+        position.set(index, newPosition, newFinished, newLeader);
+    }
+}
@@ -6,13 +6,15 @@ import java.util.List;
 public class Piece {
     private int id;
     private int teamId;
-    public int currentPositionIndex;
+    private int currentPositionIndex; // Only place() changes it, so the team index follows
     private boolean isFinished;
 
     // --- New fields for grouping ---
     private List<Piece> stackedPieces; // Pieces this piece is carrying (if it's a leader)
     private Piece groupLeader; // The leader of the group this piece belongs to (if not the leader itself)
 
+    private Team team; // Owner; keeps the occupancy index and finished count up to date
+
     public Piece(int id, int teamId) {
         this.id = id;
         this.teamId = teamId;
@@ -22,6 +24,11 @@ public class Piece {
         this.groupLeader = null;
     }
 
+    Piece(int id, Team team) {
+        this(id, team.getId());
+        this.team = team;
+    }
+
     public int getId() {
         return id;
     }
@@ -77,10 +84,10 @@ public class Piece {
 
         // If pieceToAdd is already a leader, merge its stack into this one.
         if (pieceToAdd.isGroupLeader()) {
-            for (Piece subPiece : pieceToAdd.getStackedPieces()) {
+            for (Piece subPiece : pieceToAdd.stackedPieces) {
                 if (!this.stackedPieces.contains(subPiece) && subPiece != this) {
                     this.stackedPieces.add(subPiece);
-                    subPiece.groupLeader = this; // subPiece is now led by 'this'
+                    subPiece.setGroupLeader(this); // subPiece is now led by 'this'
                 }
             }
             pieceToAdd.stackedPieces.clear(); // pieceToAdd is no longer a leader of its old stack
@@ -90,18 +97,17 @@ public class Piece {
         if (!this.stackedPieces.contains(pieceToAdd)) {
             this.stackedPieces.add(pieceToAdd);
         }
-        pieceToAdd.groupLeader = this; // pieceToAdd is now led by 'this'
+        pieceToAdd.setGroupLeader(this); // pieceToAdd is now led by 'this'
 
         // Synchronize all stacked pieces (including newly added ones)
         for (Piece stacked : this.stackedPieces) {
-            stacked.currentPositionIndex = this.currentPositionIndex;
-            stacked.isFinished = this.isFinished;
+            stacked.place(this.currentPositionIndex, this.isFinished);
         }
     }
 
     public void removeFromStack(Piece pieceToRemove) {
         if (stackedPieces.remove(pieceToRemove)) {
-            pieceToRemove.groupLeader = null;
+            pieceToRemove.setGroupLeader(null);
         }
     }
 
@@ -112,18 +118,36 @@ public class Piece {
     }
 
     public void moveTo(int newPositionIndex, Board board) {
-        this.currentPositionIndex = newPositionIndex;
-        if (newPositionIndex == board.getFinishPointIndex())
-            this.isFinished = true;
+        place(newPositionIndex, this.isFinished || newPositionIndex == board.getFinishPointIndex());
 
         if (isGroupLeader()) {
             for (Piece stackedPiece : stackedPieces) {
-                stackedPiece.currentPositionIndex = this.currentPositionIndex;
-                stackedPiece.isFinished = this.isFinished;
+                stackedPiece.place(this.currentPositionIndex, this.isFinished);
             }
         }
     }
 
+    // Every change of position, finished flag or leader goes through these two, so the team index follows
+    private void place(int positionIndex, boolean finished) {
+        if (team != null) {
+            team.unindex(this);
+            if (finished != this.isFinished)
+                team.finishedChanged(finished ? 1 : -1);
+        }
+        this.currentPositionIndex = positionIndex;
+        this.isFinished = finished;
+        if (team != null)
+            team.index(this);
+    }
+
+    private void setGroupLeader(Piece leader) {
+        if (team != null)
+            team.unindex(this);
+        this.groupLeader = leader;
+        if (team != null)
+            team.index(this);
+    }
+
     public void reset() {
         leaveGroup(); // If stacked, leave its current group.
 
@@ -133,13 +157,24 @@ public class Piece {
         this.stackedPieces.clear(); // Crucial to clear before resetting children to avoid cycles/errors
 
         for (Piece formerlyStackedPiece : piecesFormerlyStacked) {
-            formerlyStackedPiece.groupLeader = null; // Explicitly detach
+            formerlyStackedPiece.setGroupLeader(null); // Explicitly detach
             formerlyStackedPiece.reset(); // Reset them to start individually
         }
 
-        this.currentPositionIndex = 0;
-        this.isFinished = false;
-        this.groupLeader = null;
+        place(0, false);
+        setGroupLeader(null);
+    }
+
+    // --- Used by GameStateCodec to rebuild pieces from a packed state ---
+    void restore(int positionIndex, boolean finished) {
+        this.stackedPieces.clear();
+        setGroupLeader(null);
+        place(positionIndex, finished);
+    }
+
+    void restoreStackedUnder(Piece leader) {
+        setGroupLeader(leader);
+        leader.stackedPieces.add(this);
     }
 
     public boolean canMove(int steps, Board board) {
@@ -0,0 +1,139 @@
+package yunnori.core;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The pieces of a game in primitive arrays, for search code that plays moves with
+ * MoveGenerator instead of driving a GameLogicController. Pieces are numbered
+ * team * numPieces + piece. Like Team, it keeps a per-position bitmask of each team's
+ * interactive pieces (unfinished, not stacked) and a finished count per team.
+ */
+public class Position {
+    private final Board board;
+    private final int numTeams;
+    private final int numPieces;
+    private final int pointCount; // Positions per team in the occupancy index (finish included)
+
+    private final int[] positions;
+    private final boolean[] finished;
+    private final int[] leaders; // Piece id (within the team) of the leader, or -1
+    private final long[] interactiveAt; // [team * pointCount + position]
+    private final int[] finishedCounts;
+    private int currentTeam;
+
+    public Position(Board board, int numTeams, int numPieces) {
+        if (numPieces > Team.MAX_PIECES) {
+            throw new IllegalArgumentException("At most " + Team.MAX_PIECES + " pieces per team, got " + numPieces);
+        }
+        this.board = board;
+        this.numTeams = numTeams;
+        this.numPieces = numPieces;
+        this.pointCount = board.getFinishPointIndex() + 1;
+        this.positions = new int[numTeams * numPieces];
+        this.finished = new boolean[numTeams * numPieces];
+        this.leaders = new int[numTeams * numPieces];
+        this.interactiveAt = new long[numTeams * pointCount];
+        this.finishedCounts = new int[numTeams];
+        Arrays.fill(leaders, -1);
+        for (int t = 0; t < numTeams; t++)
+            interactiveAt[t * pointCount + board.getStartPointIndex()] = numPieces == 64 ? -1L : (1L << numPieces) - 1;
+    }
+
+    public static Position of(GameLogicController game) {
+        Position position = new Position(game.getBoard(), game.getNumTeams(), game.getNumPieces());
+        position.load(game);
+        return position;
+    }
+
+    // Copies the pieces and the current player of 'game', which must have the same size and board
+    public void load(GameLogicController game) {
+        List<Team> teams = game.getTeams();
+        for (int t = 0; t < numTeams; t++) {
+            List<Piece> pieces = teams.get(t).getPieces();
+            for (int p = 0; p < numPieces; p++) {
+                Piece piece = pieces.get(p);
+                Piece leader = piece.getGroupLeader();
+                set(t * numPieces + p, piece.getCurrentPositionIndex(), piece.isFinished(),
+                        leader == null ? -1 : leader.getId());
+            }
+        }
+        this.currentTeam = game.getCurrentPlayerIndex();
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    public int getNumTeams() {
+        return numTeams;
+    }
+
+    public int getNumPieces() {
+        return numPieces;
+    }
+
+    public int getCurrentTeam() {
+        return currentTeam;
+    }
+
+    public void setCurrentTeam(int currentTeam) {
+        this.currentTeam = currentTeam;
+    }
+
+    public int getPosition(int team, int piece) {
+        return positions[team * numPieces + piece];
+    }
+
+    public boolean isFinished(int team, int piece) {
+        return finished[team * numPieces + piece];
+    }
+
+    public int getLeader(int team, int piece) {
+        return leaders[team * numPieces + piece];
+    }
+
+    public boolean isStacked(int team, int piece) {
+        return leaders[team * numPieces + piece] >= 0;
+    }
+
+    // Bit i is set if piece i of 'team' is an interactive piece at 'position'
+    public long getInteractiveMaskAt(int team, int position) {
+        return interactiveAt[team * pointCount + position];
+    }
+
+    public int getFinishedCount(int team) {
+        return finishedCounts[team];
+    }
+
+    public boolean isWinner(int team) {
+        return finishedCounts[team] == numPieces;
+    }
+
+    // --- Raw access by global piece index, for MoveGenerator ---
+
+    int positionOf(int index) {
+        return positions[index];
+    }
+
+    boolean finishedOf(int index) {
+        return finished[index];
+    }
+
+    int leaderOf(int index) {
+        return leaders[index];
+    }
+
+    void set(int index, int position, boolean isFinished, int leader) {
+        int team = index / numPieces;
+        long bit = 1L << (index - team * numPieces);
+        interactiveAt[team * pointCount + positions[index]] &= ~bit;
+        if (finished[index] != isFinished)
+            finishedCounts[team] += isFinished ? 1 : -1;
+        positions[index] = position;
+        finished[index] = isFinished;
+        leaders[index] = leader;
+        if (!isFinished && leader < 0)
+            interactiveAt[team * pointCount + position] |= bit;
+    }
+}
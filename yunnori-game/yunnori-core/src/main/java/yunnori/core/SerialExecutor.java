@@ -0,0 +1,53 @@
+package yunnori.core;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs its tasks one at a time, in submission order, on a shared executor. Many of these
+ * share a few pool threads, and whatever one runs is confined to it: each task sees the
+ * effects of the ones before it, even when they ran on another thread.
+ *
+ * Submitting never blocks or locks. A drain runs at most BATCH tasks before handing the
+ * thread back, so one busy queue cannot starve the others on the same pool.
+ */
+public class SerialExecutor implements Executor {
+    private static final int BATCH = 64;
+
+    private final Executor pool;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    public SerialExecutor(Executor pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        tasks.add(task);
+        if (scheduled.compareAndSet(false, true))
+            pool.execute(this::drain);
+    }
+
+    private void drain() {
+        try {
+            for (int i = 0; i < BATCH; i++) {
+                Runnable task = tasks.poll();
+                if (task == null)
+                    break;
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    System.err.println("Task failed in " + Thread.currentThread().getName() + ": " + e);
+                }
+            }
+        } finally {
+            scheduled.set(false);
+            // A task added after the last poll found 'scheduled' still set: pick it up
+            if (!tasks.isEmpty() && scheduled.compareAndSet(false, true))
+                pool.execute(this::drain);
+        }
+    }
+}
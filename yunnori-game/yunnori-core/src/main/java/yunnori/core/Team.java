@@ -0,0 +1,114 @@
+package yunnori.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class Team {
+    public static final int MAX_PIECES = 64; // Piece ids index the bits of an occupancy mask
+
+    private int id;
+    private List<Piece> pieces; // This list contains ALL original pieces for the team
+
+    // Occupancy index: bit i of interactiveAt[position] is set while piece i is unfinished,
+    // not stacked and at that position. Pieces keep it up to date as they move.
+    private long[] interactiveAt = new long[64];
+    private int finishedCount;
+
+    public Team(int id, int numPieces) {
+        if (numPieces > MAX_PIECES) {
+            throw new IllegalArgumentException("At most " + MAX_PIECES + " pieces per team, got " + numPieces);
+        }
+        this.id = id;
+        this.pieces = new ArrayList<>();
+        for (int i = 0; i < numPieces; i++) {
+            Piece piece = new Piece(i, this);
+            pieces.add(piece);
+            index(piece);
+        }
+    }
+
+    // --- Occupancy index, maintained by Piece ---
+    void index(Piece piece) {
+        if (piece.isFinished() || piece.isStacked())
+            return;
+        int position = piece.getCurrentPositionIndex();
+        if (position >= interactiveAt.length)
+            interactiveAt = Arrays.copyOf(interactiveAt, Math.max(position + 1, interactiveAt.length * 2));
+        interactiveAt[position] |= 1L << piece.getId();
+    }
+
+    void unindex(Piece piece) {
+        int position = piece.getCurrentPositionIndex();
+        if (position < interactiveAt.length)
+            interactiveAt[position] &= ~(1L << piece.getId());
+    }
+
+    void finishedChanged(int delta) {
+        finishedCount += delta;
+    }
+
+    // Bit i is set if piece i is an interactive piece (leader or individual) at 'positionIndex'
+    public long getInteractiveMaskAt(int positionIndex) {
+        return positionIndex >= 0 && positionIndex < interactiveAt.length ? interactiveAt[positionIndex] : 0;
+    }
+
+    public boolean hasInteractivePiecesAt(int positionIndex) {
+        return getInteractiveMaskAt(positionIndex) != 0;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public List<Piece> getPieces() {
+        return pieces; // Returns all pieces, including those stacked
+    }
+
+    public int getFinishedPiecesCount() {
+        // Counts all original pieces that are finished, regardless of grouping
+        return finishedCount;
+    }
+
+    public boolean isWinner() {
+        return getFinishedPiecesCount() == pieces.size();
+    }
+
+    /*
+     * Gets pieces (leaders or individuals) at a specific position.
+     * These are the pieces that can be "clicked" or interacted with directly at that spot.
+     */
+    public List<Piece> getInteractivePiecesAt(int positionIndex) {
+        long mask = getInteractiveMaskAt(positionIndex);
+        if (mask == 0) {
+            return Collections.emptyList();
+        }
+        List<Piece> piecesAtPos = new ArrayList<>(Long.bitCount(mask));
+        for (; mask != 0; mask &= mask - 1) {
+            piecesAtPos.add(pieces.get(Long.numberOfTrailingZeros(mask)));
+        }
+        return piecesAtPos;
+    }
+
+    /**
+     * Gets pieces that can currently make a move.
+     * These are leaders or individual pieces that are not finished.
+     */
+    public List<Piece> getPlayablePieces() {
+        List<Piece> playable = new ArrayList<>();
+        for (Piece piece : this.pieces) {
+            // A piece is playable if it's not finished AND it's not being carried by
+            // another.
+            if (!piece.isFinished() && !piece.isStacked()) {
+                playable.add(piece);
+            }
+        }
+        return playable;
+    }
+
+    @Override
+    public String toString() {
+        return "Team " + (id + 1);
+    }
+}
\ No newline at end of file
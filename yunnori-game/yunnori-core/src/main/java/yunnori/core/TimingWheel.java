@@ -0,0 +1,148 @@
+package yunnori.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timing wheel: many timeouts of similar length on one thread, e.g. the turn clocks
+ * of thousands of games. Time advances in ticks of tickMillis, and a timeout sits in the
+ * slot of the tick it expires on, with the number of whole turns of the wheel it must still
+ * wait. Scheduling, rescheduling and cancelling just link or unlink it, and each tick walks
+ * one slot.
+ *
+ * Tasks run on the wheel's thread, so they should only hand work off, e.g. to the executor
+ * of the game they time. A task may still run right after a racing cancel() or schedule(),
+ * so it should check that its timeout is really due.
+ */
+public class TimingWheel implements AutoCloseable {
+    private final long tickNanos;
+    private final int mask;
+    private final Timeout[] slots; // Head of each slot's list; guarded by this
+    private final long start = System.nanoTime();
+    private final Thread thread;
+    private final List<Timeout> expired = new ArrayList<>(); // Wheel thread
+    private long tick; // Ticks done; guarded by this
+    private volatile boolean running = true;
+
+    // A timeout that can be scheduled any number of times, one deadline at a time
+    public final class Timeout {
+        private final Runnable task;
+        private Timeout previous; // In its slot's list; guarded by the wheel
+        private Timeout next;
+        private int slot = -1; // -1 while not scheduled
+        private long rounds; // Turns of the wheel to wait before the slot's tick expires it
+
+        private Timeout(Runnable task) {
+            this.task = task;
+        }
+
+        // Runs the task on the first tick at least 'delayMillis' from now, instead of when it was due
+        public void schedule(long delayMillis) {
+            TimingWheel.this.schedule(this, delayMillis);
+        }
+
+        public void cancel() {
+            synchronized (TimingWheel.this) {
+                unlink(this);
+            }
+        }
+
+        public boolean isScheduled() {
+            synchronized (TimingWheel.this) {
+                return slot >= 0;
+            }
+        }
+    }
+
+    // 'slots' is rounded up to a power of two; a turn of the wheel is tickMillis * slots
+    public TimingWheel(long tickMillis, int slots) {
+        if (tickMillis < 1 || slots < 1) {
+            throw new IllegalArgumentException("Bad wheel: ticks of " + tickMillis + " ms, " + slots + " slots");
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.slots = new Timeout[Integer.highestOneBit(2 * slots - 1)];
+        this.mask = this.slots.length - 1;
+        this.thread = new Thread(this::run, "yunnori-timing-wheel");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public Timeout newTimeout(Runnable task) {
+        return new Timeout(task);
+    }
+
+    private synchronized void schedule(Timeout timeout, long delayMillis) {
+        unlink(timeout);
+        // Count from the wheel's start, not the current tick, which may be mostly over
+        long due = System.nanoTime() - start + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+        long ticks = Math.max(1, (due + tickNanos - 1) / tickNanos - tick);
+        int slot = (int) (tick + ticks) & mask;
+        timeout.slot = slot;
+        timeout.rounds = (ticks - 1) / slots.length;
+        timeout.previous = null;
+        timeout.next = slots[slot];
+        if (slots[slot] != null)
+            slots[slot].previous = timeout;
+        slots[slot] = timeout;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.slot < 0)
+            return;
+        if (timeout.previous != null) {
+            timeout.previous.next = timeout.next;
+        } else {
+            slots[timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null)
+            timeout.next.previous = timeout.previous;
+        timeout.previous = timeout.next = null;
+        timeout.slot = -1;
+    }
+
+    private void run() {
+        long done = 0;
+        while (running) {
+            long wait = start + (done + 1) * tickNanos - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+                continue;
+            }
+            done++;
+            advance();
+            for (Timeout timeout : expired) {
+                try {
+                    timeout.task.run();
+                } catch (RuntimeException e) {
+                    System.err.println("Timeout task failed: " + e);
+                }
+            }
+            expired.clear();
+        }
+    }
+
+    // Moves to the next tick and takes what expires on it
+    private synchronized void advance() {
+        tick++;
+        int slot = (int) tick & mask;
+        Timeout timeout = slots[slot];
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.rounds == 0) {
+                unlink(timeout);
+                expired.add(timeout);
+            } else {
+                timeout.rounds--;
+            }
+            timeout = next;
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+}
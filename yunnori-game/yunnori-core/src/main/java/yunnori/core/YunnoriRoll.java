@@ -1,18 +1,33 @@
 package yunnori.core;
 
 public enum YunnoriRoll {
-    DO(1), GAE(2), GEOL(3), YUT(4), MO(5), BACK_DO(-1);
+    // Weights are out of 16: the four sticks land flat or round with equal chance,
+    // and one flat stick in four is the marked one (BACK_DO)
+    DO(1, 3), GAE(2, 6), GEOL(3, 4), YUT(4, 1), MO(5, 1), BACK_DO(-1, 1);
+
+    public static final int TOTAL_WEIGHT = 16;
 
     private final int steps;
+    private final int weight;
 
-    YunnoriRoll(int steps) {
+    YunnoriRoll(int steps, int weight) {
         this.steps = steps;
+        this.weight = weight;
     }
 
     public int getSteps() {
         return steps;
     }
 
+    // Chance of this throw in sixteenths
+    public int getWeight() {
+        return weight;
+    }
+
+    public double getProbability() {
+        return (double) weight / TOTAL_WEIGHT;
+    }
+
     // Helper to get roll by name (case-insensitive)
     public static YunnoriRoll fromName(String name) {
         for (YunnoriRoll roll : values()) {
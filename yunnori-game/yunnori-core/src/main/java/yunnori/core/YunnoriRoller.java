@@ -0,0 +1,110 @@
+package yunnori.core;
+
+import java.util.SplittableRandom;
+
+public class YunnoriRoller {
+    // A throw uses 6 random bits: one per stick (set = flat) and two that pick BACK_DO
+    // from the one-flat case with chance 1/4
+    public static final int BITS_PER_THROW = 6;
+    private static final int THROWS_PER_LONG = 64 / BITS_PER_THROW;
+    private static final YunnoriRoll[] VALUES = YunnoriRoll.values();
+    private static final byte[] THROW_BY_BITS = new byte[1 << BITS_PER_THROW]; // Ordinal of the throw for each bit pattern
+
+    static {
+        for (int bits = 0; bits < THROW_BY_BITS.length; bits++) {
+            THROW_BY_BITS[bits] = (byte) fromBits(bits).ordinal();
+        }
+    }
+
+    private boolean isTestMode;
+    private SplittableRandom random;
+    private YunnoriRoll testRoll = null;
+
+    public YunnoriRoller(boolean isTestMode) {
+        this(isTestMode, new SplittableRandom());
+    }
+
+    // Same seed, same throws
+    public YunnoriRoller(boolean isTestMode, long seed) {
+        this(isTestMode, new SplittableRandom(seed));
+    }
+
+    private YunnoriRoller(boolean isTestMode, SplittableRandom random) {
+        this.isTestMode = isTestMode;
+        this.random = random;
+    }
+
+    // A new roller with its own random stream, for use on another thread
+    public YunnoriRoller split() {
+        return new YunnoriRoller(isTestMode, random.split());
+    }
+
+    public void setTestRoll(YunnoriRoll roll) {
+        this.testRoll = roll;
+    }
+
+    public YunnoriRoll roll() {
+        if (isTestMode) {
+            return rollTest();
+        } else {
+            return rollReal();
+        }
+    }
+
+    // Fills dst[from..to) with throw ordinals (see YunnoriRoll.values()), ten throws per random long
+    public void fill(byte[] dst, int from, int to) {
+        int i = from;
+        while (i < to) {
+            long bits = random.nextLong();
+            for (int k = 0; k < THROWS_PER_LONG && i < to; k++, bits >>>= BITS_PER_THROW) {
+                dst[i++] = THROW_BY_BITS[(int) bits & 0x3F];
+            }
+        }
+    }
+
+    public void fill(int[] dst, int from, int to) {
+        int i = from;
+        while (i < to) {
+            long bits = random.nextLong();
+            for (int k = 0; k < THROWS_PER_LONG && i < to; k++, bits >>>= BITS_PER_THROW) {
+                dst[i++] = THROW_BY_BITS[(int) bits & 0x3F];
+            }
+        }
+    }
+
+    private YunnoriRoll rollReal() {
+        return VALUES[THROW_BY_BITS[random.nextInt() & 0x3F]];
+    }
+
+    private static YunnoriRoll fromBits(int bits) {
+        int flats = Integer.bitCount(bits & 0xF);
+        switch (flats) {
+            case 0:
+                return YunnoriRoll.MO;
+            case 1:
+                if ((bits >>> 4) == 0) {
+                    return YunnoriRoll.BACK_DO;
+                } else {
+                    return YunnoriRoll.DO;
+                }
+            case 2:
+                return YunnoriRoll.GAE;
+            case 3:
+                return YunnoriRoll.GEOL;
+            case 4:
+                return YunnoriRoll.YUT;
+            default:
+                throw new IllegalStateException("Invalid number of flats rolled: " + flats);
+        }
+    }
+
+    private YunnoriRoll rollTest() {
+        YunnoriRoll result = this.testRoll;
+        this.testRoll = null;
+        if (result == null) {
+            System.err.println("Error: rollTest called but test roll was not set!");
+            return YunnoriRoll.DO;
+        }
+        return result;
+    }
+}
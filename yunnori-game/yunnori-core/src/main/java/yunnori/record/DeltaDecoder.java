@@ -0,0 +1,125 @@
+package yunnori.record;
+
+import yunnori.core.GameLogicController;
+import yunnori.core.GameStateCodec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Client side of DeltaEncoder: rebuilds the position from its frames. Nothing can be
+ * applied before the first keyframe; a delta that does not follow the last frame applied
+ * is refused, and the client should wait for (or ask for) the next keyframe. Deltas carry
+ * only the low byte of their number, which periodic keyframes make enough.
+ */
+public class DeltaDecoder {
+    private GameStateCodec codec;
+    private long[] state;
+    private int numTeams;
+    private int numPieces;
+    private int boardCode;
+    private int sequence = -1; // Of the last frame applied
+    private GameLogicController game;
+
+    /*
+     * Applies the frame at the position of 'src' and returns true, or returns false without
+     * changing anything if it is a delta this decoder cannot apply.
+     */
+    public boolean apply(ByteBuffer src) {
+        int kind = src.get();
+        if (kind == DeltaEncoder.KEYFRAME) {
+            sequence = Varint.read(src);
+            applyKeyframe(src);
+        } else if (kind == DeltaEncoder.DELTA) {
+            if (state == null || (src.get() & 0xFF) != ((sequence + 1) & 0xFF))
+                return false;
+            applyDelta(src);
+            sequence++;
+        } else {
+            throw new IllegalArgumentException("Unknown sync frame kind " + kind);
+        }
+        return true;
+    }
+
+    private void applyKeyframe(ByteBuffer src) {
+        int teams = Varint.read(src);
+        int pieces = Varint.read(src);
+        int board = Varint.read(src);
+        if (codec == null || teams != numTeams || pieces != numPieces || board != boardCode) {
+            codec = new GameStateCodec(teams, pieces);
+            state = codec.newState();
+            numTeams = teams;
+            numPieces = pieces;
+            boardCode = board;
+            game = null;
+        }
+        for (int w = 0; w < codec.getWordCount(); w++)
+            state[w] = Varint.readLong(src);
+    }
+
+    private void applyDelta(ByteBuffer src) {
+        int mask = src.get();
+        if ((mask & DeltaEncoder.HEADER_WORD) != 0)
+            codec.setCompactHeader(state, Varint.readLong(src));
+        for (int w = 1; w < DeltaEncoder.CODEC_WORDS; w++) {
+            if ((mask & (1 << w)) != 0)
+                state[w] = Varint.readLong(src);
+        }
+        int changes = Varint.read(src);
+        for (int i = 0; i < changes; i++) {
+            int change = Varint.read(src);
+            int index = change >>> 3;
+            int t = index / numPieces;
+            int p = index % numPieces;
+            switch (change & 0x7) {
+                case DeltaEncoder.MOVE:
+                    codec.setPiece(state, t, p, Varint.read(src), codec.isFinished(state, t, p),
+                            codec.getLeader(state, t, p));
+                    break;
+                case DeltaEncoder.RESET:
+                    codec.setPiece(state, t, p, 0, false, -1);
+                    break;
+                case DeltaEncoder.STACK:
+                    codec.setPiece(state, t, p, codec.getPosition(state, t, p), codec.isFinished(state, t, p),
+                            Varint.read(src) - 1);
+                    break;
+                case DeltaEncoder.SET: {
+                    int position = Varint.read(src);
+                    int flags = Varint.read(src);
+                    codec.setPiece(state, t, p, position, (flags & 1) != 0, (flags >>> 1) - 1);
+                    break;
+                }
+                default:
+                    throw new IllegalArgumentException("Unknown piece change " + (change & 0x7));
+            }
+        }
+    }
+
+    public boolean isSynced() {
+        return state != null;
+    }
+
+    public int getSequence() {
+        return sequence;
+    }
+
+    // The packed position (see GameStateCodec); null before the first keyframe
+    public long[] getState() {
+        return state;
+    }
+
+    public GameStateCodec getCodec() {
+        return codec;
+    }
+
+    // A controller holding the decoded position, for views; null before the first keyframe
+    public GameLogicController getController() {
+        if (state == null)
+            return null;
+        if (game == null) {
+            game = new GameLogicController();
+            game.setupGame(numTeams, numPieces, GameRecord.boardGraph(boardCode), false);
+        }
+        codec.decode(state, game);
+        return game;
+    }
+}
@@ -0,0 +1,152 @@
+package yunnori.record;
+
+import yunnori.core.GameLogicController;
+import yunnori.core.GameStateCodec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Turns the position of a game into a stream of sync frames for remote clients, which
+ * rebuild it with DeltaDecoder. Each call to encode() compares the game with the position
+ * of the previous frame (both packed by GameStateCodec) and writes only what changed:
+ * the header, pending rolls and pieces that moved, finished, were sent back to the start
+ * or joined or left a stack. Every keyframeInterval-th frame, and the first, is a whole
+ * position instead, so clients that missed frames resynchronize; keyframe() writes one for
+ * a client that joins late.
+ *
+ * Frames are numbered; a delta applies to the position of the frame numbered one less.
+ *
+ * KEYFRAME: kind, sequence, teams, pieces, board code, then every codec word.
+ * DELTA:    kind, sequence & 0xFF, a mask of the changed codec words among header (1),
+ *           rolls (2) and earned rolls (4), those words (the header in its compact form),
+ *           the number of piece changes, then each change as (piece index << 3 | op) plus
+ *           its operands (see the op constants).
+ * All fields are varints but the kinds, the delta sequence and the mask, which are bytes.
+ */
+public class DeltaEncoder {
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 64;
+
+    // Frame kinds
+    public static final int KEYFRAME = 1;
+    public static final int DELTA = 2;
+
+    // Piece changes
+    static final int MOVE = 0; // New position
+    static final int RESET = 1; // Back at point 0, unfinished and unstacked; no operand
+    static final int STACK = 2; // New leader id + 1, 0 when it moves on its own again
+    static final int SET = 3; // New position, then finished | (leader id + 1) << 1
+
+    static final int HEADER_WORD = 1;
+    static final int ROLLS_WORD = 2;
+    static final int EARNED_WORD = 4;
+    static final int CODEC_WORDS = 3; // Codec words before the pieces
+
+    private final GameLogicController game;
+    private final GameStateCodec codec;
+    private final int boardCode;
+    private final int keyframeInterval;
+    private long[] previous;
+    private long[] current;
+    private final int[] changed; // Indices of the pieces that changed, scratch for writeDelta
+    private int sequence = -1; // Of the last frame written
+
+    public DeltaEncoder(GameLogicController game) {
+        this(game, DEFAULT_KEYFRAME_INTERVAL);
+    }
+
+    // keyframeInterval 0: no periodic keyframes, only the first
+    public DeltaEncoder(GameLogicController game, int keyframeInterval) {
+        this.game = game;
+        this.codec = GameStateCodec.forGame(game);
+        this.boardCode = GameRecord.boardCode(game.getBoard().getGraph());
+        this.keyframeInterval = keyframeInterval;
+        this.previous = codec.newState();
+        this.current = codec.newState();
+        this.changed = new int[codec.getNumTeams() * codec.getNumPieces()];
+    }
+
+    public int getSequence() {
+        return sequence;
+    }
+
+    // Writes the next frame, a delta from the previous one or a periodic keyframe
+    public void encode(ByteBuffer dst) {
+        long[] swap = previous;
+        previous = current;
+        current = swap;
+        codec.encode(game, current);
+        sequence++;
+        if (sequence == 0 || (keyframeInterval > 0 && sequence % keyframeInterval == 0)) {
+            writeKeyframe(dst);
+        } else {
+            writeDelta(dst);
+        }
+    }
+
+    // Writes the position of the last frame whole, for a client joining now
+    public void keyframe(ByteBuffer dst) {
+        if (sequence < 0) {
+            encode(dst);
+            return;
+        }
+        writeKeyframe(dst);
+    }
+
+    private void writeKeyframe(ByteBuffer dst) {
+        dst.put((byte) KEYFRAME);
+        Varint.write(dst, sequence);
+        Varint.write(dst, codec.getNumTeams());
+        Varint.write(dst, codec.getNumPieces());
+        Varint.write(dst, boardCode);
+        for (int w = 0; w < codec.getWordCount(); w++)
+            Varint.writeLong(dst, current[w]);
+    }
+
+    private void writeDelta(ByteBuffer dst) {
+        dst.put((byte) DELTA);
+        dst.put((byte) sequence);
+        int mask = 0;
+        for (int w = 0; w < CODEC_WORDS; w++) {
+            if (current[w] != previous[w])
+                mask |= 1 << w;
+        }
+        dst.put((byte) mask);
+        if ((mask & HEADER_WORD) != 0)
+            Varint.writeLong(dst, codec.getCompactHeader(current));
+        for (int w = 1; w < CODEC_WORDS; w++) {
+            if ((mask & (1 << w)) != 0)
+                Varint.writeLong(dst, current[w]);
+        }
+
+        int changes = 0;
+        int numPieces = codec.getNumPieces();
+        for (int index = 0; index < changed.length; index++) {
+            if (codec.getPieceBits(current, index) != codec.getPieceBits(previous, index))
+                changed[changes++] = index;
+        }
+        Varint.write(dst, changes);
+        for (int i = 0; i < changes; i++) {
+            int index = changed[i];
+            int t = index / numPieces;
+            int p = index % numPieces;
+            int position = codec.getPosition(current, t, p);
+            boolean finished = codec.isFinished(current, t, p);
+            int leader = codec.getLeader(current, t, p);
+            boolean sameFinished = finished == codec.isFinished(previous, t, p);
+            boolean sameLeader = leader == codec.getLeader(previous, t, p);
+            if (position == 0 && !finished && leader < 0) {
+                Varint.write(dst, index << 3 | RESET);
+            } else if (sameFinished && sameLeader) {
+                Varint.write(dst, index << 3 | MOVE);
+                Varint.write(dst, position);
+            } else if (sameFinished && position == codec.getPosition(previous, t, p)) {
+                Varint.write(dst, index << 3 | STACK);
+                Varint.write(dst, leader + 1);
+            } else {
+                Varint.write(dst, index << 3 | SET);
+                Varint.write(dst, position);
+                Varint.write(dst, (finished ? 1 : 0) | (leader + 1) << 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package yunnori.record;
+
+import yunnori.core.BoardType;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+/**
+ * Read side of a column archive of simulated games, written by GameArchiveWriter.
+ * Every field is its own file of fixed-width values indexed by row, memory-mapped in
+ * chunks of CHUNK_ROWS rows, so a scan touches only the columns it reads.
+ *
+ * Scans run in parallel over blocks of rows on the common fork/join pool. Predicates and
+ * accumulators get the archive and a row number and read the fields they need through
+ * the getters; no object is created per row.
+ *
+ * Columns: board code (byte, see GameRecord.boardCode), teams, pieces, winner (bytes,
+ * winner -1 for unfinished games), turns, catches, actions and one finish turn per seat
+ * (ints, the turn the seat brought its last piece home, 0 if none).
+ */
+public class GameArchive {
+    public static final int MAX_SEATS = 16;
+
+    static final int CHUNK_BITS = 20;
+    static final int CHUNK_ROWS = 1 << CHUNK_BITS;
+    static final String META_FILE = "archive.meta";
+    static final String COLUMN_SUFFIX = ".col";
+    private static final int META_MAGIC = 0x594E4143; // "YNAC"
+    private static final int META_VERSION = 1;
+    private static final int BLOCK_ROWS = 1 << 16; // Rows per parallel scan task
+
+    // Column indices
+    static final int BOARD = 0;
+    static final int TEAMS = 1;
+    static final int PIECES = 2;
+    static final int WINNER = 3;
+    static final int TURNS = 4;
+    static final int CATCHES = 5;
+    static final int ACTIONS = 6;
+    static final int FINISH = 7; // First of the per-seat finish turn columns
+    private static final String[] FIXED_COLUMNS = { "board", "teams", "pieces", "winner", "turns", "catches",
+            "actions" };
+
+    @FunctionalInterface
+    public interface RowPredicate {
+        boolean test(GameArchive archive, long row);
+    }
+
+    @FunctionalInterface
+    public interface RowValue {
+        long of(GameArchive archive, long row);
+    }
+
+    @FunctionalInterface
+    public interface RowAccumulator<A> {
+        void accept(A accumulator, GameArchive archive, long row);
+    }
+
+    public static final RowPredicate ALL = (archive, row) -> true;
+
+    private final int seats;
+    private final long rows;
+    private final MappedByteBuffer[][] chunks; // [column][chunk]
+
+    private GameArchive(Path directory, int seats, long rows) throws IOException {
+        this.seats = seats;
+        this.rows = rows;
+        String[] names = columnNames(seats);
+        int chunkCount = (int) ((rows + CHUNK_ROWS - 1) >>> CHUNK_BITS);
+        this.chunks = new MappedByteBuffer[names.length][chunkCount];
+        for (int c = 0; c < names.length; c++) {
+            int width = columnWidth(c);
+            try (FileChannel channel = FileChannel.open(directory.resolve(names[c] + COLUMN_SUFFIX),
+                    StandardOpenOption.READ)) {
+                for (int k = 0; k < chunkCount; k++) {
+                    long first = (long) k << CHUNK_BITS;
+                    long size = Math.min(CHUNK_ROWS, rows - first) * width;
+                    chunks[c][k] = channel.map(FileChannel.MapMode.READ_ONLY, first * width, size);
+                }
+            }
+        }
+    }
+
+    // Maps the rows stored by the last GameArchiveWriter.close() or flush()
+    public static GameArchive open(Path directory) throws IOException {
+        long[] meta = readMeta(directory.resolve(META_FILE));
+        return new GameArchive(directory, (int) meta[0], meta[1]);
+    }
+
+    public int getSeats() {
+        return seats;
+    }
+
+    public long getRowCount() {
+        return rows;
+    }
+
+    // --- Fields of one row ---
+
+    public int getBoardCode(long row) {
+        return chunks[BOARD][chunkOf(row)].get(indexOf(row));
+    }
+
+    // null for generated boards
+    public BoardType getBoardType(long row) {
+        return GameRecord.boardType(getBoardCode(row));
+    }
+
+    public int getNumTeams(long row) {
+        return chunks[TEAMS][chunkOf(row)].get(indexOf(row));
+    }
+
+    public int getNumPieces(long row) {
+        return chunks[PIECES][chunkOf(row)].get(indexOf(row));
+    }
+
+    public int getWinner(long row) {
+        return chunks[WINNER][chunkOf(row)].get(indexOf(row));
+    }
+
+    public int getTurns(long row) {
+        return chunks[TURNS][chunkOf(row)].getInt(indexOf(row) * Integer.BYTES);
+    }
+
+    public int getCatches(long row) {
+        return chunks[CATCHES][chunkOf(row)].getInt(indexOf(row) * Integer.BYTES);
+    }
+
+    public int getActions(long row) {
+        return chunks[ACTIONS][chunkOf(row)].getInt(indexOf(row) * Integer.BYTES);
+    }
+
+    public int getFinishTurn(long row, int seat) {
+        return chunks[FINISH + seat][chunkOf(row)].getInt(indexOf(row) * Integer.BYTES);
+    }
+
+    private static int chunkOf(long row) {
+        return (int) (row >>> CHUNK_BITS);
+    }
+
+    private static int indexOf(long row) {
+        return (int) row & (CHUNK_ROWS - 1);
+    }
+
+    // --- Parallel scans ---
+
+    /*
+     * Folds the rows matching 'where' into one accumulator per block of rows, then merges
+     * the block accumulators. 'merge' may return either argument.
+     */
+    public <A> A aggregate(RowPredicate where, Supplier<A> supplier, RowAccumulator<A> accumulator,
+            BinaryOperator<A> merge) {
+        long blocks = (rows + BLOCK_ROWS - 1) / BLOCK_ROWS;
+        return LongStream.range(0, blocks).parallel().mapToObj(block -> {
+            A acc = supplier.get();
+            long end = Math.min(rows, (block + 1) * BLOCK_ROWS);
+            for (long row = block * BLOCK_ROWS; row < end; row++) {
+                if (where.test(this, row))
+                    accumulator.accept(acc, this, row);
+            }
+            return acc;
+        }).reduce(merge).orElseGet(supplier);
+    }
+
+    public long count(RowPredicate where) {
+        return aggregate(where, () -> new long[1], (acc, archive, row) -> acc[0]++, GameArchive::add)[0];
+    }
+
+    public long sum(RowValue value, RowPredicate where) {
+        return aggregate(where, () -> new long[1], (acc, archive, row) -> acc[0] += value.of(archive, row),
+                GameArchive::add)[0];
+    }
+
+    public double average(RowValue value, RowPredicate where) {
+        long[] sumAndCount = aggregate(where, () -> new long[2], (acc, archive, row) -> {
+            acc[0] += value.of(archive, row);
+            acc[1]++;
+        }, GameArchive::add);
+        return sumAndCount[1] == 0 ? 0 : (double) sumAndCount[0] / sumAndCount[1];
+    }
+
+    // Counts of 'value' for 0..bins-1; smaller values count as 0, larger ones as bins - 1
+    public long[] histogram(RowValue value, int bins, RowPredicate where) {
+        return aggregate(where, () -> new long[bins], (acc, archive, row) -> {
+            long v = value.of(archive, row);
+            acc[(int) Math.max(0, Math.min(bins - 1, v))]++;
+        }, GameArchive::add);
+    }
+
+    // Wins per seat; the last element counts unfinished games
+    public long[] winsBySeat(RowPredicate where) {
+        return aggregate(where, () -> new long[seats + 1], (acc, archive, row) -> {
+            int winner = archive.getWinner(row);
+            acc[winner >= 0 ? winner : seats]++;
+        }, GameArchive::add);
+    }
+
+    private static long[] add(long[] a, long[] b) {
+        for (int i = 0; i < a.length; i++)
+            a[i] += b[i];
+        return a;
+    }
+
+    // --- Layout, shared with GameArchiveWriter ---
+
+    static String[] columnNames(int seats) {
+        String[] names = new String[FIXED_COLUMNS.length + seats];
+        System.arraycopy(FIXED_COLUMNS, 0, names, 0, FIXED_COLUMNS.length);
+        for (int s = 0; s < seats; s++)
+            names[FINISH + s] = "finish" + s;
+        return names;
+    }
+
+    static int columnWidth(int column) {
+        return column <= WINNER ? Byte.BYTES : Integer.BYTES;
+    }
+
+    // Returns { seats, rows }
+    static long[] readMeta(Path meta) throws IOException {
+        try (InputStream in = Files.newInputStream(meta); DataInputStream data = new DataInputStream(in)) {
+            if (data.readInt() != META_MAGIC || data.readInt() != META_VERSION) {
+                throw new IOException("Not a game archive: " + meta);
+            }
+            return new long[] { data.readInt(), data.readLong() };
+        }
+    }
+
+    // Replaces the meta file in one rename, so a reader never sees a half-written one
+    static void writeMeta(Path meta, int seats, long rows) throws IOException {
+        Path temp = meta.resolveSibling(META_FILE + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp); DataOutputStream data = new DataOutputStream(out)) {
+            data.writeInt(META_MAGIC);
+            data.writeInt(META_VERSION);
+            data.writeInt(seats);
+            data.writeLong(rows);
+        }
+        Files.move(temp, meta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,173 @@
+package yunnori.record;
+
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Appends simulated games to a column archive (see GameArchive). Rows are reserved with
+ * an atomic counter and written in place, so simulation threads fill their own rows of
+ * the memory-mapped column files concurrently with no lock. Column files grow one chunk
+ * of GameArchive.CHUNK_ROWS rows at a time.
+ *
+ * The row count is stored by close(); rows reserved after the last close are lost if the
+ * process dies.
+ */
+public class GameArchiveWriter implements AutoCloseable {
+    private final Path directory;
+    private final int seats;
+    private final Column[] columns;
+    private final AtomicLong rows;
+
+    private GameArchiveWriter(Path directory, int seats, long rows) throws IOException {
+        this.directory = directory;
+        this.seats = seats;
+        this.rows = new AtomicLong(rows);
+        String[] names = GameArchive.columnNames(seats);
+        this.columns = new Column[names.length];
+        try {
+            for (int c = 0; c < names.length; c++)
+                columns[c] = new Column(directory.resolve(names[c] + GameArchive.COLUMN_SUFFIX),
+                        GameArchive.columnWidth(c));
+        } catch (IOException e) {
+            closeColumns();
+            throw e;
+        }
+    }
+
+    /*
+     * Opens the archive in 'directory' for appending, or creates it with room for 'seats'
+     * teams per game. An existing archive keeps its own seat count.
+     */
+    public static GameArchiveWriter open(Path directory, int seats) throws IOException {
+        Files.createDirectories(directory);
+        Path meta = directory.resolve(GameArchive.META_FILE);
+        if (Files.exists(meta)) {
+            long[] header = GameArchive.readMeta(meta);
+            return new GameArchiveWriter(directory, (int) header[0], header[1]);
+        }
+        if (seats < 1 || seats > GameArchive.MAX_SEATS) {
+            throw new IllegalArgumentException("Seats must be 1.." + GameArchive.MAX_SEATS + ", got " + seats);
+        }
+        GameArchive.writeMeta(meta, seats, 0);
+        return new GameArchiveWriter(directory, seats, 0);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public int getSeats() {
+        return seats;
+    }
+
+    public long getRowCount() {
+        return rows.get();
+    }
+
+    // Reserves 'count' consecutive rows and returns the first
+    public long reserve(int count) {
+        return rows.getAndAdd(count);
+    }
+
+    // Appends one game and returns its row
+    public long append(int boardCode, int numTeams, int numPieces, int winner, int turns, int catches, int actions,
+            int[] finishTurns) throws IOException {
+        long row = reserve(1);
+        write(row, boardCode, numTeams, numPieces, winner, turns, catches, actions, finishTurns);
+        return row;
+    }
+
+    /*
+     * Writes a game into a reserved row; safe from many threads as long as the rows differ.
+     * winner is -1 for an unfinished game, and finishTurns[seat] 0 for a seat with no piece home.
+     */
+    public void write(long row, int boardCode, int numTeams, int numPieces, int winner, int turns, int catches,
+            int actions, int[] finishTurns) throws IOException {
+        if (numTeams > seats) {
+            throw new IllegalArgumentException("Archive has " + seats + " seats, game has " + numTeams + " teams");
+        }
+        int chunk = (int) (row >>> GameArchive.CHUNK_BITS);
+        int index = (int) (row & (GameArchive.CHUNK_ROWS - 1));
+        columns[GameArchive.BOARD].chunk(chunk).put(index, (byte) boardCode);
+        columns[GameArchive.TEAMS].chunk(chunk).put(index, (byte) numTeams);
+        columns[GameArchive.PIECES].chunk(chunk).put(index, (byte) numPieces);
+        columns[GameArchive.WINNER].chunk(chunk).put(index, (byte) winner);
+        columns[GameArchive.TURNS].chunk(chunk).putInt(index * Integer.BYTES, turns);
+        columns[GameArchive.CATCHES].chunk(chunk).putInt(index * Integer.BYTES, catches);
+        columns[GameArchive.ACTIONS].chunk(chunk).putInt(index * Integer.BYTES, actions);
+        for (int s = 0; s < seats; s++) {
+            columns[GameArchive.FINISH + s].chunk(chunk).putInt(index * Integer.BYTES,
+                    s < finishTurns.length ? finishTurns[s] : 0);
+        }
+    }
+
+    // Stores the row count; the archive can then be opened by GameArchive or appended to again
+    public void flush() throws IOException {
+        for (Column column : columns)
+            column.force();
+        GameArchive.writeMeta(directory.resolve(GameArchive.META_FILE), seats, rows.get());
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            closeColumns();
+        }
+    }
+
+    private void closeColumns() throws IOException {
+        for (Column column : columns) {
+            if (column != null)
+                column.channel.close();
+        }
+    }
+
+    // One column file, mapped chunk by chunk as rows reach it
+    private static final class Column {
+        final FileChannel channel;
+        final int width;
+        private volatile MappedByteBuffer[] chunks = new MappedByteBuffer[0];
+
+        Column(Path path, int width) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            this.width = width;
+        }
+
+        MappedByteBuffer chunk(int chunk) throws IOException {
+            MappedByteBuffer[] current = chunks;
+            if (chunk < current.length && current[chunk] != null)
+                return current[chunk];
+            return map(chunk);
+        }
+
+        // Publishes every mapping in a new array, as readers of 'chunks' take no lock
+        private synchronized MappedByteBuffer map(int chunk) throws IOException {
+            MappedByteBuffer[] current = chunks;
+            if (chunk < current.length && current[chunk] != null)
+                return current[chunk];
+            MappedByteBuffer[] next = Arrays.copyOf(current,
+                    chunk < current.length ? current.length : Math.max(chunk + 1, current.length * 2));
+            long size = (long) GameArchive.CHUNK_ROWS * width;
+            next[chunk] = channel.map(FileChannel.MapMode.READ_WRITE, chunk * size, size);
+            chunks = next;
+            return next[chunk];
+        }
+
+        void force() {
+            for (MappedByteBuffer buffer : chunks) {
+                if (buffer != null)
+                    buffer.force();
+            }
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package yunnori.record;
+
+import yunnori.core.GameEvent;
+import yunnori.core.GameEventListener;
+import yunnori.core.GameLogicController;
+import yunnori.core.GameStateCodec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead journal of a game in progress, so a game survives the death of its process.
+ * Every accepted action is appended, in the GameRecord encoding, to a memory-mapped file.
+ *
+ * The listener only copies the action into a single-producer ring and wakes the writer
+ * thread, so the game's thread never waits for the file. The writer drains everything that
+ * has queued up into one frame (group commit): [length][CRC32][action varints], the length
+ * stored last so a frame is either whole or ignored. Each frame is forced to disk when
+ * 'sync' is set; without it a frame is safe once written to the mapping, which outlives a
+ * crash of the process but not of the machine.
+ *
+ * File layout: a header (MAGIC, VERSION, teams, pieces, board code, test mode as ints)
+ * followed by frames up to the first zero length. A restart of the game is journaled as a
+ * RESTART marker; recovery replays only the actions after the last one.
+ */
+public class GameJournal implements GameEventListener, AutoCloseable {
+    public static final Path DEFAULT_PATH = Path.of(System.getProperty("user.home"), ".yunnori", "journal.bin");
+
+    private static final int MAGIC = 0x594E4A31; // "YNJ1"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 6 * Integer.BYTES;
+    private static final int FRAME_HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int INITIAL_SIZE = 1 << 16;
+    private static final int RESTART = 7; // Journal-only action kind, after the GameRecord kinds
+    private static final int RING_SIZE = 1 << 12; // Values the game can queue ahead of the writer
+    private static final int MAX_FRAME = RING_SIZE * 5; // Every queued value as a 5-byte varint
+
+    private final GameLogicController game;
+    private final Path path;
+    private final FileChannel channel;
+    private final boolean sync;
+    private MappedByteBuffer map;
+    private int end; // Offset of the next frame
+
+    // Ring of action values: the game thread publishes 'tail', the writer publishes 'head'
+    private final int[] ring = new int[RING_SIZE];
+    private final int[] scratch = new int[GameRecord.MAX_ACTION_VALUES];
+    private volatile long tail;
+    private volatile long head;
+    private volatile boolean parked; // Writer is (about to be) parked and needs an unpark
+    private volatile boolean closed;
+    private volatile IOException failure;
+    private final Thread writer;
+    private final byte[] frame = new byte[MAX_FRAME];
+    private final CRC32 crc = new CRC32();
+
+    private GameJournal(GameLogicController game, Path path, FileChannel channel, MappedByteBuffer map, int end,
+            boolean sync) {
+        this.game = game;
+        this.path = path;
+        this.channel = channel;
+        this.map = map;
+        this.end = end;
+        this.sync = sync;
+        this.writer = new Thread(this::runWriter, "yunnori-journal");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        game.addListener(this);
+    }
+
+    /*
+     * Starts a new journal for 'game' at 'path', replacing any journal there. Call it after
+     * setupGame and before startGame.
+     */
+    public static GameJournal create(Path path, GameLogicController game, boolean sync) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null)
+            Files.createDirectories(parent);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_WRITE, 0, INITIAL_SIZE);
+            map.putInt(0, MAGIC);
+            map.putInt(4, VERSION);
+            map.putInt(8, game.getNumTeams());
+            map.putInt(12, game.getNumPieces());
+            map.putInt(16, GameRecord.boardCode(game.getBoard().getGraph()));
+            map.putInt(20, game.isTestMode() ? 1 : 0);
+            if (sync)
+                map.force();
+            return new GameJournal(game, path, channel, map, HEADER_SIZE, sync);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /*
+     * Rebuilds the game journaled at 'path' and keeps journaling it there. Returns null if
+     * there is no journal or the journaled game was over; a torn last frame is dropped.
+     * In a game without test mode, throws of a YUT/MO sequence that was cut off are
+     * dropped too and the player rolls again.
+     */
+    public static GameJournal recover(Path path, boolean sync) throws IOException {
+        if (!Files.isRegularFile(path) || Files.size(path) < HEADER_SIZE)
+            return null;
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), INITIAL_SIZE));
+            if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+                channel.close();
+                return null;
+            }
+            int numTeams = map.getInt(8);
+            int numPieces = map.getInt(12);
+            int boardCode = map.getInt(16);
+            boolean isTestMode = map.getInt(20) != 0;
+
+            // Collect the actions after the last restart from the valid frames
+            ByteBuffer actions = ByteBuffer.allocate(map.capacity());
+            int actionCount = 0;
+            int offset = HEADER_SIZE;
+            CRC32 crc = new CRC32();
+            while (offset + FRAME_HEADER_SIZE <= map.capacity()) {
+                int length = map.getInt(offset);
+                if (length <= 0 || length > map.capacity() - offset - FRAME_HEADER_SIZE)
+                    break;
+                ByteBuffer payload = map.slice(offset + FRAME_HEADER_SIZE, length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != map.getInt(offset + Integer.BYTES))
+                    break;
+                while (payload.hasRemaining()) {
+                    int start = payload.position();
+                    int action = Varint.read(payload);
+                    int kind = GameRecord.kindOf(action);
+                    if (kind == RESTART) {
+                        actions.clear();
+                        actionCount = 0;
+                        continue;
+                    }
+                    if (kind == GameRecord.REORDER) {
+                        for (int i = GameRecord.argumentOf(action); i > 0; i--)
+                            Varint.read(payload);
+                    }
+                    actions.put(payload.duplicate().position(start).limit(payload.position()));
+                    actionCount++;
+                }
+                offset += FRAME_HEADER_SIZE + length;
+            }
+            // Clear whatever is left of a torn frame so new frames are not read past
+            for (int i = offset; i < Math.min(offset + FRAME_HEADER_SIZE, map.capacity()); i++)
+                map.put(i, (byte) 0);
+
+            byte[] bytes = new byte[actions.position()];
+            actions.flip().get(bytes);
+            GameRecord record = new GameRecord(numTeams, numPieces, boardCode, actionCount, bytes);
+            GameLogicController game = restore(record, isTestMode);
+            if (game.getCurrentGameState() == GameLogicController.GameState.GAME_OVER) {
+                channel.close();
+                return null;
+            }
+            return new GameJournal(game, path, channel, map, offset, sync);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Replays 'record' in test mode, then moves the position to a controller in the journaled mode
+    private static GameLogicController restore(GameRecord record, boolean isTestMode) {
+        GameLogicController replayed = new GameReplay(record).replayAll();
+        if (isTestMode)
+            return replayed;
+        if (replayed.getCurrentGameState() == GameLogicController.GameState.AWAITING_TEST_ROLL_INPUT)
+            replayed.cancelTestRolling();
+        GameLogicController game = new GameLogicController();
+        game.setupGame(record.getNumTeams(), record.getNumPieces(), record.getBoardGraph(), false);
+        GameStateCodec codec = GameStateCodec.forGame(game);
+        codec.decode(codec.encode(replayed), game);
+        game.restoreCounts(replayed.getTurnCount(), replayed.getCatchCount()); // Not part of the packed state
+        return game;
+    }
+
+    // The journaled game; a recovered game has already been started
+    public GameLogicController getController() {
+        return game;
+    }
+
+    // --- Game thread side ---
+
+    @Override
+    public void onEvent(GameEvent event) {
+        int count;
+        if (event instanceof GameEvent.Restarted) {
+            scratch[0] = GameRecord.action(RESTART, 0);
+            count = 1;
+        } else {
+            count = GameRecord.encode(event, scratch);
+            if (count == 0)
+                return;
+        }
+        long t = tail;
+        while (t + count - head > RING_SIZE) { // Writer behind by a whole ring: wait for it
+            if (closed)
+                return;
+            LockSupport.unpark(writer);
+            Thread.onSpinWait();
+        }
+        for (int i = 0; i < count; i++)
+            ring[(int) (t + i) & (RING_SIZE - 1)] = scratch[i];
+        tail = t + count;
+        if (parked)
+            LockSupport.unpark(writer);
+    }
+
+    // Waits until every action queued so far is in the file
+    public void flush() throws IOException {
+        long target = tail;
+        while (head < target && writer.isAlive()) {
+            LockSupport.unpark(writer);
+            Thread.onSpinWait();
+        }
+        if (failure != null)
+            throw failure;
+    }
+
+    // Stops journaling and closes the file; the journal stays on disk for recover()
+    @Override
+    public void close() throws IOException {
+        game.removeListener(this);
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        if (failure != null)
+            throw failure;
+    }
+
+    // Closes and removes the journal once its game needs no recovery, e.g. when the player quits
+    public void discard() throws IOException {
+        try {
+            close();
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    // --- Writer thread side ---
+
+    private void runWriter() {
+        try {
+            while (true) {
+                long h = head;
+                long t = tail;
+                if (h == t) {
+                    if (closed)
+                        return;
+                    parked = true;
+                    if (tail == t && !closed) // Recheck after announcing, or an append could be missed
+                        LockSupport.park(this);
+                    parked = false;
+                    continue;
+                }
+                writeFrame(h, t);
+                head = t;
+            }
+        } catch (IOException e) {
+            failure = e;
+            System.err.println("Game journal stopped: " + e.getMessage());
+            head = Long.MAX_VALUE; // Never block the game thread on a dead writer
+        }
+    }
+
+    private void writeFrame(long from, long to) throws IOException {
+        int length = 0;
+        for (long i = from; i < to; i++)
+            length = Varint.write(frame, length, ring[(int) i & (RING_SIZE - 1)]);
+        int next = end + FRAME_HEADER_SIZE + length;
+        if (next + Integer.BYTES > map.capacity())
+            map = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max((long) map.capacity() * 2, next + Integer.BYTES));
+        crc.reset();
+        crc.update(frame, 0, length);
+        map.put(end + FRAME_HEADER_SIZE, frame, 0, length);
+        map.putInt(end + Integer.BYTES, (int) crc.getValue());
+        map.putInt(next, 0); // Ends the journal after this frame, whatever a torn write left there
+        map.putInt(end, length); // Commits the frame
+        end = next;
+        if (sync)
+            map.force();
+    }
+}
@@ -0,0 +1,248 @@
+package yunnori.record;
+
+import yunnori.core.BoardGraph;
+import yunnori.core.BoardType;
+import yunnori.core.GameEvent;
+import yunnori.core.GameLogicController;
+import yunnori.core.GameStateCodec;
+import yunnori.core.YunnoriRoll;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A finished or partial game as compact bytes: the setup, then one varint per action.
+ * An action varint is (argument << 3) | kind; a reorder is followed by one varint per roll
+ * of the new order. Rolls are stored as thrown, so a replay needs no random numbers.
+ *
+ * Serialized form: MAGIC, version, teams, pieces, board code, action count, byte length,
+ * action bytes (all varints but the bytes). Board code is the BoardType ordinal, or
+ * GENERATED_BOARD + sides for BoardGraph.polygon boards.
+ */
+public final class GameRecord {
+    public static final int MAGIC = 0x594E; // "YN"
+    public static final int VERSION = 1;
+    public static final int GENERATED_BOARD = 16;
+
+    // Action kinds
+    public static final int ROLL = 0; // Argument: YunnoriRoll ordinal
+    public static final int PIECE = 1; // Argument: piece id within the current team
+    public static final int GROUP = 2; // Argument: 1 to group, 0 to decline
+    public static final int KEEP_ORDER = 3; // Reorder declined
+    public static final int REORDER = 4; // Argument: roll count, followed by the rolls
+    public static final int DISCARD_ORDER = 5; // Rolled again instead of reordering
+    public static final int CANCEL_ROLLS = 6; // Test-mode rolling cancelled, its rolls dropped
+
+    // Varints of the longest action: a reorder of every roll a queue can hold
+    static final int MAX_ACTION_VALUES = 1 + GameStateCodec.MAX_ROLLS;
+
+    private final int numTeams;
+    private final int numPieces;
+    private final int boardCode;
+    private final int actionCount;
+    private final byte[] actions;
+
+    GameRecord(int numTeams, int numPieces, int boardCode, int actionCount, byte[] actions) {
+        this.numTeams = numTeams;
+        this.numPieces = numPieces;
+        this.boardCode = boardCode;
+        this.actionCount = actionCount;
+        this.actions = actions;
+    }
+
+    // Board code of a layout, as stored in records, journals and archives
+    public static int boardCode(BoardGraph graph) {
+        return graph.getBoardType() != null ? graph.getBoardType().ordinal() : GENERATED_BOARD + graph.getSides();
+    }
+
+    // null for generated boards
+    public static BoardType boardType(int boardCode) {
+        return boardCode < GENERATED_BOARD ? BoardType.values()[boardCode] : null;
+    }
+
+    public static BoardGraph boardGraph(int boardCode) {
+        return boardCode < GENERATED_BOARD ? BoardGraph.forType(boardType(boardCode))
+                : BoardGraph.polygon(boardCode - GENERATED_BOARD);
+    }
+
+    public int getNumTeams() {
+        return numTeams;
+    }
+
+    public int getNumPieces() {
+        return numPieces;
+    }
+
+    // null for generated boards
+    public BoardType getBoardType() {
+        return boardType(boardCode);
+    }
+
+    public BoardGraph getBoardGraph() {
+        return boardGraph(boardCode);
+    }
+
+    public int getActionCount() {
+        return actionCount;
+    }
+
+    // Size of the action bytes
+    public int getActionBytes() {
+        return actions.length;
+    }
+
+    ByteBuffer actionBuffer() {
+        return ByteBuffer.wrap(actions).asReadOnlyBuffer();
+    }
+
+    // A controller in test mode set up like the recorded game, ready for GameReplay
+    public GameLogicController newController() {
+        GameLogicController game = new GameLogicController();
+        game.setupGame(numTeams, numPieces, getBoardGraph(), true);
+        return game;
+    }
+
+    public static int action(int kind, int argument) {
+        return (argument << 3) | kind;
+    }
+
+    /*
+     * Writes the varint values of the action behind 'event' into 'dst' (at least
+     * MAX_ACTION_VALUES long) and returns how many there are, 0 if the event is no action.
+     */
+    static int encode(GameEvent event, int[] dst) {
+        if (event instanceof GameEvent.Rolled e) {
+            dst[0] = action(ROLL, e.roll().ordinal());
+        } else if (event instanceof GameEvent.Moved e) {
+            dst[0] = action(PIECE, e.piece().getId());
+        } else if (event instanceof GameEvent.Grouped e) {
+            dst[0] = action(GROUP, e.grouped() ? 1 : 0);
+        } else if (event instanceof GameEvent.Reordered e) {
+            if (e.keptOriginal()) {
+                dst[0] = action(KEEP_ORDER, 0);
+            } else {
+                List<YunnoriRoll> rolls = e.rolls();
+                dst[0] = action(REORDER, rolls.size());
+                for (int i = 0; i < rolls.size(); i++) {
+                    dst[1 + i] = rolls.get(i).ordinal();
+                }
+                return 1 + rolls.size();
+            }
+        } else if (event instanceof GameEvent.ReorderDiscarded) {
+            dst[0] = action(DISCARD_ORDER, 0);
+        } else if (event instanceof GameEvent.TestRollCancelled) {
+            dst[0] = action(CANCEL_ROLLS, 0);
+        } else {
+            return 0;
+        }
+        return 1;
+    }
+
+    public static int kindOf(int action) {
+        return action & 0x7;
+    }
+
+    public static int argumentOf(int action) {
+        return action >>> 3;
+    }
+
+    static YunnoriRoll rollOf(int argument) {
+        return YunnoriRoll.values()[argument];
+    }
+
+    // --- Serialization ---
+
+    public byte[] toBytes() {
+        int[] header = header();
+        int size = actions.length;
+        for (int h : header)
+            size += Varint.size(h);
+        byte[] bytes = new byte[size];
+        int offset = 0;
+        for (int h : header)
+            offset = Varint.write(bytes, offset, h);
+        System.arraycopy(actions, 0, bytes, offset, actions.length);
+        return bytes;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        for (int h : header())
+            Varint.write(out, h);
+        out.write(actions);
+    }
+
+    private int[] header() {
+        return new int[] { MAGIC, VERSION, numTeams, numPieces, boardCode, actionCount, actions.length };
+    }
+
+    public static GameRecord fromBytes(byte[] bytes) {
+        ByteBuffer src = ByteBuffer.wrap(bytes);
+        return read(src);
+    }
+
+    // Reads one record at the buffer's position and advances past it
+    public static GameRecord read(ByteBuffer src) {
+        checkMagic(Varint.read(src));
+        checkVersion(Varint.read(src));
+        int numTeams = Varint.read(src);
+        int numPieces = Varint.read(src);
+        int boardCode = Varint.read(src);
+        int actionCount = Varint.read(src);
+        byte[] actions = new byte[Varint.read(src)];
+        src.get(actions);
+        return new GameRecord(numTeams, numPieces, boardCode, actionCount, actions);
+    }
+
+    // Returns null at end of stream
+    public static GameRecord readFrom(InputStream in) throws IOException {
+        int magic = Varint.read(in);
+        if (magic < 0)
+            return null;
+        checkMagic(magic);
+        checkVersion(Varint.read(in));
+        int numTeams = Varint.read(in);
+        int numPieces = Varint.read(in);
+        int boardCode = Varint.read(in);
+        int actionCount = Varint.read(in);
+        byte[] actions = new byte[Varint.read(in)];
+        if (in.readNBytes(actions, 0, actions.length) != actions.length)
+            throw new EOFException("Truncated game record");
+        return new GameRecord(numTeams, numPieces, boardCode, actionCount, actions);
+    }
+
+    private static void checkMagic(int magic) {
+        if (magic != MAGIC)
+            throw new IllegalArgumentException("Not a game record (magic " + Integer.toHexString(magic) + ")");
+    }
+
+    private static void checkVersion(int version) {
+        if (version != VERSION)
+            throw new IllegalArgumentException("Unsupported game record version " + version);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof GameRecord))
+            return false;
+        GameRecord other = (GameRecord) o;
+        return numTeams == other.numTeams && numPieces == other.numPieces && boardCode == other.boardCode
+                && actionCount == other.actionCount && Arrays.equals(actions, other.actions);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(actions) + actionCount;
+    }
+
+    @Override
+    public String toString() {
+        return "GameRecord[" + numTeams + " teams, " + numPieces + " pieces, "
+                + (getBoardType() != null ? getBoardType() : (boardCode - GENERATED_BOARD) + "-gon") + ", "
+                + actionCount + " actions in " + actions.length + " bytes]";
+    }
+}
@@ -0,0 +1,60 @@
+package yunnori.record;
+
+import yunnori.core.GameEvent;
+import yunnori.core.GameEventListener;
+import yunnori.core.GameLogicController;
+
+import java.util.Arrays;
+
+/**
+ * Builds a GameRecord from the events of a live game. Attach it before the game starts:
+ * new GameRecorder(game) registers itself as a listener. A restart starts a new record.
+ */
+public class GameRecorder implements GameEventListener {
+    private final GameLogicController game;
+    private final int[] scratch = new int[GameRecord.MAX_ACTION_VALUES];
+    private byte[] bytes = new byte[256];
+    private int length;
+    private int actionCount;
+
+    public GameRecorder(GameLogicController game) {
+        this.game = game;
+        game.addListener(this);
+    }
+
+    public void detach() {
+        game.removeListener(this);
+    }
+
+    public int getActionCount() {
+        return actionCount;
+    }
+
+    // The actions so far; the game can still be running
+    public GameRecord toRecord() {
+        return new GameRecord(game.getNumTeams(), game.getNumPieces(),
+                GameRecord.boardCode(game.getBoard().getGraph()), actionCount, Arrays.copyOf(bytes, length));
+    }
+
+    @Override
+    public void onEvent(GameEvent event) {
+        if (event instanceof GameEvent.Restarted) {
+            length = 0;
+            actionCount = 0;
+            return;
+        }
+        int count = GameRecord.encode(event, scratch);
+        if (count == 0)
+            return;
+        actionCount++;
+        for (int i = 0; i < count; i++) {
+            write(scratch[i]);
+        }
+    }
+
+    private void write(int value) {
+        if (bytes.length - length < 5)
+            bytes = Arrays.copyOf(bytes, bytes.length * 2);
+        length = Varint.write(bytes, length, value);
+    }
+}
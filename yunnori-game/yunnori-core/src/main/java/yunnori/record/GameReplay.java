@@ -0,0 +1,159 @@
+package yunnori.record;
+
+import yunnori.core.GameLogicController;
+import yunnori.core.GameLogicController.GameState;
+import yunnori.core.GameStateCodec;
+import yunnori.core.YunnoriRoll;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Re-drives a test-mode GameLogicController through the actions of a GameRecord.
+ * Every 'checkpointInterval' actions the packed game state (GameStateCodec) and the
+ * offset into the action bytes are kept, so seek(n) decodes the nearest checkpoint at
+ * or before n and replays at most checkpointInterval - 1 actions from there.
+ *
+ * turnCount and catchCount of the controller are not part of the packed state and are
+ * only meaningful after a replay from the start without backward seeks.
+ */
+public class GameReplay {
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 32;
+
+    private static final YunnoriRoll[] ROLLS = YunnoriRoll.values();
+
+    private final GameRecord record;
+    private final GameLogicController game;
+    private final GameStateCodec codec;
+    private final int checkpointInterval;
+    private final ByteBuffer actions;
+    private final List<long[]> checkpoints = new ArrayList<>(); // checkpoints.get(i) is the state after i * K actions
+    private int[] checkpointOffsets = new int[8];
+    private int position; // Actions applied
+
+    public GameReplay(GameRecord record) {
+        this(record, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    public GameReplay(GameRecord record, int checkpointInterval) {
+        if (checkpointInterval < 1) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive: " + checkpointInterval);
+        }
+        this.record = record;
+        this.checkpointInterval = checkpointInterval;
+        this.game = record.newController();
+        this.game.startGame();
+        this.codec = GameStateCodec.forGame(game);
+        this.actions = record.actionBuffer();
+        checkpoints.add(codec.encode(game));
+    }
+
+    public GameRecord getRecord() {
+        return record;
+    }
+
+    // The replayed game; listeners added to it see the events of every replayed action
+    public GameLogicController getController() {
+        return game;
+    }
+
+    // Actions applied so far
+    public int getPosition() {
+        return position;
+    }
+
+    public boolean isAtEnd() {
+        return position == record.getActionCount();
+    }
+
+    // Replays every remaining action and returns the controller
+    public GameLogicController replayAll() {
+        while (position < record.getActionCount())
+            step();
+        return game;
+    }
+
+    // Brings the game to the state after the first 'n' actions
+    public void seek(int n) {
+        if (n < 0 || n > record.getActionCount()) {
+            throw new IllegalArgumentException("Action " + n + " out of range 0.." + record.getActionCount());
+        }
+        int checkpoint = Math.min(n / checkpointInterval, checkpoints.size() - 1);
+        if (n < position || checkpoint > position / checkpointInterval) {
+            codec.decode(checkpoints.get(checkpoint), game);
+            actions.position(checkpointOffsets[checkpoint]);
+            position = checkpoint * checkpointInterval;
+        }
+        while (position < n)
+            step();
+    }
+
+    // Applies the next action
+    public void step() {
+        if (position >= record.getActionCount()) {
+            throw new IllegalStateException("Replay is at the end of the record");
+        }
+        int action = Varint.read(actions);
+        int argument = GameRecord.argumentOf(action);
+        GameState state = game.getCurrentGameState();
+        switch (GameRecord.kindOf(action)) {
+            case GameRecord.ROLL:
+                if (state == GameState.WAITING_FOR_ROLL) {
+                    game.handleRollButtonPressed();
+                    state = game.getCurrentGameState();
+                }
+                expect(state, GameState.AWAITING_TEST_ROLL_INPUT, action);
+                game.submitTestRoll(ROLLS[argument]);
+                break;
+            case GameRecord.PIECE:
+                if (state != GameState.WAITING_FOR_PIECE_SELECTION && state != GameState.WAITING_FOR_STACK_SELECTION)
+                    expect(state, GameState.WAITING_FOR_PIECE_SELECTION, action);
+                game.handlePieceClicked(game.getCurrentPlayer().getPieces().get(argument));
+                break;
+            case GameRecord.GROUP:
+                expect(state, GameState.AWAITING_GROUPING_CHOICE, action);
+                game.submitGroupingChoice(argument != 0);
+                break;
+            case GameRecord.KEEP_ORDER:
+                expect(state, GameState.WAITING_FOR_REORDER, action);
+                game.cancelReorder();
+                break;
+            case GameRecord.REORDER:
+                expect(state, GameState.WAITING_FOR_REORDER, action);
+                List<YunnoriRoll> order = new ArrayList<>(argument);
+                for (int i = 0; i < argument; i++)
+                    order.add(ROLLS[Varint.read(actions)]);
+                game.submitReorderedRolls(order);
+                break;
+            case GameRecord.DISCARD_ORDER:
+                expect(state, GameState.WAITING_FOR_REORDER, action);
+                game.handleRollButtonPressed();
+                break;
+            case GameRecord.CANCEL_ROLLS:
+                expect(state, GameState.AWAITING_TEST_ROLL_INPUT, action);
+                game.cancelTestRolling();
+                break;
+            default:
+                throw new IllegalStateException("Unknown action kind " + GameRecord.kindOf(action)
+                        + " at action " + position);
+        }
+        position++;
+
+        if (position % checkpointInterval == 0 && position / checkpointInterval == checkpoints.size()) {
+            int index = checkpoints.size();
+            checkpoints.add(codec.encode(game));
+            if (index == checkpointOffsets.length)
+                checkpointOffsets = Arrays.copyOf(checkpointOffsets, index * 2);
+            checkpointOffsets[index] = actions.position();
+        }
+    }
+
+    private void expect(GameState state, GameState expected, int action) {
+        if (state != expected) {
+            throw new IllegalStateException("Record does not match the game: action " + position + " (kind "
+                    + GameRecord.kindOf(action) + ") needs " + expected + " but the game is " + state);
+        }
+    }
+}
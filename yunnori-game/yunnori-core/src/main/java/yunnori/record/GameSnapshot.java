@@ -0,0 +1,48 @@
+package yunnori.record;
+
+import yunnori.core.GameLogicController;
+import yunnori.core.GameStateCodec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A game in progress in a few dozen bytes, for parking it off the heap: the packed
+ * position of GameStateCodec plus what that leaves out (team and piece counts, board,
+ * turn and catch counters). Unlike a GameRecord it is not replayed, so restoring one costs
+ * the same however long the game has run. Test mode and the roller's seed are not kept.
+ *
+ * Layout, all varints: teams, pieces, board code (see GameRecord.boardCode), turn count,
+ * catch count, then the codec words.
+ */
+public final class GameSnapshot {
+    private GameSnapshot() {
+    }
+
+    public static void write(GameLogicController game, ByteBuffer dst) {
+        GameStateCodec codec = GameStateCodec.forGame(game);
+        long[] state = codec.encode(game);
+        Varint.write(dst, codec.getNumTeams());
+        Varint.write(dst, codec.getNumPieces());
+        Varint.write(dst, GameRecord.boardCode(game.getBoard().getGraph()));
+        Varint.write(dst, game.getTurnCount());
+        Varint.write(dst, game.getCatchCount());
+        for (long word : state)
+            Varint.writeLong(dst, word);
+    }
+
+    // Sets 'game' up as the snapshot at the position of 'src'; any controller will do
+    public static void read(ByteBuffer src, GameLogicController game) {
+        int numTeams = Varint.read(src);
+        int numPieces = Varint.read(src);
+        int boardCode = Varint.read(src);
+        int turnCount = Varint.read(src);
+        int catchCount = Varint.read(src);
+        GameStateCodec codec = new GameStateCodec(numTeams, numPieces);
+        long[] state = codec.newState();
+        for (int w = 0; w < state.length; w++)
+            state[w] = Varint.readLong(src);
+        game.setupGame(numTeams, numPieces, GameRecord.boardGraph(boardCode), false);
+        codec.decode(state, game);
+        game.restoreCounts(turnCount, catchCount);
+    }
+}
@@ -0,0 +1,151 @@
+package yunnori.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * One client of GameServer. Frames are read on the I/O thread; rooms send from their own
+ * executors, writing straight to the socket and keeping what the socket would not take
+ * for the I/O thread to flush. A client that lets WRITE_BUFFER bytes pile up is dropped.
+ *
+ * Spectated rooms are pumped on the I/O thread straight from their FrameRings, as much as
+ * the socket takes in one write. When it takes part of a frame, the rest of that frame
+ * goes out before anything else, so frames never interleave.
+ */
+final class Connection {
+    private static final int READ_BUFFER = 1 << 14;
+    private static final int WRITE_BUFFER = 1 << 16;
+
+    final SocketChannel channel;
+    final SelectionKey key;
+    final ByteBuffer in = ByteBuffer.allocate(READ_BUFFER);
+    final Set<Integer> rooms = new HashSet<>(); // Rooms opened on this connection; I/O thread only
+    final Map<Integer, Spectator> watching = new HashMap<>(); // By room id; I/O thread only
+    final List<Lobby.Ticket<Connection>> tickets = new ArrayList<>(); // Lobby joins; I/O thread only
+    private final GameServer server;
+    private ByteBuffer out; // Unsent bytes, allocated on the first short write; guarded by this
+    private ByteBuffer rest; // Unsent end of a spectated frame, sent before 'out'; guarded by this
+    private boolean closed; // Guarded by this
+
+    Connection(GameServer server, SocketChannel channel, SelectionKey key) {
+        this.server = server;
+        this.channel = channel;
+        this.key = key;
+    }
+
+    // Sends the remaining bytes of 'frame'; from any thread
+    synchronized void send(ByteBuffer frame) {
+        if (closed)
+            return;
+        try {
+            if (rest == null && (out == null || out.position() == 0)) {
+                channel.write(frame);
+                if (!frame.hasRemaining())
+                    return;
+            }
+            if (out == null)
+                out = ByteBuffer.allocate(WRITE_BUFFER);
+            if (frame.remaining() > out.remaining()) {
+                server.requestClose(this);
+                return;
+            }
+            out.put(frame);
+            key.interestOpsOr(SelectionKey.OP_WRITE);
+            key.selector().wakeup();
+        } catch (IOException e) {
+            server.requestClose(this);
+        }
+    }
+
+    // Writes what send() and pump() left behind, then the spectated rooms; I/O thread
+    synchronized void flush(ByteBuffer staging) throws IOException {
+        if (closed || !drain())
+            return;
+        for (Spectator spectator : watching.values()) {
+            if (!write(spectator, staging))
+                return;
+        }
+        key.interestOpsAnd(~SelectionKey.OP_WRITE);
+    }
+
+    // Sends 'spectator' what its room published since the last pump; I/O thread
+    synchronized void pump(Spectator spectator, ByteBuffer staging) throws IOException {
+        if (closed)
+            return;
+        if (!drain() || !write(spectator, staging))
+            key.interestOpsOr(SelectionKey.OP_WRITE);
+    }
+
+    // False if the socket would not take all of 'rest' and 'out'
+    private boolean drain() throws IOException {
+        if (rest != null) {
+            channel.write(rest);
+            if (rest.hasRemaining())
+                return false;
+            rest = null;
+        }
+        if (out == null || out.position() == 0)
+            return true;
+        out.flip();
+        channel.write(out);
+        out.compact();
+        return out.position() == 0;
+    }
+
+    // False if the socket would not take all that is due to 'spectator'
+    private boolean write(Spectator spectator, ByteBuffer staging) throws IOException {
+        if (spectator.resyncing)
+            return true;
+        if (spectator.keyframe != null) {
+            rest = spectator.keyframe;
+            spectator.keyframe = null;
+            if (!drain())
+                return false;
+        }
+        staging.clear();
+        int length = spectator.room.ring.read(spectator.position, staging);
+        if (length < 0) {
+            server.resync(spectator);
+            return true;
+        }
+        staging.flip();
+        int written = channel.write(staging);
+        if (written == length) {
+            spectator.position += length;
+            spectator.resyncs = 0;
+            return true;
+        }
+        // Keep the end of the frame the socket cut, so the position stays on a frame boundary
+        int end = 0;
+        while (end < written)
+            end += Protocol.LENGTH_SIZE + (staging.getShort(end) & 0xFFFF);
+        if (end > written) {
+            staging.limit(end);
+            rest = ByteBuffer.allocate(end - written).put(staging).flip();
+        }
+        spectator.position += end;
+        return false;
+    }
+
+    synchronized boolean isClosed() {
+        return closed;
+    }
+
+    synchronized void close() {
+        closed = true;
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Already gone
+        }
+    }
+}
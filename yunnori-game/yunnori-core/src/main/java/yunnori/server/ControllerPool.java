@@ -0,0 +1,43 @@
+package yunnori.server;
+
+import yunnori.core.GameLogicController;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Idle GameLogicControllers, so rooms opening and closing set up their games on the same
+ * few controllers instead of building new ones. Lock-free, and keeps at most 'capacity'.
+ * A controller comes back with the position of its last game, which the next setupGame
+ * replaces; whoever added listeners to it removes them before releasing it.
+ */
+public final class ControllerPool {
+    private final Queue<GameLogicController> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+
+    public ControllerPool(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public GameLogicController acquire() {
+        GameLogicController game = idle.poll();
+        if (game == null)
+            return new GameLogicController();
+        size.decrementAndGet();
+        return game;
+    }
+
+    public void release(GameLogicController game) {
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            return;
+        }
+        idle.add(game);
+    }
+
+    public int getIdleCount() {
+        return size.get();
+    }
+}
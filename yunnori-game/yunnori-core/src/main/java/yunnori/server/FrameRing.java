@@ -0,0 +1,92 @@
+package yunnori.server;
+
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * The SYNC frames of one room, for its spectators. The room's executor is the only
+ * writer: it appends whole frames and publishes them, which costs the same however many
+ * spectators there are. Spectators read on the I/O thread, each from its own position in
+ * the stream of bytes ever published; the ring keeps the last CAPACITY of them, and a
+ * reader the writer has lapped must resync from a keyframe.
+ *
+ * Readers copy without a lock and check afterwards that the writer did not reach what
+ * they copied, like StampedLock's optimistic reads.
+ */
+final class FrameRing {
+    static final int CAPACITY = 1 << 14; // About 2000 deltas
+    private static final int MASK = CAPACITY - 1;
+    private static final int MAX_FRAME = Protocol.LENGTH_SIZE + Protocol.MAX_FRAME;
+
+    final Room room;
+    final List<Spectator> spectators = new ArrayList<>(); // I/O thread only
+    final AtomicBoolean pending = new AtomicBoolean(); // Published to since the I/O thread last looked
+    private byte[] buffer; // Allocated by the first append, freed while unwatched
+    private volatile long published; // Bytes ever published
+    private volatile boolean closed;
+
+    FrameRing(Room room) {
+        this.room = room;
+    }
+
+    // --- Room executor ---
+
+    // Appends and publishes the frame between the position and limit of 'frame'
+    void append(ByteBuffer frame) {
+        if (buffer == null)
+            buffer = new byte[CAPACITY];
+        long end = published;
+        int length = frame.remaining();
+        int at = (int) end & MASK;
+        int first = Math.min(length, CAPACITY - at);
+        frame.get(buffer, at, first);
+        frame.get(buffer, 0, length - first);
+        published = end + length;
+    }
+
+    void close() {
+        closed = true;
+    }
+
+    // Frees the buffer while nobody reads it; the next append allocates it again
+    void release() {
+        buffer = null;
+    }
+
+    // --- Any thread ---
+
+    long getPublished() {
+        return published;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /*
+     * Copies the bytes from 'from' on into 'dst', as many as fit, and returns how many;
+     * -1 if the writer has lapped 'from', so some of them are gone.
+     */
+    int read(long from, ByteBuffer dst) {
+        long end = published;
+        if (end - from > CAPACITY - MAX_FRAME)
+            return -1;
+        int length = (int) Math.min(end - from, dst.remaining());
+        if (length == 0)
+            return 0;
+        int at = (int) from & MASK;
+        int first = Math.min(length, CAPACITY - at);
+        dst.put(buffer, at, first);
+        dst.put(buffer, 0, length - first);
+        VarHandle.acquireFence();
+        // A frame being appended now overwrites at most MAX_FRAME bytes past 'published'
+        if (published + MAX_FRAME - from > CAPACITY) {
+            dst.position(dst.position() - length);
+            return -1;
+        }
+        return length;
+    }
+}
@@ -0,0 +1,543 @@
+package yunnori.server;
+
+import yunnori.core.BoardType;
+import yunnori.core.GameLogicController;
+import yunnori.core.SerialExecutor;
+import yunnori.core.TimingWheel;
+import yunnori.record.Varint;
+import yunnori.sim.DecisionPolicy;
+import yunnori.sim.FirstPlayablePolicy;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Hosts many independent games ("rooms") over TCP; see Protocol for the wire format.
+ *
+ * One I/O thread multiplexes every connection with a Selector: it reads frames and hands
+ * each one to its room. Rooms run on SerialExecutors over one shared pool with a thread
+ * per core, so a room's GameLogicController is only touched by one thread at a time while
+ * thousands of rooms share a few threads. A connection may open any number of rooms, and
+ * a room may have several connections (players on different machines); a room closes when
+ * its last connection leaves.
+ *
+ * Any connection may also watch rooms. A room appends each change once to its FrameRing
+ * and flags it for the I/O thread, which on its next pass sends every spectator all the
+ * frames published since, in one write, and resyncs those the ring has lapped from a fresh
+ * keyframe. A spectator lapped MAX_RESYNCS times in a row without catching up is dropped.
+ *
+ * Players who do not care which room they play in JOIN the Lobby instead; each match gets
+ * a room of its own, numbered from FIRST_MATCH_ROOM. Rooms set up their games on pooled
+ * controllers.
+ *
+ * With hibernateIdleRooms, the I/O thread looks for idle rooms every SWEEP_MILLIS and has
+ * them park their games on disk (see Room), so the heap holds the games being played, not
+ * every room ever opened.
+ *
+ * With setTurnTimeout, a player who does not make the move their game waits for within the
+ * timeout has it made by a DecisionPolicy (by default FirstPlayablePolicy: first playable
+ * piece, rolls in their order, no grouping). Every room's clock is a timeout on one
+ * TimingWheel, so restarting it on each move costs the same for ten rooms or ten thousand.
+ */
+public class GameServer implements AutoCloseable {
+    static final int MAX_RESYNCS = 3;
+    static final int FIRST_MATCH_ROOM = 1 << 28; // Ids of the rooms opened for lobby matches
+    private static final int POOLED_CONTROLLERS = 1 << 10;
+    static final long SWEEP_MILLIS = 1000;
+    static final long TURN_TICK_MILLIS = 50;
+    private static final int TURN_WHEEL_SLOTS = 512;
+
+    private final ServerSocketChannel acceptor;
+    private final Selector selector;
+    private final ForkJoinPool pool; // null: rooms run on the I/O thread
+    private final Executor roomThreads;
+    private final ConcurrentHashMap<Integer, Room> rooms = new ConcurrentHashMap<>();
+    private final ControllerPool controllers = new ControllerPool(POOLED_CONTROLLERS);
+    private final Lobby<Connection> lobby = new Lobby<>(this::openMatch); // I/O thread
+    private int nextMatchRoom = FIRST_MATCH_ROOM; // I/O thread
+    private volatile SnapshotStore snapshots; // null: rooms never hibernate
+    private volatile long idleNanos;
+    private long nextSweep; // I/O thread
+    private volatile TimingWheel turnWheel; // null: no turn clocks
+    private volatile long turnMillis;
+    private volatile DecisionPolicy turnPolicy = new FirstPlayablePolicy();
+    private final Queue<Connection> closing = new ConcurrentLinkedQueue<>();
+    private final Queue<FrameRing> published = new ConcurrentLinkedQueue<>();
+    private final Queue<Spectator> resynced = new ConcurrentLinkedQueue<>();
+    private final ByteBuffer reply = ByteBuffer.allocate(Protocol.MAX_STATE_FRAME); // I/O thread
+    private final ByteBuffer staging = ByteBuffer.allocate(FrameRing.CAPACITY); // I/O thread
+    private final Thread io;
+    private volatile boolean running = true;
+
+    private GameServer(ServerSocketChannel acceptor, Selector selector, int threads) {
+        this.acceptor = acceptor;
+        this.selector = selector;
+        this.pool = threads > 0 ? new ForkJoinPool(threads, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true)
+                : null;
+        this.roomThreads = pool != null ? pool : Runnable::run;
+        this.io = new Thread(this::runSelector, "yunnori-server-io");
+    }
+
+    public static GameServer start(int port) throws IOException {
+        return start(port, Runtime.getRuntime().availableProcessors());
+    }
+
+    // Port 0 picks a free port, see getPort()
+    public static GameServer start(int port, int threads) throws IOException {
+        Selector selector = Selector.open();
+        ServerSocketChannel acceptor = ServerSocketChannel.open();
+        try {
+            acceptor.bind(new InetSocketAddress(port), 1024);
+            acceptor.configureBlocking(false);
+            acceptor.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            acceptor.close();
+            selector.close();
+            throw e;
+        }
+        GameServer server = new GameServer(acceptor, selector, threads);
+        server.io.start();
+        return server;
+    }
+
+    public int getPort() {
+        return acceptor.socket().getLocalPort();
+    }
+
+    public int getRoomCount() {
+        return rooms.size();
+    }
+
+    public int getHibernatingRoomCount() {
+        int count = 0;
+        for (Room room : rooms.values()) {
+            if (room.hibernating)
+                count++;
+        }
+        return count;
+    }
+
+    // Makes moves that players leave waiting for 'millis' with FirstPlayablePolicy
+    public void setTurnTimeout(long millis) {
+        setTurnTimeout(millis, new FirstPlayablePolicy());
+    }
+
+    // Takes effect on each room's next move; turn clocks cannot be turned off again
+    public synchronized void setTurnTimeout(long millis, DecisionPolicy policy) {
+        if (millis < 1) {
+            throw new IllegalArgumentException("Turn timeout must be positive, got " + millis);
+        }
+        turnMillis = millis;
+        turnPolicy = policy;
+        if (turnWheel == null)
+            turnWheel = new TimingWheel(TURN_TICK_MILLIS, TURN_WHEEL_SLOTS);
+    }
+
+    /*
+     * Has rooms nobody acted in for 'idleMillis' hibernate to 'file', a scratch file
+     * deleted when the server closes. Call once, before rooms are idle.
+     */
+    public void hibernateIdleRooms(Path file, long idleMillis) throws IOException {
+        if (snapshots != null) {
+            throw new IllegalStateException("Rooms already hibernate to a file");
+        }
+        idleNanos = idleMillis * 1_000_000;
+        snapshots = new SnapshotStore(file);
+        selector.wakeup();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        try {
+            io.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (pool != null)
+            pool.shutdown();
+        if (snapshots != null)
+            snapshots.close();
+        if (turnWheel != null)
+            turnWheel.close();
+    }
+
+    // --- I/O thread ---
+
+    private void runSelector() {
+        try {
+            while (running) {
+                SnapshotStore store = snapshots;
+                selector.select(store == null ? 0 : SWEEP_MILLIS);
+                if (store != null)
+                    sweep(store);
+                Connection gone;
+                while ((gone = closing.poll()) != null)
+                    disconnect(gone);
+                pumpSpectators();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid())
+                        continue;
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isReadable())
+                            read(connection);
+                        if (key.isValid() && key.isWritable())
+                            connection.flush(staging);
+                    } catch (IOException | RuntimeException e) {
+                        disconnect(connection);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Game server stopped: " + e.getMessage());
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection connection)
+                    disconnect(connection);
+            }
+            try {
+                acceptor.close();
+                selector.close();
+            } catch (IOException e) {
+                System.err.println("Could not close the game server: " + e.getMessage());
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = acceptor.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new Connection(this, channel, key));
+        }
+    }
+
+    private void read(Connection connection) throws IOException {
+        ByteBuffer in = connection.in;
+        if (connection.channel.read(in) < 0) {
+            disconnect(connection);
+            return;
+        }
+        in.flip();
+        int length;
+        while ((length = Protocol.frameLength(in)) > 0) {
+            int start = in.position();
+            handle(connection, in.slice(start + Protocol.LENGTH_SIZE, length - Protocol.LENGTH_SIZE));
+            in.position(start + length);
+        }
+        in.compact();
+    }
+
+    private void handle(Connection connection, ByteBuffer payload) {
+        int type = payload.get();
+        int roomId = Varint.read(payload);
+        switch (type) {
+            case Protocol.OPEN: {
+                int numTeams = Varint.read(payload);
+                int numPieces = Varint.read(payload);
+                int boardCode = Varint.read(payload);
+                if (numTeams < 2 || numTeams > 15 || numPieces < 1 || numPieces > 15
+                        || boardCode < 0 || boardCode >= BoardType.values().length) {
+                    sendStatus(connection, roomId, Protocol.BAD_REQUEST);
+                    return;
+                }
+                connection.rooms.add(roomId);
+                dispatchOpen(connection, roomId, numTeams, numPieces, boardCode);
+                break;
+            }
+            case Protocol.ACTION: {
+                Room room = connection.rooms.contains(roomId) ? rooms.get(roomId) : null;
+                if (room == null) {
+                    sendStatus(connection, roomId, Protocol.NO_ROOM);
+                    return;
+                }
+                int count = 0;
+                int[] values = new int[payload.remaining()];
+                while (payload.hasRemaining())
+                    values[count++] = Varint.read(payload);
+                if (count == 0) {
+                    sendStatus(connection, roomId, Protocol.BAD_REQUEST);
+                    return;
+                }
+                int[] action = count == values.length ? values : Arrays.copyOf(values, count);
+                room.executor.execute(() -> room.act(connection, action));
+                break;
+            }
+            case Protocol.LEAVE: {
+                Room room = rooms.get(roomId);
+                if (connection.rooms.remove(roomId) && room != null)
+                    room.executor.execute(() -> room.leave(connection));
+                break;
+            }
+            case Protocol.WATCH: {
+                Room room = rooms.get(roomId);
+                if (room == null) {
+                    sendStatus(connection, roomId, Protocol.NO_ROOM);
+                    return;
+                }
+                if (connection.watching.containsKey(roomId))
+                    return;
+                Spectator spectator = new Spectator(connection, room);
+                connection.watching.put(roomId, spectator);
+                room.ring.spectators.add(spectator);
+                room.executor.execute(room::watched);
+                startResync(spectator);
+                break;
+            }
+            case Protocol.JOIN: {
+                int numTeams = Varint.read(payload);
+                int numPieces = Varint.read(payload);
+                int boardType = Varint.read(payload);
+                if (numTeams < 2 || numTeams > Lobby.MAX_TEAMS || numPieces < 1 || numPieces > Lobby.MAX_PIECES
+                        || boardType < 0 || boardType >= BoardType.values().length) {
+                    sendStatus(connection, roomId, Protocol.BAD_REQUEST);
+                    return;
+                }
+                connection.tickets.removeIf(Lobby.Ticket::isMatched);
+                connection.tickets.add(lobby.join(connection, BoardType.values()[boardType], numTeams, numPieces));
+                break;
+            }
+            case Protocol.QUIT:
+                quitLobby(connection);
+                break;
+            case Protocol.UNWATCH: {
+                Spectator spectator = connection.watching.remove(roomId);
+                if (spectator != null)
+                    stopWatching(spectator);
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown message type " + type);
+        }
+    }
+
+    // Replies without a room, for requests that never reach one
+    private void sendStatus(Connection connection, int roomId, int status) {
+        reply.clear();
+        int start = Protocol.beginFrame(reply, Protocol.STATE, roomId);
+        Varint.write(reply, status);
+        for (int i = 0; i < 5; i++)
+            Varint.write(reply, 0);
+        Protocol.endFrame(reply, start);
+        reply.flip();
+        connection.send(reply);
+    }
+
+    private void disconnect(Connection connection) {
+        if (connection.isClosed())
+            return;
+        connection.close();
+        for (Integer roomId : connection.rooms) {
+            Room room = rooms.get(roomId);
+            if (room != null)
+                room.executor.execute(() -> room.leave(connection));
+        }
+        connection.rooms.clear();
+        for (Spectator spectator : connection.watching.values())
+            stopWatching(spectator);
+        connection.watching.clear();
+        quitLobby(connection);
+    }
+
+    private void quitLobby(Connection connection) {
+        for (Lobby.Ticket<Connection> ticket : connection.tickets)
+            ticket.cancel();
+        connection.tickets.clear();
+    }
+
+    // Opens a room for a lobby match and seats its players
+    private void openMatch(Lobby.Match<Connection> match) {
+        GameLogicController game = controllers.acquire();
+        SerialExecutor executor = new SerialExecutor(roomThreads);
+        Room room;
+        do {
+            room = new Room(nextMatchRoom, this, executor, game);
+            nextMatchRoom = nextMatchRoom == Integer.MAX_VALUE ? FIRST_MATCH_ROOM : nextMatchRoom + 1;
+        } while (rooms.putIfAbsent(room.id, room) != null);
+        List<Connection> players = match.players();
+        for (int seat = 0; seat < players.size(); seat++) {
+            Connection player = players.get(seat);
+            player.rooms.add(room.id);
+            reply.clear();
+            int start = Protocol.beginFrame(reply, Protocol.MATCHED, room.id);
+            Varint.write(reply, seat);
+            Protocol.endFrame(reply, start);
+            reply.flip();
+            player.send(reply);
+        }
+        Room matched = room;
+        int boardCode = match.boardType().ordinal();
+        room.executor.execute(() -> matched.start(players, match.numTeams(), match.numPieces(), boardCode));
+    }
+
+
+    // Asks every room that looks idle to hibernate, at most once per SWEEP_MILLIS
+    private void sweep(SnapshotStore store) {
+        long now = System.nanoTime();
+        if (now - nextSweep < 0)
+            return;
+        nextSweep = now + SWEEP_MILLIS * 1_000_000;
+        long idle = idleNanos;
+        for (Room room : rooms.values()) {
+            if (!room.hibernating && now - room.lastActive >= idle)
+                room.executor.execute(() -> room.hibernate(store, idle));
+        }
+    }
+
+    // Sends spectators what their rooms published since the last pass
+    private void pumpSpectators() {
+        Spectator spectator;
+        while ((spectator = resynced.poll()) != null) {
+            spectator.resyncing = false;
+            if (spectator.connection.watching.get(spectator.room.id) != spectator) {
+                continue; // Unwatched meanwhile
+            } else if (spectator.room.ring.isClosed()) {
+                unwatch(spectator);
+            } else {
+                pump(spectator);
+            }
+        }
+        FrameRing ring;
+        while ((ring = published.poll()) != null) {
+            ring.pending.set(false);
+            if (ring.isClosed()) {
+                for (Spectator watcher : ring.spectators.toArray(new Spectator[0]))
+                    unwatch(watcher);
+                continue;
+            }
+            for (int i = 0; i < ring.spectators.size(); i++)
+                pump(ring.spectators.get(i));
+        }
+    }
+
+    private void pump(Spectator spectator) {
+        try {
+            spectator.connection.pump(spectator, staging);
+        } catch (IOException e) {
+            requestClose(spectator.connection);
+        }
+    }
+
+    private void stopWatching(Spectator spectator) {
+        Room room = spectator.room;
+        room.ring.spectators.remove(spectator);
+        room.executor.execute(room::unwatched);
+    }
+
+    // Tells a spectator that its room closed
+    private void unwatch(Spectator spectator) {
+        Connection connection = spectator.connection;
+        spectator.room.ring.spectators.remove(spectator);
+        if (connection.watching.remove(spectator.room.id, spectator))
+            sendStatus(connection, spectator.room.id, Protocol.NO_ROOM);
+    }
+
+    // Asks the room for a keyframe, unless the spectator never keeps up anyway
+    void resync(Spectator spectator) {
+        if (++spectator.resyncs > MAX_RESYNCS) {
+            requestClose(spectator.connection);
+            return;
+        }
+        startResync(spectator);
+    }
+
+    private void startResync(Spectator spectator) {
+        spectator.resyncing = true;
+        spectator.room.executor.execute(() -> spectator.room.resync(spectator));
+    }
+
+    // --- Any thread ---
+
+    void dispatchOpen(Connection connection, int roomId, int numTeams, int numPieces, int boardCode) {
+        Room room = rooms.computeIfAbsent(roomId,
+                id -> new Room(id, this, new SerialExecutor(roomThreads), controllers.acquire()));
+        room.executor.execute(() -> room.open(connection, numTeams, numPieces, boardCode));
+    }
+
+    void removeRoom(Room room) {
+        rooms.remove(room.id, room);
+    }
+
+    GameLogicController acquireController() {
+        return controllers.acquire();
+    }
+
+    void releaseController(GameLogicController game) {
+        controllers.release(game);
+    }
+
+    SnapshotStore getSnapshots() {
+        return snapshots;
+    }
+
+    TimingWheel getTurnWheel() {
+        return turnWheel;
+    }
+
+    long getTurnMillis() {
+        return turnMillis;
+    }
+
+    DecisionPolicy getTurnPolicy() {
+        return turnPolicy;
+    }
+
+    // Has the I/O thread send the ring's new frames, once however often it is asked before
+    void requestPump(FrameRing ring) {
+        if (ring.pending.compareAndSet(false, true)) {
+            published.add(ring);
+            selector.wakeup();
+        }
+    }
+
+    // Hands a spectator back to the I/O thread after Room.resync
+    void resynced(Spectator spectator) {
+        resynced.add(spectator);
+        selector.wakeup();
+    }
+
+    // Drops 'connection' on the I/O thread
+    void requestClose(Connection connection) {
+        closing.add(connection);
+        selector.wakeup();
+    }
+
+    // Usage: GameServer [port [threads [snapshotFile idleSeconds]]]
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : Protocol.DEFAULT_PORT;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        GameServer server = start(port, threads);
+        if (args.length > 3)
+            server.hibernateIdleRooms(Path.of(args[2]), Long.parseLong(args[3]) * 1000);
+        long turnMillis = Long.getLong("turnMillis", 0);
+        if (turnMillis > 0)
+            server.setTurnTimeout(turnMillis);
+        System.out.println("Yut server listening on port " + server.getPort() + " with " + threads + " game threads");
+    }
+}
@@ -0,0 +1,209 @@
+package yunnori.server;
+
+import yunnori.core.BoardType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Matchmaking: players wait for a kind of game (board, team count and piece count), and
+ * every numTeams of them waiting for the same kind become a Match, handed to the match
+ * listener on the thread of the join that completed it.
+ *
+ * Each kind has its own lock-free queues, one per shard, and a player joins the shard of
+ * its thread, so producers on different threads rarely meet on one queue. A shard counts
+ * its waiting players in an atomic that joiners reserve from: a joiner that can reserve a
+ * whole match, from its own shard first and then the others, polls exactly that many
+ * players. Nothing locks, and players of other kinds never contend at all.
+ */
+public class Lobby<P> {
+    public static final int MAX_TEAMS = 15;
+    public static final int MAX_PIECES = 15;
+
+    public record Match<P>(BoardType boardType, int numTeams, int numPieces, List<P> players) {
+    }
+
+    // A waiting player
+    public static final class Ticket<P> {
+        private static final int WAITING = 0;
+        private static final int CLAIMED = 1; // Picked by a joiner still completing its match
+        private static final int MATCHED = 2;
+        private static final int CANCELLED = 3;
+
+        private final P player;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        Ticket(P player) {
+            this.player = player;
+        }
+
+        public P getPlayer() {
+            return player;
+        }
+
+        public boolean isMatched() {
+            return state.get() == MATCHED;
+        }
+
+        // Leaves the lobby; false if the player was matched already
+        public boolean cancel() {
+            while (true) {
+                int current = state.get();
+                if (current == CLAIMED) {
+                    Thread.onSpinWait();
+                } else if (current != WAITING) {
+                    return current == CANCELLED;
+                } else if (state.compareAndSet(WAITING, CANCELLED)) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    private static final class Shard<P> {
+        final Queue<Ticket<P>> tickets = new ConcurrentLinkedQueue<>();
+        final AtomicInteger count = new AtomicInteger(); // Queued tickets no joiner has reserved
+    }
+
+    private final int shardMask;
+    private final Consumer<Match<P>> listener;
+    private final AtomicReferenceArray<Shard<P>[]> kinds = new AtomicReferenceArray<>(
+            BoardType.values().length * (MAX_TEAMS + 1) * (MAX_PIECES + 1));
+
+    public Lobby(Consumer<Match<P>> listener) {
+        this(2 * Runtime.getRuntime().availableProcessors(), listener);
+    }
+
+    // 'shards' is rounded up to a power of two
+    public Lobby(int shards, Consumer<Match<P>> listener) {
+        this.shardMask = Integer.highestOneBit(Math.max(1, 2 * shards - 1)) - 1;
+        this.listener = listener;
+    }
+
+    public int getShardCount() {
+        return shardMask + 1;
+    }
+
+    public Ticket<P> join(P player, BoardType boardType, int numTeams, int numPieces) {
+        if (numTeams < 2 || numTeams > MAX_TEAMS || numPieces < 1 || numPieces > MAX_PIECES) {
+            throw new IllegalArgumentException("No such game: " + numTeams + " teams of " + numPieces + " pieces");
+        }
+        Shard<P>[] shards = shardsOf(boardType, numTeams, numPieces);
+        int home = (int) Thread.currentThread().getId() & shardMask;
+        Ticket<P> ticket = new Ticket<>(player);
+        shards[home].tickets.add(ticket);
+        shards[home].count.incrementAndGet();
+        while (tryMatch(shards, home, boardType, numTeams, numPieces)) {
+            // Form every match the waiting players allow
+        }
+        return ticket;
+    }
+
+    // Waiting players, including cancelled ones no match has skipped yet
+    public int getWaitingCount() {
+        int count = 0;
+        for (int k = 0; k < kinds.length(); k++) {
+            Shard<P>[] shards = kinds.get(k);
+            if (shards != null) {
+                for (Shard<P> shard : shards)
+                    count += shard.count.get();
+            }
+        }
+        return count;
+    }
+
+    private Shard<P>[] shardsOf(BoardType boardType, int numTeams, int numPieces) {
+        int kind = (boardType.ordinal() * (MAX_TEAMS + 1) + numTeams) * (MAX_PIECES + 1) + numPieces;
+        Shard<P>[] shards = kinds.get(kind);
+        if (shards == null) {
+            @SuppressWarnings({ "unchecked", "rawtypes" }) // No generic array creation
+            Shard<P>[] created = new Shard[shardMask + 1];
+            for (int s = 0; s < created.length; s++)
+                created[s] = new Shard<>();
+            shards = kinds.compareAndExchange(kind, null, created);
+            if (shards == null)
+                shards = created;
+        }
+        return shards;
+    }
+
+    /*
+     * Reserves numTeams players across the shards and claims them. False when there are not
+     * enough, after giving back what was reserved; true if a match was formed, or if another
+     * joiner held some of the players meanwhile and there may be enough now.
+     */
+    private boolean tryMatch(Shard<P>[] shards, int home, BoardType boardType, int numTeams, int numPieces) {
+        int[] reserved = new int[shards.length];
+        if (!reserve(shards, home, reserved, numTeams)) {
+            giveBack(shards, reserved);
+            return available(shards) >= numTeams;
+        }
+        List<Ticket<P>> claimed = new ArrayList<>(numTeams);
+        while (true) {
+            for (int s = 0; s < shards.length; s++) {
+                for (; reserved[s] > 0; reserved[s]--) {
+                    Ticket<P> ticket = shards[s].tickets.poll();
+                    if (ticket != null && ticket.state.compareAndSet(Ticket.WAITING, Ticket.CLAIMED))
+                        claimed.add(ticket);
+                }
+            }
+            if (claimed.size() == numTeams)
+                break;
+            // Cancelled players took some of the reservation; find others or put these back
+            Arrays.fill(reserved, 0);
+            if (!reserve(shards, home, reserved, numTeams - claimed.size())) {
+                giveBack(shards, reserved);
+                for (Ticket<P> ticket : claimed) {
+                    ticket.state.set(Ticket.WAITING);
+                    shards[home].tickets.add(ticket);
+                    shards[home].count.incrementAndGet();
+                }
+                return false;
+            }
+        }
+        List<P> players = new ArrayList<>(numTeams);
+        for (Ticket<P> ticket : claimed) {
+            ticket.state.set(Ticket.MATCHED);
+            players.add(ticket.player);
+        }
+        listener.accept(new Match<>(boardType, numTeams, numPieces, players));
+        return true;
+    }
+
+    // Reserves 'needed' players into 'reserved', home shard first; false if short
+    private static <P> boolean reserve(Shard<P>[] shards, int home, int[] reserved, int needed) {
+        for (int i = 0; i < shards.length && needed > 0; i++) {
+            int s = (home + i) & (shards.length - 1);
+            AtomicInteger count = shards[s].count;
+            int current;
+            int taken;
+            do {
+                current = count.get();
+                taken = Math.min(current, needed);
+            } while (taken > 0 && !count.compareAndSet(current, current - taken));
+            reserved[s] += taken;
+            needed -= taken;
+        }
+        return needed == 0;
+    }
+
+    private static <P> void giveBack(Shard<P>[] shards, int[] reserved) {
+        for (int s = 0; s < shards.length; s++) {
+            if (reserved[s] > 0)
+                shards[s].count.addAndGet(reserved[s]);
+        }
+    }
+
+    private static <P> int available(Shard<P>[] shards) {
+        int count = 0;
+        for (Shard<P> shard : shards)
+            count += shard.count.get();
+        return count;
+    }
+}
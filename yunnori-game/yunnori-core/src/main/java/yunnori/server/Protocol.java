@@ -0,0 +1,87 @@
+package yunnori.server;
+
+import yunnori.record.Varint;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Wire format of GameServer. Every message is a frame: a 2-byte big-endian payload
+ * length, then the payload, which starts with the message type and the room id (varint).
+ * The other fields are varints.
+ *
+ * Client to server:
+ *   OPEN   room, teams, pieces, board code (see GameRecord.boardCode); only the codes of
+ *          the BoardTypes, generated boards are not served
+ *   ACTION room, one action in the GameRecord encoding; ROLL ignores its argument, the
+ *          server throws
+ *   LEAVE  room
+ *   WATCH  room, to spectate a room opened by others
+ *   UNWATCH room
+ *   JOIN   0, teams, pieces, BoardType ordinal: wait in the Lobby for a game of that kind
+ *   QUIT   0, to stop waiting
+ * Server to client:
+ *   STATE  room, status, GameState ordinal, current player, mask of the current player's
+ *          playable pieces, turn count, winner + 1 (0 while no one has won)
+ *   SYNC   room, then a DeltaEncoder frame of the room's game
+ *   MATCHED room, seat: a JOIN found its players, in a room the server opened for them
+ *
+ * A STATE answers every OPEN and ACTION, and goes to every connection in the room when
+ * the game changes. Spectators get a SYNC keyframe on WATCH, then a SYNC frame for every
+ * change, and another keyframe whenever they fell too far behind (see FrameRing); when the
+ * room closes, or if it does not exist, a STATE NO_ROOM. Matched players get MATCHED, then
+ * play the room as if they had opened it; seat is the index of their team.
+ */
+public final class Protocol {
+    public static final int DEFAULT_PORT = 7531;
+    public static final int MAX_FRAME = 1 << 10; // Largest payload
+    public static final int LENGTH_SIZE = 2;
+    static final int MAX_STATE_FRAME = LENGTH_SIZE + 1 + 7 * 5; // Type, then varints at their longest
+
+    // Message types
+    public static final int OPEN = 1;
+    public static final int ACTION = 2;
+    public static final int LEAVE = 3;
+    public static final int WATCH = 4;
+    public static final int UNWATCH = 5;
+    public static final int JOIN = 6;
+    public static final int QUIT = 7;
+    public static final int STATE = 16;
+    public static final int SYNC = 17;
+    public static final int MATCHED = 18;
+
+    // STATE status
+    public static final int OK = 0;
+    public static final int REJECTED = 1; // Not allowed in the game's current state
+    public static final int NO_ROOM = 2; // Room not open on this connection
+    public static final int BAD_REQUEST = 3;
+
+    private Protocol() {
+    }
+
+    // Starts a frame of 'type' for 'room' in 'dst' and returns its offset for endFrame
+    public static int beginFrame(ByteBuffer dst, int type, int room) {
+        int start = dst.position();
+        dst.position(start + LENGTH_SIZE);
+        dst.put((byte) type);
+        Varint.write(dst, room);
+        return start;
+    }
+
+    public static void endFrame(ByteBuffer dst, int start) {
+        dst.putShort(start, (short) (dst.position() - start - LENGTH_SIZE));
+    }
+
+    /*
+     * Length of the frame at the position of 'src' if all of it is there, else 0; throws
+     * IllegalArgumentException for an oversized frame.
+     */
+    public static int frameLength(ByteBuffer src) {
+        if (src.remaining() < LENGTH_SIZE)
+            return 0;
+        int length = src.getShort(src.position()) & 0xFFFF;
+        if (length > MAX_FRAME || length == 0) {
+            throw new IllegalArgumentException("Bad frame length " + length);
+        }
+        return src.remaining() >= LENGTH_SIZE + length ? LENGTH_SIZE + length : 0;
+    }
+}
@@ -0,0 +1,382 @@
+package yunnori.server;
+
+import yunnori.core.GameLogicController;
+import yunnori.core.GameLogicController.GameState;
+import yunnori.core.Piece;
+import yunnori.core.SerialExecutor;
+import yunnori.core.TimingWheel;
+import yunnori.core.Team;
+import yunnori.core.YunnoriRoll;
+import yunnori.record.DeltaEncoder;
+import yunnori.record.GameRecord;
+import yunnori.record.GameSnapshot;
+import yunnori.record.Varint;
+import yunnori.sim.Simulator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * One game of GameServer. Everything but the id, executor and ring is confined to the
+ * room's SerialExecutor, so the controller is only ever driven by one thread at a time.
+ *
+ * While watched, the room also encodes every change as a SYNC frame into its FrameRing,
+ * one append however many spectators there are; the I/O thread fans it out. When the last
+ * spectator leaves, the encoder and the ring's buffer go.
+ *
+ * A room nobody has acted in for a while can hibernate: its game goes to the server's
+ * SnapshotStore as a GameSnapshot and its controller back to the pool, and the next task
+ * that needs the game wakes it on a pooled controller again. Watched rooms, and rooms
+ * whose turn clock is running, stay awake.
+ *
+ * With turn clocks on, every wait for a player's move is timed on the server's
+ * TimingWheel; when it runs out, the server's turn policy makes the move instead.
+ */
+final class Room {
+    private static final YunnoriRoll[] ROLLS = YunnoriRoll.values();
+
+    final int id;
+    final SerialExecutor executor;
+    final FrameRing ring = new FrameRing(this);
+    private final GameServer server;
+    private GameLogicController game; // From the server's pool, given back on close; null while hibernating
+    private final List<Connection> members = new ArrayList<>(2);
+    private final ByteBuffer frame = ByteBuffer.allocate(Protocol.MAX_STATE_FRAME);
+    private final List<YunnoriRoll> order = new ArrayList<>();
+    private final int[] rollCounts = new int[ROLLS.length];
+    private DeltaEncoder encoder; // While watched
+    private ByteBuffer sync; // SYNC frame scratch, while watched
+    private int spectators; // Counted as the I/O thread adds and removes them
+    private boolean started; // Until then the pooled controller may hold another room's game
+    private boolean closed; // Left by every member and removed from the server
+    private int snapshotUnit; // Where the game is in the SnapshotStore while hibernating
+    private int snapshotLength;
+    private TimingWheel.Timeout turnClock; // Once timed
+    private long turnDue; // nanoTime the awaited move times out at, 0 if untimed
+    volatile long lastActive = System.nanoTime(); // Of the last task a member drove the game in
+    volatile boolean hibernating;
+
+    Room(int id, GameServer server, SerialExecutor executor, GameLogicController game) {
+        this.id = id;
+        this.server = server;
+        this.executor = executor;
+        this.game = game;
+    }
+
+    // Joins 'connection'; sets up a new game if none is in progress
+    void open(Connection connection, int numTeams, int numPieces, int boardCode) {
+        if (closed) { // Removed while this was queued: go through the server again
+            server.dispatchOpen(connection, id, numTeams, numPieces, boardCode);
+            return;
+        }
+        if (connection.isClosed())
+            return;
+        if (!wake()) {
+            server.dispatchOpen(connection, id, numTeams, numPieces, boardCode);
+            return;
+        }
+        if (!members.contains(connection))
+            members.add(connection);
+        if (!started || game.getCurrentGameState() == GameState.GAME_OVER) {
+            newGame(numTeams, numPieces, boardCode);
+        } else {
+            send(connection, Protocol.OK);
+        }
+    }
+
+    // Starts the game of a lobby match, the players seated in order
+    void start(List<Connection> players, int numTeams, int numPieces, int boardCode) {
+        for (Connection player : players) {
+            if (!player.isClosed())
+                members.add(player);
+        }
+        if (members.isEmpty()) {
+            close();
+            return;
+        }
+        newGame(numTeams, numPieces, boardCode);
+    }
+
+    private void newGame(int numTeams, int numPieces, int boardCode) {
+        game.setupGame(numTeams, numPieces, GameRecord.boardGraph(boardCode), false);
+        game.startGame();
+        started = true;
+        if (encoder != null)
+            encoder = new DeltaEncoder(game, 0);
+        broadcast();
+    }
+
+    void act(Connection connection, int[] values) {
+        if (!members.contains(connection) || !wake()) {
+            send(connection, Protocol.NO_ROOM);
+            return;
+        }
+        int status = apply(values);
+        if (status == Protocol.OK) {
+            broadcast();
+        } else {
+            send(connection, status);
+        }
+    }
+
+    void leave(Connection connection) {
+        members.remove(connection);
+        if (members.isEmpty())
+            close();
+    }
+
+    private void close() {
+        if (!closed) {
+            closed = true;
+            server.removeRoom(this);
+            stopTurnClock();
+            if (game != null) {
+                server.releaseController(game);
+                game = null;
+            } else if (hibernating) {
+                server.getSnapshots().free(snapshotUnit, snapshotLength);
+                hibernating = false;
+            }
+            ring.close();
+            server.requestPump(ring);
+        }
+    }
+
+    void watched() {
+        spectators++;
+    }
+
+    void unwatched() {
+        if (--spectators == 0) {
+            encoder = null;
+            sync = null;
+            ring.release();
+        }
+    }
+
+    // Hands 'spectator' a keyframe of the game and the ring position that follows it
+    void resync(Spectator spectator) {
+        if (!closed && wake()) {
+            if (encoder == null) {
+                encoder = new DeltaEncoder(game, 0); // Lapped spectators get their own keyframes
+                sync = ByteBuffer.allocate(Protocol.LENGTH_SIZE + Protocol.MAX_FRAME);
+            }
+            ByteBuffer keyframe = ByteBuffer.allocate(Protocol.LENGTH_SIZE + Protocol.MAX_FRAME);
+            int start = Protocol.beginFrame(keyframe, Protocol.SYNC, id);
+            encoder.keyframe(keyframe);
+            Protocol.endFrame(keyframe, start);
+            spectator.keyframe = keyframe.flip();
+            spectator.position = ring.getPublished();
+        }
+        server.resynced(spectator);
+    }
+
+    // --- Hibernation ---
+
+    // Parks the game in 'store' unless something drove it in the last 'idleNanos' or a move is timed
+    void hibernate(SnapshotStore store, long idleNanos) {
+        if (closed || game == null || encoder != null || turnDue != 0
+                || System.nanoTime() - lastActive < idleNanos)
+            return;
+        ByteBuffer snapshot = ByteBuffer.allocate(SnapshotStore.MAX_SNAPSHOT);
+        GameSnapshot.write(game, snapshot);
+        snapshot.flip();
+        try {
+            snapshotLength = snapshot.remaining();
+            snapshotUnit = store.write(snapshot);
+        } catch (IOException e) {
+            System.err.println("Could not hibernate room " + id + ": " + e.getMessage());
+            return;
+        }
+        server.releaseController(game);
+        game = null;
+        hibernating = true;
+    }
+
+    // Brings a hibernating game back; false, and the room closed, if it cannot be read
+    private boolean wake() {
+        lastActive = System.nanoTime();
+        if (!hibernating)
+            return true;
+        SnapshotStore store = server.getSnapshots();
+        GameLogicController woken = server.acquireController();
+        try {
+            ByteBuffer snapshot = ByteBuffer.allocate(snapshotLength);
+            store.read(snapshotUnit, snapshotLength, snapshot);
+            GameSnapshot.read(snapshot.flip(), woken);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Could not wake room " + id + ": " + e.getMessage());
+            server.releaseController(woken);
+            close();
+            return false;
+        }
+        store.free(snapshotUnit, snapshotLength);
+        game = woken;
+        hibernating = false;
+        return true;
+    }
+
+    // --- Turn clock ---
+
+    // Times the move the game now waits for, if a policy could make it
+    private void startTurnClock() {
+        TimingWheel wheel = server.getTurnWheel();
+        if (wheel == null)
+            return;
+        switch (game.getCurrentGameState()) {
+            case WAITING_FOR_ROLL, WAITING_FOR_PIECE_SELECTION, WAITING_FOR_STACK_SELECTION, WAITING_FOR_REORDER,
+                    AWAITING_GROUPING_CHOICE -> {
+                if (turnClock == null)
+                    turnClock = wheel.newTimeout(() -> executor.execute(this::turnTimedOut));
+                long millis = server.getTurnMillis();
+                turnDue = System.nanoTime() + millis * 1_000_000;
+                turnClock.schedule(millis);
+            }
+            default -> stopTurnClock();
+        }
+    }
+
+    private void stopTurnClock() {
+        turnDue = 0;
+        if (turnClock != null)
+            turnClock.cancel();
+    }
+
+    private void turnTimedOut() {
+        if (closed || game == null || turnDue == 0)
+            return; // Moved, hibernated or closed since
+        long early = turnDue - System.nanoTime();
+        if (early > 0) {
+            turnClock.schedule((early + 999_999) / 1_000_000); // Rescheduled, or the wheel was early
+            return;
+        }
+        turnDue = 0;
+        if (Simulator.act(game, server.getTurnPolicy()))
+            broadcast();
+        else
+            startTurnClock(); // The policy passed; give the player another turn's time
+    }
+
+    // --- Actions ---
+
+    private int apply(int[] values) {
+        int action = values[0];
+        int argument = GameRecord.argumentOf(action);
+        GameState state = game.getCurrentGameState();
+        switch (GameRecord.kindOf(action)) {
+            case GameRecord.ROLL:
+                if (state != GameState.WAITING_FOR_ROLL)
+                    return Protocol.REJECTED;
+                game.handleRollButtonPressed();
+                return Protocol.OK;
+            case GameRecord.PIECE: {
+                if (state != GameState.WAITING_FOR_PIECE_SELECTION && state != GameState.WAITING_FOR_STACK_SELECTION)
+                    return Protocol.REJECTED;
+                List<Piece> pieces = game.getCurrentPlayer().getPieces();
+                if (argument >= pieces.size())
+                    return Protocol.BAD_REQUEST;
+                Piece piece = pieces.get(argument);
+                if (!game.getPlayablePiecesForCurrentRoll().contains(piece))
+                    return Protocol.REJECTED;
+                game.handlePieceClicked(piece);
+                return Protocol.OK;
+            }
+            case GameRecord.GROUP:
+                if (state != GameState.AWAITING_GROUPING_CHOICE)
+                    return Protocol.REJECTED;
+                game.submitGroupingChoice(argument != 0);
+                return Protocol.OK;
+            case GameRecord.KEEP_ORDER:
+                if (state != GameState.WAITING_FOR_REORDER)
+                    return Protocol.REJECTED;
+                game.cancelReorder();
+                return Protocol.OK;
+            case GameRecord.REORDER:
+                if (state != GameState.WAITING_FOR_REORDER)
+                    return Protocol.REJECTED;
+                if (values.length != 1 + argument || !readOrder(values))
+                    return Protocol.BAD_REQUEST;
+                game.submitReorderedRolls(order);
+                return Protocol.OK;
+            case GameRecord.DISCARD_ORDER:
+                if (state != GameState.WAITING_FOR_REORDER)
+                    return Protocol.REJECTED;
+                game.handleRollButtonPressed();
+                return Protocol.OK;
+            default: // CANCEL_ROLLS only exists in test mode
+                return Protocol.BAD_REQUEST;
+        }
+    }
+
+    // Reads the new order into 'order'; false unless it is the pending rolls rearranged
+    private boolean readOrder(int[] values) {
+        List<YunnoriRoll> pending = game.getRollsToProcess();
+        if (values.length - 1 != pending.size())
+            return false;
+        Arrays.fill(rollCounts, 0);
+        for (YunnoriRoll roll : pending)
+            rollCounts[roll.ordinal()]++;
+        order.clear();
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] < 0 || values[i] >= ROLLS.length || --rollCounts[values[i]] < 0)
+                return false;
+            order.add(ROLLS[values[i]]);
+        }
+        return true;
+    }
+
+    // --- Replies ---
+
+    private void broadcast() {
+        startTurnClock();
+        writeState(Protocol.OK);
+        for (Connection member : members) {
+            frame.position(0);
+            member.send(frame);
+        }
+        if (encoder != null)
+            publish();
+    }
+
+    private void publish() {
+        sync.clear();
+        int start = Protocol.beginFrame(sync, Protocol.SYNC, id);
+        encoder.encode(sync);
+        Protocol.endFrame(sync, start);
+        ring.append(sync.flip());
+        server.requestPump(ring);
+    }
+
+    private void send(Connection connection, int status) {
+        writeState(status);
+        connection.send(frame);
+    }
+
+    private void writeState(int status) {
+        frame.clear();
+        int start = Protocol.beginFrame(frame, Protocol.STATE, id);
+        Varint.write(frame, status);
+        GameState state = game.getCurrentGameState();
+        Varint.write(frame, state.ordinal());
+        if (state == GameState.NOT_STARTED) {
+            for (int i = 0; i < 4; i++)
+                Varint.write(frame, 0);
+        } else {
+            Varint.write(frame, game.getCurrentPlayerIndex());
+            int playable = 0;
+            if (state == GameState.WAITING_FOR_PIECE_SELECTION || state == GameState.WAITING_FOR_STACK_SELECTION) {
+                for (Piece piece : game.getPlayablePiecesForCurrentRoll())
+                    playable |= 1 << piece.getId();
+            }
+            Varint.write(frame, playable);
+            Varint.write(frame, game.getTurnCount());
+            Team winner = game.getWinner();
+            Varint.write(frame, winner == null ? 0 : winner.getId() + 1);
+        }
+        Protocol.endFrame(frame, start);
+        frame.flip();
+    }
+}
@@ -0,0 +1,87 @@
+package yunnori.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * Snapshots of hibernating rooms, in one scratch file that is deleted on close. A snapshot
+ * takes a run of UNIT-byte units; freed runs are reused by snapshots of the same number of
+ * units, which rooms of one kind of game all are. Reads and writes are positional, so
+ * rooms share the channel from any thread; only allocating a run takes a lock.
+ */
+final class SnapshotStore implements AutoCloseable {
+    static final int UNIT = 64;
+    static final int MAX_SNAPSHOT = Protocol.MAX_FRAME;
+    private static final int MAX_UNITS = MAX_SNAPSHOT / UNIT;
+
+    private final FileChannel channel;
+    private final int[][] free = new int[MAX_UNITS + 1][]; // Freed runs by length; guarded by this
+    private final int[] freeCounts = new int[MAX_UNITS + 1]; // Guarded by this
+    private int nextUnit; // Guarded by this
+
+    SnapshotStore(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+    }
+
+    // Stores the remaining bytes of 'snapshot' and returns the unit they start at
+    int write(ByteBuffer snapshot) throws IOException {
+        int length = snapshot.remaining();
+        int unit = allocate(unitsOf(length));
+        try {
+            long position = (long) unit * UNIT;
+            while (snapshot.hasRemaining())
+                position += channel.write(snapshot, position);
+            return unit;
+        } catch (IOException e) {
+            free(unit, length);
+            throw e;
+        }
+    }
+
+    // Reads the 'length' bytes stored at 'unit' into 'dst'
+    void read(int unit, int length, ByteBuffer dst) throws IOException {
+        long position = (long) unit * UNIT;
+        dst.limit(dst.position() + length);
+        while (dst.hasRemaining()) {
+            int read = channel.read(dst, position);
+            if (read < 0)
+                throw new IOException("Snapshot at unit " + unit + " cut short");
+            position += read;
+        }
+    }
+
+    synchronized void free(int unit, int length) {
+        int units = unitsOf(length);
+        if (free[units] == null || freeCounts[units] == free[units].length) {
+            int[] grown = new int[Math.max(16, freeCounts[units] * 2)];
+            if (free[units] != null)
+                System.arraycopy(free[units], 0, grown, 0, freeCounts[units]);
+            free[units] = grown;
+        }
+        free[units][freeCounts[units]++] = unit;
+    }
+
+    private synchronized int allocate(int units) {
+        if (freeCounts[units] > 0)
+            return free[units][--freeCounts[units]];
+        int unit = nextUnit;
+        nextUnit += units;
+        return unit;
+    }
+
+    private static int unitsOf(int length) {
+        if (length > MAX_SNAPSHOT) {
+            throw new IllegalArgumentException("Snapshot of " + length + " bytes, at most " + MAX_SNAPSHOT);
+        }
+        return Math.max(1, (length + UNIT - 1) / UNIT);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,22 @@
+package yunnori.server;
+
+import java.nio.ByteBuffer;
+
+/*
+ * A connection watching a room: where it is in the room's FrameRing. Touched by the I/O
+ * thread, except while resyncing, when the room's executor writes the keyframe and the
+ * position to go on from and hands it back (GameServer.resynced).
+ */
+final class Spectator {
+    final Connection connection;
+    final Room room;
+    long position; // Next byte of the ring to send; always at a frame boundary
+    ByteBuffer keyframe; // Sent before reading the ring again
+    boolean resyncing; // Waiting for the room to write a keyframe
+    int resyncs; // Since the socket last took everything that was due
+
+    Spectator(Connection connection, Room room) {
+        this.connection = connection;
+        this.room = room;
+    }
+}
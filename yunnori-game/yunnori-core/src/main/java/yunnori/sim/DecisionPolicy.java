@@ -0,0 +1,23 @@
+package yunnori.sim;
+
+import yunnori.core.GameLogicController;
+import yunnori.core.Piece;
+import yunnori.core.YunnoriRoll;
+
+import java.util.List;
+
+/**
+ * Decides for one seat at the points where the game would otherwise wait for a dialog.
+ * Policies are shared between simulation threads, so implementations must be thread-safe.
+ */
+public interface DecisionPolicy {
+
+    // Returns the order to process the rolls in, or null to keep the original order
+    List<YunnoriRoll> chooseRollOrder(GameLogicController game, List<YunnoriRoll> rolls);
+
+    // Picks one of the playable pieces/groups (never empty)
+    Piece choosePiece(GameLogicController game, List<Piece> playablePieces);
+
+    // Whether the piece that just moved should lead the stack it landed on
+    boolean chooseGrouping(GameLogicController game, Piece pieceThatMoved, List<Piece> friendlyPieces);
+}
@@ -0,0 +1,28 @@
+package yunnori.sim;
+
+import yunnori.core.GameLogicController;
+import yunnori.core.Piece;
+import yunnori.core.YunnoriRoll;
+
+import java.util.List;
+
+/**
+ * Takes the first playable piece, keeps the original roll order and never groups.
+ */
+public class FirstPlayablePolicy implements DecisionPolicy {
+
+    @Override
+    public List<YunnoriRoll> chooseRollOrder(GameLogicController game, List<YunnoriRoll> rolls) {
+        return null;
+    }
+
+    @Override
+    public Piece choosePiece(GameLogicController game, List<Piece> playablePieces) {
+        return playablePieces.get(0);
+    }
+
+    @Override
+    public boolean chooseGrouping(GameLogicController game, Piece pieceThatMoved, List<Piece> friendlyPieces) {
+        return false;
+    }
+}
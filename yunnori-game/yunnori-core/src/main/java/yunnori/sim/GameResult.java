@@ -0,0 +1,9 @@
+package yunnori.sim;
+
+/**
+ * Outcome of one simulated game. winner is the team id, or -1 if the game hit the action limit.
+ * finishTurns[seat] is the turn in which that seat brought its last finished piece home,
+ * 0 if none of its pieces finished.
+ */
+public record GameResult(int winner, int turns, int catches, int actions, int[] finishTurns) {
+}
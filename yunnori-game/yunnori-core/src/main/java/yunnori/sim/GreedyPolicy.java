@@ -0,0 +1,64 @@
+package yunnori.sim;
+
+import yunnori.core.Board;
+import yunnori.core.GameLogicController;
+import yunnori.core.Piece;
+import yunnori.core.Team;
+import yunnori.core.YunnoriRoll;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * One-move lookahead: catch if possible, then finish, then make the most progress.
+ * Plays big rolls first and always groups.
+ */
+public class GreedyPolicy implements DecisionPolicy {
+
+    @Override
+    public List<YunnoriRoll> chooseRollOrder(GameLogicController game, List<YunnoriRoll> rolls) {
+        List<YunnoriRoll> order = new ArrayList<>(rolls);
+        order.sort(Comparator.comparingInt(YunnoriRoll::getSteps).reversed());
+        return order;
+    }
+
+    @Override
+    public Piece choosePiece(GameLogicController game, List<Piece> playablePieces) {
+        Board board = game.getBoard();
+        int steps = game.getRollsToProcess().get(0).getSteps();
+        Piece best = playablePieces.get(0);
+        int bestScore = Integer.MIN_VALUE;
+        for (Piece piece : playablePieces) {
+            int score = score(game, board, piece, steps);
+            if (score > bestScore) {
+                bestScore = score;
+                best = piece;
+            }
+        }
+        return best;
+    }
+
+    private int score(GameLogicController game, Board board, Piece piece, int steps) {
+        int from = piece.getCurrentPositionIndex();
+        int target = board.calculateTargetPosition(piece, steps);
+        int score = (board.getStepsToFinish(from) - board.getStepsToFinish(target)) * piece.getGroupSize();
+        if (target == board.getFinishPointIndex()) {
+            score += 50 * piece.getGroupSize();
+        } else if (target != board.getStartPointIndex()) {
+            for (Team team : game.getTeams()) {
+                if (team.getId() != piece.getTeamId()) {
+                    for (Piece opponent : team.getInteractivePiecesAt(target)) {
+                        score += 100 * opponent.getGroupSize();
+                    }
+                }
+            }
+        }
+        return score;
+    }
+
+    @Override
+    public boolean chooseGrouping(GameLogicController game, Piece pieceThatMoved, List<Piece> friendlyPieces) {
+        return true;
+    }
+}
@@ -0,0 +1,128 @@
+package yunnori.sim;
+
+import yunnori.ai.ExpectiminimaxPlayer;
+import yunnori.ai.MctsPlayer;
+import yunnori.core.BoardGraph;
+import yunnori.core.BoardType;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Command line runner for soak and performance runs: plays a batch of games on the
+ * Simulator and prints throughput and a summary of the results. Nothing it loads touches
+ * AWT or JavaFX, so it starts as fast as the JVM does.
+ *
+ * Usage: HeadlessRunner <board> <teams> <pieces> <games> [seed|- [policy ...]]
+ *   board:  RECTANGLE, PENTAGON, HEXAGON, or a number of sides for a generated board
+ *   seed:   game i throws with seed + i; '-' or none for unseeded throws
+ *   policy: first, greedy, random, mcts:<ms> or expectiminimax:<ms>; one for every seat
+ *           or one per seat (default greedy)
+ * Games run on -Dthreads threads (default: all processors); 1 plays them in order on the
+ * main thread. Search policies keep state between moves, so with one of them the games
+ * always play in order.
+ */
+public class HeadlessRunner {
+    private static final String USAGE = "Usage: HeadlessRunner <RECTANGLE|PENTAGON|HEXAGON|sides> <teams> <pieces>"
+            + " <games> [seed|- [first|greedy|random|mcts:<ms>|expectiminimax:<ms> ...]]";
+
+    public static void main(String[] args) {
+        if (args.length < 4) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+        BoardGraph boardGraph;
+        int numTeams;
+        int numPieces;
+        int games;
+        Long seed;
+        DecisionPolicy[] policies;
+        try {
+            boardGraph = parseBoard(args[0]);
+            numTeams = Integer.parseInt(args[1]);
+            numPieces = Integer.parseInt(args[2]);
+            games = Integer.parseInt(args[3]);
+            seed = args.length > 4 && !args[4].equals("-") ? Long.valueOf(args[4]) : null;
+            policies = new DecisionPolicy[Math.max(1, args.length - 5)];
+            for (int i = 0; i < policies.length; i++)
+                policies[i] = args.length > 5 ? parsePolicy(args[5 + i]) : new GreedyPolicy();
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid arguments: " + e.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+            return;
+        }
+        if (numTeams < 2 || numPieces < 1 || games < 1) {
+            System.err.println("Need at least 2 teams, 1 piece and 1 game");
+            System.exit(1);
+        }
+        int threads = Integer.getInteger("threads", Runtime.getRuntime().availableProcessors());
+        for (DecisionPolicy policy : policies) {
+            if (policy instanceof MctsPlayer || policy instanceof ExpectiminimaxPlayer)
+                threads = 1; // Not safe to share between games in flight
+        }
+
+        try {
+            Simulator simulator = new Simulator(numTeams, numPieces, boardGraph, policies);
+            if (seed != null)
+                simulator.setSeed(seed);
+            StatsCollector stats = new StatsCollector(numTeams);
+            simulator.setStats(stats);
+
+            System.out.printf("%s, %d teams of %d pieces, %d games on %d threads, seed %s, policies %s%n",
+                    boardGraph.getBoardType() != null ? boardGraph.getBoardType()
+                            : boardGraph.getSides() + "-sided board (generated)", numTeams, numPieces, games, threads, seed == null ? "-" : seed,
+                    String.join(" ", args.length > 5 ? Arrays.copyOfRange(args, 5, args.length)
+                            : new String[] { "greedy" }));
+            SimulationResult result;
+            if (threads <= 1) {
+                long start = System.nanoTime();
+                result = simulator.runSequential(games);
+                result.setElapsedNanos(System.nanoTime() - start);
+            } else {
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                result = simulator.run(games, pool);
+                pool.shutdown();
+            }
+
+            double seconds = result.getElapsedNanos() / 1e9;
+            System.out.printf("%.2f s, %.0f games/s, %.0f actions/s%n", seconds, result.getGames() / seconds,
+                    result.getTotalActions() / seconds);
+            System.out.println(result);
+            System.out.println(stats.snapshot());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid arguments: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            for (DecisionPolicy policy : policies) {
+                if (policy instanceof AutoCloseable closeable) {
+                    try {
+                        closeable.close();
+                    } catch (Exception e) {
+                        System.err.println("Could not close policy: " + e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    private static BoardGraph parseBoard(String arg) {
+        if (!arg.isEmpty() && Character.isDigit(arg.charAt(0)))
+            return BoardGraph.polygon(Integer.parseInt(arg));
+        return BoardGraph.forType(BoardType.valueOf(arg.toUpperCase()));
+    }
+
+    private static DecisionPolicy parsePolicy(String arg) {
+        int colon = arg.indexOf(':');
+        String name = (colon < 0 ? arg : arg.substring(0, colon)).toLowerCase();
+        long budgetMillis = colon < 0 ? 100 : Long.parseLong(arg.substring(colon + 1));
+        return switch (name) {
+            case "first" -> new FirstPlayablePolicy();
+            case "greedy" -> new GreedyPolicy();
+            case "random" -> new RandomPolicy();
+            case "mcts" -> new MctsPlayer(budgetMillis);
+            case "expectiminimax" -> new ExpectiminimaxPlayer(budgetMillis);
+            default -> throw new IllegalArgumentException("No such policy: " + arg);
+        };
+    }
+}
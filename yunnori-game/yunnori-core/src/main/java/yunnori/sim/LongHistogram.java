@@ -0,0 +1,89 @@
+package yunnori.sim;
+
+/**
+ * Counts of small non-negative values, one bin per value below a fixed number of bins;
+ * larger values share the last bin. Also keeps the count, sum, minimum and maximum, so
+ * its memory does not grow with the values recorded.
+ *
+ * One thread records while any thread may read or merge it (see OpaqueLongs): a reader
+ * sees every field whole, though fields recorded together may be seen one value apart.
+ */
+public class LongHistogram {
+    private static final int COUNT = 0;
+    private static final int SUM = 1;
+    private static final int MIN = 2;
+    private static final int MAX = 3;
+
+    private final long[] bins;
+    private final long[] totals = { 0, 0, Long.MAX_VALUE, Long.MIN_VALUE };
+
+    public LongHistogram(int binCount) {
+        if (binCount < 1) {
+            throw new IllegalArgumentException("Histogram needs at least one bin, got " + binCount);
+        }
+        this.bins = new long[binCount];
+    }
+
+    // Negative values count as 0
+    public void record(long value) {
+        long v = Math.max(0, value);
+        OpaqueLongs.add(bins, (int) Math.min(bins.length - 1, v), 1);
+        OpaqueLongs.add(totals, COUNT, 1);
+        OpaqueLongs.add(totals, SUM, v);
+        if (v < totals[MIN])
+            OpaqueLongs.set(totals, MIN, v);
+        if (v > totals[MAX])
+            OpaqueLongs.set(totals, MAX, v);
+    }
+
+    // Adds 'other' to this histogram; only from the thread recording into this one
+    public LongHistogram merge(LongHistogram other) {
+        if (other.bins.length != bins.length) {
+            throw new IllegalArgumentException("Cannot merge " + other.bins.length + " bins into " + bins.length);
+        }
+        for (int i = 0; i < bins.length; i++)
+            OpaqueLongs.add(bins, i, OpaqueLongs.get(other.bins, i));
+        OpaqueLongs.add(totals, COUNT, OpaqueLongs.get(other.totals, COUNT));
+        OpaqueLongs.add(totals, SUM, OpaqueLongs.get(other.totals, SUM));
+        OpaqueLongs.set(totals, MIN, Math.min(totals[MIN], OpaqueLongs.get(other.totals, MIN)));
+        OpaqueLongs.set(totals, MAX, Math.max(totals[MAX], OpaqueLongs.get(other.totals, MAX)));
+        return this;
+    }
+
+    public int getBinCount() {
+        return bins.length;
+    }
+
+    // Values recorded as 'value'; the last bin also holds every larger value
+    public long getCount(int value) {
+        return OpaqueLongs.get(bins, value);
+    }
+
+    public long[] getCounts() {
+        long[] counts = new long[bins.length];
+        for (int i = 0; i < bins.length; i++)
+            counts[i] = OpaqueLongs.get(bins, i);
+        return counts;
+    }
+
+    public long getCount() {
+        return OpaqueLongs.get(totals, COUNT);
+    }
+
+    public long getSum() {
+        return OpaqueLongs.get(totals, SUM);
+    }
+
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) getSum() / count;
+    }
+
+    public long getMin() {
+        return getCount() == 0 ? 0 : OpaqueLongs.get(totals, MIN);
+    }
+
+    public long getMax() {
+        return getCount() == 0 ? 0 : OpaqueLongs.get(totals, MAX);
+    }
+}
@@ -0,0 +1,28 @@
+package yunnori.sim;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/*
+ * Single-writer long arrays that other threads may read while they are written. Opaque
+ * access keeps every element whole and promptly visible, with no fence on the writer.
+ */
+final class OpaqueLongs {
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private OpaqueLongs() {
+    }
+
+    // Only from the writing thread, which may read its own elements plainly
+    static void add(long[] array, int index, long delta) {
+        LONGS.setOpaque(array, index, array[index] + delta);
+    }
+
+    static void set(long[] array, int index, long value) {
+        LONGS.setOpaque(array, index, value);
+    }
+
+    static long get(long[] array, int index) {
+        return (long) LONGS.getOpaque(array, index);
+    }
+}
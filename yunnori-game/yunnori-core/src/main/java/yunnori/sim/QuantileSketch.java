@@ -0,0 +1,87 @@
+package yunnori.sim;
+
+/**
+ * Approximate quantiles of non-negative int values in constant memory. Values below
+ * 2^SUB_BITS have a bucket each; above that every power of two is split into 2^SUB_BITS
+ * buckets, so a quantile is off by at most 1/2^SUB_BITS of its value (about 3%).
+ * Sketches merge exactly by adding their buckets.
+ *
+ * Like LongHistogram, one thread records while any thread may read or merge it.
+ */
+public class QuantileSketch {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = (Integer.SIZE - SUB_BITS) * SUB_BUCKETS;
+
+    private final long[] buckets = new long[BUCKETS];
+    private final LongHistogram totals = new LongHistogram(1); // Count, sum, min and max
+
+    // Negative values count as 0
+    public void record(int value) {
+        int v = Math.max(0, value);
+        OpaqueLongs.add(buckets, bucket(v), 1);
+        totals.record(v);
+    }
+
+    // Adds 'other' to this sketch; only from the thread recording into this one
+    public QuantileSketch merge(QuantileSketch other) {
+        for (int i = 0; i < BUCKETS; i++)
+            OpaqueLongs.add(buckets, i, OpaqueLongs.get(other.buckets, i));
+        totals.merge(other.totals);
+        return this;
+    }
+
+    public long getCount() {
+        return totals.getCount();
+    }
+
+    public double getMean() {
+        return totals.getMean();
+    }
+
+    public long getMin() {
+        return totals.getMin();
+    }
+
+    public long getMax() {
+        return totals.getMax();
+    }
+
+    // Value at quantile q (0..1), 0 for an empty sketch
+    public long quantile(double q) {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = OpaqueLongs.get(buckets, i);
+            count += counts[i];
+        }
+        if (count == 0)
+            return 0;
+        long rank = Math.max(1, (long) Math.ceil(q * count));
+        long seen = 0;
+        int b = 0;
+        while (b < BUCKETS - 1 && (seen += counts[b]) < rank)
+            b++;
+        long mid = lowerBound(b) + (bucketWidth(b) - 1) / 2;
+        return Math.max(getMin(), Math.min(getMax(), mid));
+    }
+
+    static int bucket(int value) {
+        if (value < SUB_BUCKETS)
+            return value;
+        int exponent = 31 - Integer.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BITS;
+        return (shift + 1) * SUB_BUCKETS + ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    static long lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS)
+            return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+    }
+
+    static long bucketWidth(int bucket) {
+        return bucket < SUB_BUCKETS ? 1 : 1L << (bucket / SUB_BUCKETS - 1);
+    }
+}
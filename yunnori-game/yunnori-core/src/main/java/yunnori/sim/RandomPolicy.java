@@ -0,0 +1,33 @@
+package yunnori.sim;
+
+import yunnori.core.GameLogicController;
+import yunnori.core.Piece;
+import yunnori.core.YunnoriRoll;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Uniformly random choices at every decision point.
+ */
+public class RandomPolicy implements DecisionPolicy {
+
+    @Override
+    public List<YunnoriRoll> chooseRollOrder(GameLogicController game, List<YunnoriRoll> rolls) {
+        List<YunnoriRoll> order = new ArrayList<>(rolls);
+        Collections.shuffle(order, ThreadLocalRandom.current());
+        return order;
+    }
+
+    @Override
+    public Piece choosePiece(GameLogicController game, List<Piece> playablePieces) {
+        return playablePieces.get(ThreadLocalRandom.current().nextInt(playablePieces.size()));
+    }
+
+    @Override
+    public boolean chooseGrouping(GameLogicController game, Piece pieceThatMoved, List<Piece> friendlyPieces) {
+        return ThreadLocalRandom.current().nextBoolean();
+    }
+}
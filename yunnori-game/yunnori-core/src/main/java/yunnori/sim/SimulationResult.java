@@ -0,0 +1,122 @@
+package yunnori.sim;
+
+/**
+ * Aggregate of many simulated games. Per-thread results are merged at the end of a run.
+ */
+public class SimulationResult {
+    private final long[] winsBySeat;
+    private long games;
+    private long unfinishedGames;
+    private long totalTurns;
+    private long totalCatches;
+    private long totalActions;
+    private int minTurns = Integer.MAX_VALUE;
+    private int maxTurns;
+    private long elapsedNanos;
+
+    public SimulationResult(int numTeams) {
+        this.winsBySeat = new long[numTeams];
+    }
+
+    public void add(GameResult result) {
+        games++;
+        if (result.winner() >= 0) {
+            winsBySeat[result.winner()]++;
+        } else {
+            unfinishedGames++;
+        }
+        totalTurns += result.turns();
+        totalCatches += result.catches();
+        totalActions += result.actions();
+        minTurns = Math.min(minTurns, result.turns());
+        maxTurns = Math.max(maxTurns, result.turns());
+    }
+
+    public SimulationResult merge(SimulationResult other) {
+        for (int i = 0; i < winsBySeat.length; i++) {
+            winsBySeat[i] += other.winsBySeat[i];
+        }
+        games += other.games;
+        unfinishedGames += other.unfinishedGames;
+        totalTurns += other.totalTurns;
+        totalCatches += other.totalCatches;
+        totalActions += other.totalActions;
+        minTurns = Math.min(minTurns, other.minTurns);
+        maxTurns = Math.max(maxTurns, other.maxTurns);
+        return this;
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getWins(int seat) {
+        return winsBySeat[seat];
+    }
+
+    public double getWinRate(int seat) {
+        return games == 0 ? 0 : (double) winsBySeat[seat] / games;
+    }
+
+    public long getUnfinishedGames() {
+        return unfinishedGames;
+    }
+
+    public long getTotalTurns() {
+        return totalTurns;
+    }
+
+    public long getTotalCatches() {
+        return totalCatches;
+    }
+
+    public long getTotalActions() {
+        return totalActions;
+    }
+
+    public double getAverageTurns() {
+        return games == 0 ? 0 : (double) totalTurns / games;
+    }
+
+    public double getAverageCatches() {
+        return games == 0 ? 0 : (double) totalCatches / games;
+    }
+
+    public int getMinTurns() {
+        return games == 0 ? 0 : minTurns;
+    }
+
+    public int getMaxTurns() {
+        return maxTurns;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getGamesPerMinute() {
+        return elapsedNanos == 0 ? 0 : games * 60e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(games).append(" games");
+        for (int i = 0; i < winsBySeat.length; i++) {
+            sb.append(String.format(", Team %d %.2f%%", i + 1, 100 * getWinRate(i)));
+        }
+        if (unfinishedGames > 0) {
+            sb.append(", unfinished ").append(unfinishedGames);
+        }
+        sb.append(String.format(", turns avg %.1f (min %d, max %d), catches avg %.2f",
+                getAverageTurns(), getMinTurns(), getMaxTurns(), getAverageCatches()));
+        if (elapsedNanos > 0) {
+            sb.append(String.format(", %.0f games/min", getGamesPerMinute()));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,134 @@
+package yunnori.sim;
+
+import yunnori.core.BoardGraph;
+import yunnori.core.BoardType;
+
+/**
+ * Streaming statistics of simulated games: wins by seat, the distribution of game length
+ * in turns, catches per game, actions per game and, for each BoardType, how often a move
+ * ended on each point. Memory is fixed when it is created, however many games it counts.
+ *
+ * Each simulation thread fills its own instance (see StatsCollector); instances merge by
+ * adding their counters, and can be read or merged from other threads while they fill
+ * (see LongHistogram). Landings are counted by Simulator.playGame; games on generated
+ * boards add none.
+ */
+public class SimulationStats {
+    public static final int TURN_BINS = 512;
+    public static final int CATCH_BINS = 64;
+
+    private final int seats;
+    private final long[] outcomes; // Wins per seat, then unfinished games
+    private final LongHistogram turns = new LongHistogram(TURN_BINS);
+    private final QuantileSketch turnQuantiles = new QuantileSketch();
+    private final LongHistogram catches = new LongHistogram(CATCH_BINS);
+    private final QuantileSketch actions = new QuantileSketch();
+    private final long[][] landings; // [BoardType ordinal][point]
+
+    public SimulationStats(int seats) {
+        this.seats = seats;
+        this.outcomes = new long[seats + 1];
+        BoardType[] types = BoardType.values();
+        this.landings = new long[types.length][];
+        for (BoardType type : types)
+            landings[type.ordinal()] = new long[BoardGraph.forType(type).getPointCount()];
+    }
+
+    public void add(GameResult result) {
+        OpaqueLongs.add(outcomes, result.winner() >= 0 ? result.winner() : seats, 1);
+        turns.record(result.turns());
+        turnQuantiles.record(result.turns());
+        catches.record(result.catches());
+        actions.record(result.actions());
+    }
+
+    // A move ended on 'point'; only from the thread filling this instance. Generated boards
+    // have no type, and their landings are not counted
+    public void recordLanding(BoardType boardType, int point) {
+        if (boardType == null)
+            return;
+        OpaqueLongs.add(landings[boardType.ordinal()], point, 1);
+    }
+
+    // Adds 'other' to these statistics; only from the thread filling this instance
+    public SimulationStats merge(SimulationStats other) {
+        if (other.seats != seats) {
+            throw new IllegalArgumentException("Cannot merge stats of " + other.seats + " seats into " + seats);
+        }
+        for (int i = 0; i <= seats; i++)
+            OpaqueLongs.add(outcomes, i, OpaqueLongs.get(other.outcomes, i));
+        turns.merge(other.turns);
+        turnQuantiles.merge(other.turnQuantiles);
+        catches.merge(other.catches);
+        actions.merge(other.actions);
+        for (int t = 0; t < landings.length; t++) {
+            for (int p = 0; p < landings[t].length; p++)
+                OpaqueLongs.add(landings[t], p, OpaqueLongs.get(other.landings[t], p));
+        }
+        return this;
+    }
+
+    public int getSeats() {
+        return seats;
+    }
+
+    public long getGames() {
+        return turns.getCount();
+    }
+
+    public long getWins(int seat) {
+        return OpaqueLongs.get(outcomes, seat);
+    }
+
+    public double getWinRate(int seat) {
+        long games = getGames();
+        return games == 0 ? 0 : (double) getWins(seat) / games;
+    }
+
+    public long getUnfinishedGames() {
+        return OpaqueLongs.get(outcomes, seats);
+    }
+
+    // Turns per game, exact below TURN_BINS
+    public LongHistogram getTurns() {
+        return turns;
+    }
+
+    // Turns per game, for quantiles beyond TURN_BINS
+    public QuantileSketch getTurnQuantiles() {
+        return turnQuantiles;
+    }
+
+    public LongHistogram getCatches() {
+        return catches;
+    }
+
+    public QuantileSketch getActions() {
+        return actions;
+    }
+
+    // Moves that ended on each point of 'boardType'
+    public long[] getLandings(BoardType boardType) {
+        long[] counts = landings[boardType.ordinal()];
+        long[] copy = new long[counts.length];
+        for (int p = 0; p < counts.length; p++)
+            copy[p] = OpaqueLongs.get(counts, p);
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(getGames()).append(" games");
+        for (int i = 0; i < seats; i++) {
+            sb.append(String.format(", Team %d %.2f%%", i + 1, 100 * getWinRate(i)));
+        }
+        if (getUnfinishedGames() > 0) {
+            sb.append(", unfinished ").append(getUnfinishedGames());
+        }
+        sb.append(String.format(", turns avg %.1f (p50 %d, p90 %d, p99 %d, max %d), catches avg %.2f, actions p50 %d",
+                turns.getMean(), turnQuantiles.quantile(0.5), turnQuantiles.quantile(0.9),
+                turnQuantiles.quantile(0.99), turns.getMax(), catches.getMean(), actions.quantile(0.5)));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,225 @@
+package yunnori.sim;
+
+import yunnori.core.BoardGraph;
+import yunnori.core.BoardType;
+import yunnori.core.GameLogicController;
+import yunnori.core.Piece;
+import yunnori.core.Team;
+import yunnori.core.YunnoriRoll;
+import yunnori.record.GameArchiveWriter;
+import yunnori.record.GameRecord;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plays complete games on GameLogicController with no UI attached. The points where the
+ * views would open a dialog (reorder, piece selection, grouping) are answered by one
+ * DecisionPolicy per seat. Batches are split across a fork/join pool.
+ */
+public class Simulator {
+    public static final int DEFAULT_MAX_ACTIONS = 100_000;
+    private static final int GAMES_PER_TASK = 256;
+
+    private final int numTeams;
+    private final int numPieces;
+    private final BoardGraph boardGraph;
+    private final DecisionPolicy[] policies;
+    private int maxActionsPerGame = DEFAULT_MAX_ACTIONS;
+    private Long seed; // null: unseeded throws
+    private GameArchiveWriter archive; // null: results are only aggregated
+    private StatsCollector stats; // null: no live statistics
+
+    public Simulator(int numTeams, int numPieces, BoardType boardType, DecisionPolicy... policies) {
+        this(numTeams, numPieces, BoardGraph.forType(boardType), policies);
+    }
+
+    // One policy for every seat, or exactly one per seat
+    public Simulator(int numTeams, int numPieces, BoardGraph boardGraph, DecisionPolicy... policies) {
+        if (policies.length != 1 && policies.length != numTeams) {
+            throw new IllegalArgumentException("Expected 1 or " + numTeams + " policies, got " + policies.length);
+        }
+        this.numTeams = numTeams;
+        this.numPieces = numPieces;
+        this.boardGraph = boardGraph;
+        this.policies = policies.length == numTeams ? policies.clone() : fill(policies[0], numTeams);
+    }
+
+    private static DecisionPolicy[] fill(DecisionPolicy policy, int numTeams) {
+        DecisionPolicy[] all = new DecisionPolicy[numTeams];
+        Arrays.fill(all, policy);
+        return all;
+    }
+
+    public void setMaxActionsPerGame(int maxActionsPerGame) {
+        this.maxActionsPerGame = maxActionsPerGame;
+    }
+
+    /*
+     * Seeds the throws of every game: game i of a run uses seed + i, so a run with
+     * deterministic policies gives the same result however it is split across threads.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    // Also stores every game of the following runs as a row of 'archive' (null to stop)
+    public void setArchive(GameArchiveWriter archive) {
+        this.archive = archive;
+    }
+
+    // Also counts every game of the following runs into 'stats' (null to stop)
+    public void setStats(StatsCollector stats) {
+        if (stats != null && stats.getSeats() != numTeams) {
+            throw new IllegalArgumentException("Stats have " + stats.getSeats() + " seats, games have " + numTeams);
+        }
+        this.stats = stats;
+    }
+
+    public SimulationResult run(int games) {
+        return run(games, ForkJoinPool.commonPool());
+    }
+
+    public SimulationResult run(int games, ForkJoinPool pool) {
+        long start = System.nanoTime();
+        SimulationResult result = pool.invoke(new BatchTask(0, games, reserveRows(games)));
+        result.setElapsedNanos(System.nanoTime() - start);
+        return result;
+    }
+
+    // Plays 'games' games one after another on the calling thread, reusing one controller
+    public SimulationResult runSequential(int games) {
+        return runSequential(0, games, reserveRows(games));
+    }
+
+    // Archive row of game 0 of a run, or -1 without an archive
+    private long reserveRows(int games) {
+        return archive == null ? -1 : archive.reserve(games);
+    }
+
+    private SimulationResult runSequential(int first, int games, long firstRow) {
+        SimulationResult result = new SimulationResult(numTeams);
+        GameLogicController game = new GameLogicController();
+        int boardCode = GameRecord.boardCode(boardGraph);
+        SimulationStats local = stats == null ? null : stats.local();
+        for (int i = first; i < first + games; i++) {
+            game.setupGame(numTeams, numPieces, boardGraph, false);
+            if (seed != null) {
+                game.setRollSeed(seed + i);
+            }
+            GameResult gameResult = playGame(game, policies, maxActionsPerGame, local);
+            result.add(gameResult);
+            if (local != null) {
+                local.add(gameResult);
+            }
+            if (firstRow >= 0) {
+                try {
+                    archive.write(firstRow + i, boardCode, numTeams, numPieces, gameResult.winner(),
+                            gameResult.turns(), gameResult.catches(), gameResult.actions(), gameResult.finishTurns());
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not archive game " + i, e);
+                }
+            }
+        }
+        return result;
+    }
+
+    /*
+     * Drives a game that has been set up (but not started) until it is over or maxActions
+     * controller calls have been made.
+     */
+    public static GameResult playGame(GameLogicController game, DecisionPolicy[] policies, int maxActions) {
+        return playGame(game, policies, maxActions, null);
+    }
+
+    // Also counts where each move ends into 'stats' (null for none); the result is not added
+    public static GameResult playGame(GameLogicController game, DecisionPolicy[] policies, int maxActions,
+            SimulationStats stats) {
+        game.startGame();
+        int actions = 0;
+        int[] finishTurns = new int[game.getNumTeams()];
+        while (game.getCurrentGameState() != GameLogicController.GameState.GAME_OVER && actions < maxActions) {
+            actions++;
+            int seat = game.getCurrentPlayerIndex();
+            Team team = game.getCurrentPlayer();
+            int finishedBefore = team.getFinishedPiecesCount();
+            int turn = game.getTurnCount();
+            if (!act(game, policies[seat], stats)) {
+                throw new IllegalStateException("Simulator cannot drive state " + game.getCurrentGameState());
+            }
+            if (team.getFinishedPiecesCount() > finishedBefore) {
+                finishTurns[seat] = turn;
+            }
+        }
+        Team winner = game.getWinner();
+        return new GameResult(winner == null ? -1 : winner.getId(), game.getTurnCount(), game.getCatchCount(),
+                actions, finishTurns);
+    }
+
+    /*
+     * Makes the one move 'game' waits for, as 'policy' decides (e.g. for a player whose turn
+     * clock ran out); false in states no policy decides, such as test rolls or game over.
+     */
+    public static boolean act(GameLogicController game, DecisionPolicy policy) {
+        return act(game, policy, null);
+    }
+
+    // Also counts where a moved piece ends into 'stats' (null for none)
+    private static boolean act(GameLogicController game, DecisionPolicy policy, SimulationStats stats) {
+        switch (game.getCurrentGameState()) {
+            case WAITING_FOR_ROLL -> game.handleRollButtonPressed();
+            case WAITING_FOR_REORDER -> {
+                List<YunnoriRoll> order = policy.chooseRollOrder(game, game.getRollsToProcess());
+                if (order == null) {
+                    game.cancelReorder();
+                } else {
+                    game.submitReorderedRolls(order);
+                }
+            }
+            case WAITING_FOR_PIECE_SELECTION, WAITING_FOR_STACK_SELECTION -> {
+                Piece piece = policy.choosePiece(game, game.getPlayablePiecesForCurrentRoll());
+                int from = piece.getCurrentPositionIndex();
+                game.handlePieceClicked(piece);
+                if (stats != null && piece.getCurrentPositionIndex() != from) {
+                    stats.recordLanding(game.getBoardType(), piece.getCurrentPositionIndex());
+                }
+            }
+            case AWAITING_GROUPING_CHOICE -> game.submitGroupingChoice(policy.chooseGrouping(game,
+                    game.getPieceToPotentiallyGroupWith(), game.getFriendlyPiecesAtTargetForGrouping()));
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private class BatchTask extends RecursiveTask<SimulationResult> {
+        private static final long serialVersionUID = 1L;
+
+        private final int first;
+        private final int games;
+        private final long firstRow;
+
+        BatchTask(int first, int games, long firstRow) {
+            this.first = first;
+            this.games = games;
+            this.firstRow = firstRow;
+        }
+
+        @Override
+        protected SimulationResult compute() {
+            if (games <= GAMES_PER_TASK) {
+                return runSequential(first, games, firstRow);
+            }
+            BatchTask left = new BatchTask(first, games / 2, firstRow);
+            BatchTask right = new BatchTask(first + games / 2, games - games / 2, firstRow);
+            left.fork();
+            SimulationResult result = right.compute();
+            return result.merge(left.join());
+        }
+    }
+}
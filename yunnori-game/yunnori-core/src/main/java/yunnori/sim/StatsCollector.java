@@ -0,0 +1,44 @@
+package yunnori.sim;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Live statistics of simulation runs. Every thread that plays games gets its own
+ * SimulationStats on first use and fills it without sharing; snapshot() merges them all
+ * into a new instance with no lock, so it can be called while games are still running.
+ * Memory grows only with the number of threads, never with the number of games.
+ *
+ * A snapshot taken during a run may see a game's counters partly added; one taken after
+ * the run has returned is exact.
+ */
+public class StatsCollector {
+    private final int seats;
+    private final Queue<SimulationStats> accumulators = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<SimulationStats> local;
+
+    public StatsCollector(int seats) {
+        this.seats = seats;
+        this.local = ThreadLocal.withInitial(() -> {
+            SimulationStats stats = new SimulationStats(seats);
+            accumulators.add(stats);
+            return stats;
+        });
+    }
+
+    public int getSeats() {
+        return seats;
+    }
+
+    // The calling thread's statistics, to be filled only by that thread
+    public SimulationStats local() {
+        return local.get();
+    }
+
+    public SimulationStats snapshot() {
+        SimulationStats total = new SimulationStats(seats);
+        for (SimulationStats stats : accumulators)
+            total.merge(stats);
+        return total;
+    }
+}
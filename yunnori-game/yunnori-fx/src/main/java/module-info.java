@@ -1,13 +1,12 @@
 module yunnori {
     requires javafx.controls;
     requires javafx.fxml;
-    requires java.desktop; // Goddamn SwingUI needs this line
+    requires java.desktop; // The Launcher asks with Swing dialogs
+    requires yunnori.swing; // and offers the Swing UI too
 
     opens yunnori to javafx.fxml;
 
     exports yunnori;
-    exports yunnori.core; // Where GameLogicController and models are
-    exports yunnori.swingui; // Where YunnoriGUI is
     exports yunnori.fxui; // Where YunnoriJavaFXView is
 
 }
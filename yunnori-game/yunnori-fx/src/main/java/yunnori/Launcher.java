@@ -1,12 +1,14 @@
 package yunnori;
 
 import yunnori.core.BoardType; // For the setup dialogs
+import yunnori.record.GameJournal; // To resume an interrupted game
 import yunnori.swingui.YunnoriSwingView;
 import yunnori.fxui.YunnoriFXView;
 import javafx.application.Application; // For launching JavaFX
 import javax.swing.JOptionPane;
 import javax.swing.UIManager;
 import java.awt.Font;
+import java.io.IOException;
 
 public class Launcher {
 
@@ -38,6 +40,33 @@ public class Launcher {
             System.exit(0);
         }
 
+        // A journal left by a process that died mid-game can be resumed instead of setting up
+        GameJournal recovered = null;
+        try {
+            recovered = GameJournal.recover(GameJournal.DEFAULT_PATH, false);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Could not recover the interrupted game: " + e.getMessage());
+        }
+        if (recovered != null) {
+            int resumeOption = JOptionPane.showConfirmDialog(null, "An interrupted game was found. Resume it?",
+                    "Resume Game", JOptionPane.YES_NO_OPTION);
+            if (resumeOption == JOptionPane.YES_OPTION) {
+                final GameJournal journal = recovered;
+                if (choice == 0) {
+                    javax.swing.SwingUtilities.invokeLater(() -> new YunnoriSwingView(journal));
+                } else {
+                    YunnoriFXView.setRecoveredJournal(journal);
+                    Application.launch(YunnoriFXView.class, args);
+                }
+                return;
+            }
+            try {
+                recovered.close();
+            } catch (IOException e) {
+                System.err.println("Could not close the interrupted game's journal: " + e.getMessage());
+            }
+        }
+
         // Game Setup Dialogs (common for both UIs)
         // These are the Swing dialogs from YunnoriGUI's main method
         BoardType boardType = BoardType.RECTANGLE; // Default
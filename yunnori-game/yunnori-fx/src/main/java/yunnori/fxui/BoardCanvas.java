@@ -46,35 +46,14 @@ public class BoardCanvas extends Canvas {
         if (board == null)
             return;
 
-        // --- Draw Board Lines (Example for RECTANGLE) ---
+        // --- Draw Board Lines ---
         gc.setStroke(Color.BLACK);
         gc.setLineWidth(2);
 
-        if (board.getBoardType() == BoardType.RECTANGLE) {
-            // Manually draw lines for rectangle board as in BoardPanel
-            // This requires translating autoDrawLine logic
-            for (int i = 0; i < 20; i++)
-                drawBoardLine(gc, board, i, i + 1);
-            drawBoardLine(gc, board, 0, board.getFinishPointIndex()); // Assuming 31 is finish
-            drawBoardLine(gc, board, 5, 21);
-            drawBoardLine(gc, board, 21, 22);
-            drawBoardLine(gc, board, 22, 23);
-            drawBoardLine(gc, board, 10, 26);
-            drawBoardLine(gc, board, 26, 27);
-            drawBoardLine(gc, board, 27, 23);
-            drawBoardLine(gc, board, 23, 24);
-            drawBoardLine(gc, board, 24, 25);
-            drawBoardLine(gc, board, 25, 15);
-            drawBoardLine(gc, board, 23, 28);
-            drawBoardLine(gc, board, 28, 29);
-            drawBoardLine(gc, board, 29, 30);
-            drawBoardLine(gc, board, 30, 0); // Path back to start/finish for rectangle
-        } else { // For Pentagon/Hexagon, use edges
-            List<int[]> edges = board.getEdges();
-            if (edges != null) {
-                for (int[] edge : edges) {
-                    drawBoardLine(gc, board, edge[0], edge[1]);
-                }
+        List<int[]> edges = board.getEdges();
+        if (edges != null) {
+            for (int[] edge : edges) {
+                drawBoardLine(gc, board, edge[0], edge[1]);
             }
         }
 
@@ -95,29 +74,18 @@ public class BoardCanvas extends Canvas {
             double currentDisplayPointSize = pointSize;
             Color pointColor = Color.BLACK;
 
-            // Customize point appearance (example for RECTANGLE)
-            if (board.getBoardType() == BoardType.RECTANGLE) {
-                if (i == 0 || i == 5 || i == 10 || i == 15 || i == 23) { // Large points
-                    currentDisplayPointSize = pointSize * 2;
-                } else if (i == 20 || i == 30) { // Chammeki
-                    currentDisplayPointSize = pointSize * 2;
-                    pointColor = Color.MAGENTA;
-                } else if (i == board.getFinishPointIndex()) { // Finish
-                    currentDisplayPointSize = pointSize * 2;
-                    pointColor = Color.CYAN;
-                }
-            } else if (board.getBoardType() == BoardType.PENTAGON) {
-                if (i == 0 || i == 5 || i == 10 || i == 15 || i == 20 || i == 35/*center*/)
-                    currentDisplayPointSize = pointSize * 2;
-                if (i == board.getFinishPointIndex())
-                    pointColor = Color.CYAN;
-            } else if (board.getBoardType() == BoardType.HEXAGON) {
-                if (i == 0 || i == 5 || i == 10 || i == 15 || i == 20 || i == 25 || i == 42/*center*/)
+            // Corners and center are drawn larger
+            if (board.isCornerPoint(i)) {
+                currentDisplayPointSize = pointSize * 2;
+            }
+            if (board.getBoardType() == BoardType.RECTANGLE && (i == 20 || i == 30)) { // Chammeki
+                currentDisplayPointSize = pointSize * 2;
+                pointColor = Color.MAGENTA;
+            } else if (i == board.getFinishPointIndex()) { // Finish
+                if (board.getBoardType() == BoardType.RECTANGLE)
                     currentDisplayPointSize = pointSize * 2;
-                if (i == board.getFinishPointIndex())
-                    pointColor = Color.CYAN;
+                pointColor = Color.CYAN;
             }
-            // ... (adapt for Pentagon/Hexagon special points if needed) ...
 
             gc.setFill(pointColor);
             gc.fillOval(point.x - currentDisplayPointSize / 2, point.y - currentDisplayPointSize / 2,
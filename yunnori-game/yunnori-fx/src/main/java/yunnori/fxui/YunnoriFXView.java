@@ -1,6 +1,7 @@
 package yunnori.fxui;
 
 import yunnori.core.*; // Imports all classes from yunnori.core
+import yunnori.record.GameJournal;
 
 import javafx.application.Application;
 import javafx.application.Platform;
@@ -19,6 +20,7 @@ import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 import javafx.stage.Stage;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -28,6 +30,7 @@ import java.util.stream.Collectors;
 public class YunnoriFXView extends Application {
 
     private GameLogicController gameController;
+    private GameJournal journal; // null if the journal could not be opened
     private BoardCanvas boardCanvas;
     private TextArea messageArea;
     private Button rollButton;
@@ -40,6 +43,7 @@ public class YunnoriFXView extends Application {
     private static int initialNumPieces;
     private static boolean initialIsTestMode;
     private static BoardType initialBoardType;
+    private static GameJournal recoveredJournal; // Set instead of the parameters to resume a game
 
     private Piece uiSelectedPieceForMoveFX = null; // For JavaFX UI selection state
     private List<Piece> uiPiecesAtClickedStackFX = new ArrayList<>();
@@ -51,10 +55,25 @@ public class YunnoriFXView extends Application {
         initialBoardType = boardType;
     }
 
+    public static void setRecoveredJournal(GameJournal journal) {
+        recoveredJournal = journal;
+    }
+
     @Override
     public void start(Stage primaryStage) {
-        gameController = new GameLogicController();
-        gameController.setupGame(initialNumTeams, initialNumPieces, initialBoardType, initialIsTestMode);
+        if (recoveredJournal != null) {
+            journal = recoveredJournal;
+            gameController = journal.getController();
+        } else {
+            gameController = new GameLogicController();
+            gameController.setupGame(initialNumTeams, initialNumPieces, initialBoardType, initialIsTestMode);
+            try {
+                journal = GameJournal.create(GameJournal.DEFAULT_PATH, gameController, false);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Could not open the game journal, the game will not be recoverable: " + e.getMessage());
+            }
+        }
+        gameController.addListener(new GameEventFormatter(this::updateStatus));
 
         BorderPane root = new BorderPane();
         root.setPadding(new Insets(10));
@@ -100,10 +119,26 @@ public class YunnoriFXView extends Application {
         primaryStage.setOnCloseRequest(e -> Platform.exit()); // Ensure Platform.exit on window close
         primaryStage.show();
 
-        updateStatus(gameController.startGameAndGetMessages());
+        if (gameController.getCurrentGameState() == GameLogicController.GameState.NOT_STARTED) {
+            gameController.startGame();
+        } else {
+            updateStatus("Resumed the interrupted game. " + gameController.getCurrentPlayer() + " to play.");
+        }
         updateUIBasedOnGameState();
     }
 
+    // Quit and window close both end here; the player quit, so the journal is not kept for recovery
+    @Override
+    public void stop() {
+        if (journal == null)
+            return;
+        try {
+            journal.discard();
+        } catch (IOException e) {
+            System.err.println("Could not remove the game journal: " + e.getMessage());
+        }
+    }
+
     private void updateStatus(String message) {
         if (message != null && !message.trim().isEmpty()) {
             Platform.runLater(() -> { // Ensure UI updates on JavaFX Application Thread
@@ -133,10 +168,6 @@ public class YunnoriFXView extends Application {
                     gameState == GameLogicController.GameState.AWAITING_TEST_ROLL_INPUT));
             restartButton.setDisable(gameState != GameLogicController.GameState.GAME_OVER);
 
-            if (gameState == GameLogicController.GameState.GAME_OVER) {
-                updateStatus(gameController.getGameOverMessages());
-            }
-
             List<Integer> highlightPositions = new ArrayList<>();
             if (gameState == GameLogicController.GameState.WAITING_FOR_PIECE_SELECTION ||
                     gameState == GameLogicController.GameState.WAITING_FOR_STACK_SELECTION) {
@@ -164,14 +195,13 @@ public class YunnoriFXView extends Application {
     }
 
     private void handleRollButtonAction() {
-        String rollResultMessages = gameController.handleRollButtonPressed();
-        updateStatus(rollResultMessages);
+        gameController.handleRollButtonPressed();
         updateUIBasedOnGameState(); // Controller state will change (e.g. to AWAITING_TEST_ROLL or WAITING_FOR_REORDER etc)
     }
 
     private void handleRestartButtonAction() {
         if (gameController.getCurrentGameState() == GameLogicController.GameState.GAME_OVER) {
-            updateStatus(gameController.restartGame());
+            gameController.restartGame();
             // BoardCanvas uses gameController directly, so its board/teams refs are implicitly updated
             updateUIBasedOnGameState();
         }
@@ -226,7 +256,7 @@ public class YunnoriFXView extends Application {
 
     private void handlePieceClickedFX(Piece piece) { // Analogous to YunnoriGUI.pieceClicked
         this.uiSelectedPieceForMoveFX = piece; // For potential highlight if grouping needed
-        updateStatus(gameController.handlePieceClicked(piece));
+        gameController.handlePieceClicked(piece);
 
         GameLogicController.GameState currentStateAfterClick = gameController.getCurrentGameState();
         if (currentStateAfterClick != GameLogicController.GameState.AWAITING_GROUPING_CHOICE) {
@@ -279,13 +309,11 @@ public class YunnoriFXView extends Application {
         dialog.setContentText("Choose roll:");
 
         Optional<String> result = dialog.showAndWait();
-        String message;
         if (result.isPresent()) {
-            message = gameController.submitTestRoll(YunnoriRoll.fromName(result.get()));
+            gameController.submitTestRoll(YunnoriRoll.fromName(result.get()));
         } else {
-            message = gameController.cancelTestRolling();
+            gameController.cancelTestRolling();
         }
-        updateStatus(message);
         updateUIBasedOnGameState();
     }
 
@@ -328,15 +356,14 @@ public class YunnoriFXView extends Application {
                 }
             }
             if (valid)
-                statusMessage = gameController.submitReorderedRolls(reordered);
+                gameController.submitReorderedRolls(reordered);
             else {
                 updateStatus(statusMessage);
-                statusMessage = gameController.cancelReorder();
+                gameController.cancelReorder();
             }
         } else {
-            statusMessage = gameController.cancelReorder();
+            gameController.cancelReorder();
         }
-        updateStatus(statusMessage);
         updateUIBasedOnGameState();
     }
 
@@ -383,7 +410,7 @@ public class YunnoriFXView extends Application {
 
         if (pieceThatMoved == null || friendlies.isEmpty()) {
             updateStatus("Grouping data missing, defaulting to no group.");
-            updateStatus(gameController.submitGroupingChoice(false));
+            gameController.submitGroupingChoice(false);
             updateUIBasedOnGameState();
             return;
         }
@@ -401,7 +428,7 @@ public class YunnoriFXView extends Application {
         Optional<ButtonType> result = alert.showAndWait();
         boolean choseToGroup = result.isPresent() && result.get() == buttonTypeYes;
 
-        updateStatus(gameController.submitGroupingChoice(choseToGroup));
+        gameController.submitGroupingChoice(choseToGroup);
         updateUIBasedOnGameState();
     }
 
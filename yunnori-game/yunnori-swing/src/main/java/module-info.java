@@ -0,0 +1,7 @@
+module yunnori.swing {
+    requires transitive yunnori.core;
+    requires java.desktop; // Goddamn SwingUI needs this line
+
+    exports yunnori.swingui; // Where YunnoriGUI is
+
+}
@@ -118,24 +118,10 @@ public class BoardPanel extends JPanel {
         g2d.setColor(Color.BLACK);
         g2d.setStroke(new BasicStroke(2));
 
-        if (board.getBoardType() == BoardType.RECTANGLE) {
-            for (int i = 0; i < 20; i++)
-                autoDrawLine(g2d, i, i + 1);
-            autoDrawLine(g2d, 0, 31);
-            autoDrawLine(g2d, 5, 21);
-            autoDrawLine(g2d, 21, 22);
-            autoDrawLine(g2d, 22, 23);
-            autoDrawLine(g2d, 10, 26);
-            autoDrawLine(g2d, 26, 27);
-            autoDrawLine(g2d, 27, 23);
-            autoDrawLine(g2d, 23, 24);
-            autoDrawLine(g2d, 24, 25);
-            autoDrawLine(g2d, 25, 15);
-            autoDrawLine(g2d, 23, 28);
-            autoDrawLine(g2d, 28, 29);
-            autoDrawLine(g2d, 29, 30);
-            autoDrawLine(g2d, 30, 0); // 30 to Finish (31)
+        for (int[] e : board.getEdges())
+            autoDrawLine(g2d, e[0], e[1]);
 
+        if (board.getBoardType() == BoardType.RECTANGLE) {
             for (int i = 0; i < board.getPointCount(); i++) {
                 Board.BoardPoint point = board.getBoardPoint(i);
                 if (point != null) {
@@ -149,7 +135,7 @@ public class BoardPanel extends JPanel {
                     int currentPointSize = pointSize;
                     Color pointColor = Color.BLACK;
 
-                    if (i == 0 || i == 5 || i == 10 || i == 15 || i == 23) {
+                    if (board.isCornerPoint(i)) {
                         currentPointSize = pointSize * 2;
                     }
                     // 참먹이 1; Just before the finish point
@@ -227,9 +213,6 @@ public class BoardPanel extends JPanel {
                 }
             }
 
-        } else {
-            for (int[] e : board.getEdges())
-                autoDrawLine(g2d, e[0], e[1]);
         }
 
         int N = board.getPointCount();
@@ -248,7 +231,7 @@ public class BoardPanel extends JPanel {
             Color dotColor = Color.BLACK;
 
             if (board.getBoardType() == BoardType.RECTANGLE) {
-                if (i == 0 || i == 5 || i == 10 || i == 15 || i == 23)
+                if (board.isCornerPoint(i))
                     currentSize = pointSize * 2;
                 else if (i == 20 || i == 30) {
                     currentSize = pointSize * 2;
@@ -257,25 +240,14 @@ public class BoardPanel extends JPanel {
                     currentSize = pointSize * 2;
                     dotColor = Color.CYAN;
                 }
-            } else if (board.getBoardType() == BoardType.PENTAGON) {
-                if (i == 0)
+            } else {
+                if (i == board.getStartPointIndex())
                     drawText(g2d, "시작", point, currentSize, 1);
                 else if (i == 10)
                     drawText(g2d, "P", point, currentSize, -1);
-                else if (i == 35)
+                else if (i == board.getCenterPointIndex())
                     drawText(g2d, "C", point, currentSize, 1);
-                if (i == 0 || i == 5 || i == 10 || i == 15 || i == 20 || i == 35)
-                    currentSize = pointSize * 2;
-
-            } else if (board.getBoardType() == BoardType.HEXAGON) {
-                if (i == 0)
-                    drawText(g2d, "시작", point, currentSize, 1);
-                else if (i == 10)
-                    drawText(g2d, "P", point, currentSize, -1);
-                else if (i == 42)
-                    drawText(g2d, "C", point, currentSize, 1);
-                if (i == 0 || i == 5 || i == 10 || i == 15 || i == 20 || i == 25 || i == 42)
-
+                if (board.isCornerPoint(i))
                     currentSize = pointSize * 2;
             }
 
@@ -1,14 +1,19 @@
 package yunnori.swingui;
 
 import yunnori.core.BoardType;
+import yunnori.core.GameEventFormatter;
 import yunnori.core.GameLogicController;
 import yunnori.core.Piece;
 import yunnori.core.YunnoriRoll; // If used directly
+import yunnori.record.GameJournal;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -23,17 +28,34 @@ public class YunnoriSwingView extends JFrame implements ActionListener {
     private JButton restartButton;
 
     private GameLogicController gameController;
+    private GameJournal journal; // null if the journal could not be opened
 
     private Piece uiSelectedPieceForMove;
     private List<Piece> uiPiecesAtClickedStack = new ArrayList<>();
 
     public YunnoriSwingView(int numTeams, int numPieces, boolean isTestMode, BoardType boardType) {
+        this(newGame(numTeams, numPieces, isTestMode, boardType), null);
+    }
+
+    // Resumes the game of a recovered journal
+    public YunnoriSwingView(GameJournal recoveredJournal) {
+        this(recoveredJournal.getController(), recoveredJournal);
+    }
+
+    private YunnoriSwingView(GameLogicController controller, GameJournal recoveredJournal) {
         super("Yunnori Game - Swing UI");
 
-        this.gameController = new GameLogicController();
-        this.gameController.setupGame(numTeams, numPieces, boardType, isTestMode);
+        this.gameController = controller;
+        this.gameController.addListener(new GameEventFormatter(this::updateStatus));
+        this.journal = recoveredJournal != null ? recoveredJournal : openJournal(controller);
 
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                discardJournal(); // Closing the window quits the game as well
+            }
+        });
         setSize(1780, 1050);
         setLayout(new BorderLayout());
 
@@ -70,14 +92,43 @@ public class YunnoriSwingView extends JFrame implements ActionListener {
 
         setVisible(true);
 
-        List<String> initialMessages = new ArrayList<>();
-        initialMessages.add("Game setup complete.");
-        initialMessages.add(gameController.startGameAndGetMessages());
-        updateStatus(initialMessages);
+        if (gameController.getCurrentGameState() == GameLogicController.GameState.NOT_STARTED) {
+            updateStatus("Game setup complete.");
+            gameController.startGame();
+        } else {
+            updateStatus("Resumed the interrupted game. " + gameController.getCurrentPlayer() + " to play.");
+        }
 
         updateUIBasedOnGameState();
     }
 
+    private static GameLogicController newGame(int numTeams, int numPieces, boolean isTestMode, BoardType boardType) {
+        GameLogicController controller = new GameLogicController();
+        controller.setupGame(numTeams, numPieces, boardType, isTestMode);
+        return controller;
+    }
+
+    private static GameJournal openJournal(GameLogicController controller) {
+        try {
+            return GameJournal.create(GameJournal.DEFAULT_PATH, controller, false);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Could not open the game journal, the game will not be recoverable: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // The player quit, so there is nothing to offer as interrupted on the next launch
+    private void discardJournal() {
+        if (journal == null)
+            return;
+        try {
+            journal.discard();
+        } catch (IOException e) {
+            System.err.println("Could not remove the game journal: " + e.getMessage());
+        }
+        journal = null;
+    }
+
     private void updateStatus(String message) {
         if (message != null && !message.trim().isEmpty()) {
             messageArea.append(message.trim() + "\n");
@@ -101,10 +152,6 @@ public class YunnoriSwingView extends JFrame implements ActionListener {
                 gameState == GameLogicController.GameState.AWAITING_TEST_ROLL_INPUT);
         restartButton.setEnabled(gameState == GameLogicController.GameState.GAME_OVER);
 
-        if (gameState == GameLogicController.GameState.GAME_OVER) {
-            updateStatus(gameController.getGameOverMessages());
-        }
-
         if (gameState == GameLogicController.GameState.WAITING_FOR_PIECE_SELECTION ||
                 gameState == GameLogicController.GameState.WAITING_FOR_STACK_SELECTION) {
             List<Piece> playablePieces = gameController.getPlayablePiecesForCurrentRoll();
@@ -134,10 +181,11 @@ public class YunnoriSwingView extends JFrame implements ActionListener {
     @Override
     public void actionPerformed(ActionEvent e) {
         if (e.getSource() == quitButton) {
+            discardJournal();
             System.exit(0);
         } else if (e.getSource() == restartButton) {
             if (gameController.getCurrentGameState() == GameLogicController.GameState.GAME_OVER) {
-                updateStatus(gameController.restartGame());
+                gameController.restartGame();
                 this.boardPanel.board = gameController.getBoard(); // Update BoardPanel's board reference
                 this.boardPanel.teams = gameController.getTeams(); // Update teams reference
                 this.uiSelectedPieceForMove = null;
@@ -147,15 +195,14 @@ public class YunnoriSwingView extends JFrame implements ActionListener {
             updateStatus("Game is over! Click Restart or Quit.");
             // updateUIBasedOnGameState() will handle button states
         } else if (e.getSource() == rollButton) {
-            String rollMessages = gameController.handleRollButtonPressed();
-            updateStatus(rollMessages);
+            gameController.handleRollButtonPressed();
         }
         updateUIBasedOnGameState();
     }
 
     public void pieceClicked(Piece piece) {
         this.uiSelectedPieceForMove = piece;
-        updateStatus(gameController.handlePieceClicked(piece));
+        gameController.handlePieceClicked(piece);
 
         // Clear uiSelectedPieceForMove only if the piece was successfully processed
         // and game is not waiting for another decision for *this* piece (like grouping)
@@ -196,8 +243,7 @@ public class YunnoriSwingView extends JFrame implements ActionListener {
             Piece autoSelectedPiece = playablePiecesOrGroupsAtStack.get(0);
             // Useless message
             // updateStatus("Auto-selecting the only playable piece/group: " + autoSelectedPiece);
-            List<String> messages = gameController.handlePieceClicked(autoSelectedPiece);
-            updateStatus(messages);
+            gameController.handlePieceClicked(autoSelectedPiece);
             updateUIBasedOnGameState(); // Crucial to refresh after controller action
             return; // Explicitly return as action is handled
         } else {
@@ -225,14 +271,12 @@ public class YunnoriSwingView extends JFrame implements ActionListener {
         String input = (String) JOptionPane.showInputDialog(
                 this, "Enter test roll:", "Test Roll Input",
                 JOptionPane.QUESTION_MESSAGE, null, options, options[0]);
-        String message;
         if (input != null) {
             YunnoriRoll testRoll = YunnoriRoll.fromName(input);
-            message = gameController.submitTestRoll(testRoll);
+            gameController.submitTestRoll(testRoll);
         } else {
-            message = gameController.cancelTestRolling();
+            gameController.cancelTestRolling();
         }
-        updateStatus(message);
         updateUIBasedOnGameState(); // Controller state has changed
     }
 
@@ -267,15 +311,14 @@ public class YunnoriSwingView extends JFrame implements ActionListener {
                 }
             }
             if (valid) {
-                statusMessage = gameController.submitReorderedRolls(reordered);
+                gameController.submitReorderedRolls(reordered);
             } else {
                 updateStatus(statusMessage); // Show specific error
-                statusMessage = gameController.cancelReorder(); // Proceed with original order
+                gameController.cancelReorder(); // Proceed with original order
             }
         } else {
-            statusMessage = gameController.cancelReorder();
+            gameController.cancelReorder();
         }
-        updateStatus(statusMessage);
         updateUIBasedOnGameState();
     }
 
@@ -317,7 +360,7 @@ public class YunnoriSwingView extends JFrame implements ActionListener {
         if (pieceThatMoved == null || friendlies.isEmpty()) {
             // This state should ideally not be reached if controller guards it, but handle defensively.
             updateStatus("Grouping data missing, defaulting to no group.");
-            updateStatus(gameController.submitGroupingChoice(false)); // Tell controller to proceed without grouping
+            gameController.submitGroupingChoice(false); // Tell controller to proceed without grouping
             updateUIBasedOnGameState();
             return;
         }
@@ -328,7 +371,7 @@ public class YunnoriSwingView extends JFrame implements ActionListener {
                         ".\nDo you want " + pieceThatMoved.toString() + " to lead/join this stack?",
                 "Group Pieces?", JOptionPane.YES_NO_OPTION);
 
-        updateStatus(gameController.submitGroupingChoice(choice == JOptionPane.YES_OPTION));
+        gameController.submitGroupingChoice(choice == JOptionPane.YES_OPTION);
         updateUIBasedOnGameState();
     }
 